@@ -1,16 +1,22 @@
 package at.yousong.yousong_api.artist;
 
+import at.yousong.yousong_api.cache.CacheInvalidationListener;
+import at.yousong.yousong_api.db.IdSequences;
+import at.yousong.yousong_api.song.search.SearchIndexListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 @Entity
+@EntityListeners({SearchIndexListener.class, CacheInvalidationListener.class})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Artist {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "artist_seq")
+    @SequenceGenerator(name = "artist_seq", sequenceName = IdSequences.ARTIST, allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank(message = "Name must not be blank.")
@@ -18,6 +24,11 @@ public class Artist {
     @Column(nullable = false, unique = true, length = 200)
     private String name;
 
+    // lower(name), von der Datenbank berechnet (generierte Spalte) – nur für indizierte Abfragen ohne Groß-/Kleinschreibung
+    @Column(name = "name_key", length = 200, insertable = false, updatable = false)
+    @JsonIgnore
+    private String nameKey;
+
     @Size(max = 500, message = "Description must be at most 500 characters.")
     @Column(length = 500)
     private String description;
@@ -1,6 +1,9 @@
 package at.yousong.yousong_api.artist;
 
+import at.yousong.yousong_api.cache.ETags;
+import at.yousong.yousong_api.cache.ReadCache;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,14 +18,20 @@ import java.util.Optional;
 public class ArtistController {
 
     private final ArtistRepository artistRepository;
+    private final ReadCache readCache;
 
-    public ArtistController(ArtistRepository artistRepository) {
+    public ArtistController(ArtistRepository artistRepository, ReadCache readCache) {
         this.artistRepository = artistRepository;
+        this.readCache = readCache;
     }
 
+    // 🔹 Schwaches ETag aus dem Änderungszähler des Caches; If-None-Match → 304 ohne Laden
     @GetMapping
-    public ResponseEntity<List<Artist>> getAllArtists() {
-        return ResponseEntity.ok(artistRepository.findAll());
+    public ResponseEntity<List<Artist>> getAllArtists(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = readCache.listETag();
+        if (ETags.notModified(ifNoneMatch, etag)) return ETags.notModifiedResponse(etag);
+        return ETags.okResponse(etag).body(readCache.artists(artistRepository::findAll));
     }
 
     @GetMapping("/{id}")
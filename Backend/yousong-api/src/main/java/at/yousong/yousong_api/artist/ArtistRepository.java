@@ -1,14 +1,27 @@
 package at.yousong.yousong_api.artist;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ArtistRepository extends JpaRepository<Artist, Long> {
     List<Artist> findByNameContainingIgnoreCase(String name);
-    Optional<Artist> findByNameIgnoreCase(String name);
-    boolean existsByNameIgnoreCase(String name);
+
+    // 🔹 Ohne Groß-/Kleinschreibung über name_key (generierte Spalte lower(name) mit Index, siehe V2__lookup_indexes.sql);
+    //    lower(a.name) = … würde jede Zeile lesen
+    @Query("select a from Artist a where a.nameKey = lower(:name)")
+    Optional<Artist> findByNameIgnoreCase(@Param("name") String name);
+
+    @Query("select count(a) > 0 from Artist a where a.nameKey = lower(:name)")
+    boolean existsByNameIgnoreCase(@Param("name") String name);
+
+    // 🔹 Mehrere Namen in einer Abfrage auflösen (Namen bereits klein geschrieben)
+    @Query("select a from Artist a where a.nameKey in :names")
+    List<Artist> findByLowerNameIn(@Param("names") Collection<String> names);
 }
@@ -0,0 +1,73 @@
+package at.yousong.yousong_api.audio;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "audio_blob")
+public class AudioBlob {
+
+    // SHA-256 (hex) des Inhalts = Dateiname im BlobStore
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(nullable = false, length = 100)
+    private String contentType;
+
+    @Column(nullable = false)
+    private long size;
+
+    // Anzahl Songs, die auf diesen Blob zeigen
+    @Column(nullable = false)
+    private int refCount;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Letzter Upload dieses Inhalts (auch bei Dedup); schützt frische Uploads vor BlobStore.release
+    @Column(nullable = false)
+    private Instant uploadedAt;
+
+    // 🔹 Ergebnis der Ingestion (AudioIngestion); null = Blob von vor der Ingestion, wird nachgeholt.
+    //    Geschrieben nur per Update-Query (AudioBlobRepository.markReady/markFailed/…), wie refCount.
+    public enum Status { PROCESSING, READY, FAILED, SKIPPED }
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Status status;
+
+    private Long durationMillis;
+    private Integer bitrateKbps;
+    private Integer sampleRate;
+    private Integer frameCount;
+
+    @Column(length = 200)
+    private String error;
+
+    public AudioBlob() {}
+
+    public AudioBlob(String hash, String contentType, long size) {
+        this.hash = hash;
+        this.contentType = contentType;
+        this.size = size;
+        this.refCount = 0;
+        this.createdAt = Instant.now();
+        this.uploadedAt = this.createdAt;
+        this.status = Status.PROCESSING;
+    }
+
+    public String getHash() { return hash; }
+    public String getContentType() { return contentType; }
+    public long getSize() { return size; }
+    public int getRefCount() { return refCount; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Instant getUploadedAt() { return uploadedAt; }
+    public Status getStatus() { return status; }
+    public Long getDurationMillis() { return durationMillis; }
+    public Integer getBitrateKbps() { return bitrateKbps; }
+    public Integer getSampleRate() { return sampleRate; }
+    public Integer getFrameCount() { return frameCount; }
+    public String getError() { return error; }
+}
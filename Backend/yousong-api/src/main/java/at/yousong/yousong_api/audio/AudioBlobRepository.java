@@ -0,0 +1,72 @@
+package at.yousong.yousong_api.audio;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AudioBlobRepository extends JpaRepository<AudioBlob, String> {
+
+    List<AudioBlob> findByRefCountAndUploadedAtBefore(int refCount, Instant uploadedAt);
+
+    // 🔹 Zeile bis zum Commit sperren: promote und release auf denselben Hash laufen nacheinander
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from AudioBlob b where b.hash = :hash")
+    Optional<AudioBlob> lockById(@Param("hash") String hash);
+
+    @Modifying
+    @Query("update AudioBlob b set b.uploadedAt = :now where b.hash = :hash")
+    int markUploaded(@Param("hash") String hash, @Param("now") Instant now);
+
+    // 🔹 Noch nicht (fertig) analysierte Blobs: neue Uploads und Bestände von vor der Ingestion
+    @Query("select b.hash from AudioBlob b where b.status is null or b.status = at.yousong.yousong_api.audio.AudioBlob.Status.PROCESSING")
+    List<String> findPendingIngestion(Pageable pageable);
+
+    @Query("select b.durationMillis from AudioBlob b where b.hash = :hash and b.status = at.yousong.yousong_api.audio.AudioBlob.Status.READY")
+    Optional<Long> findReadyDuration(@Param("hash") String hash);
+
+    // 🔹 Ingestion-Ergebnis gezielt setzen: ein Entity-Update würde auch refCount mit altem Stand überschreiben
+    @Modifying
+    @Query("""
+            update AudioBlob b set b.status = at.yousong.yousong_api.audio.AudioBlob.Status.READY,
+                   b.durationMillis = :durationMillis, b.bitrateKbps = :bitrateKbps,
+                   b.sampleRate = :sampleRate, b.frameCount = :frameCount, b.error = null
+            where b.hash = :hash
+            """)
+    int markReady(@Param("hash") String hash, @Param("durationMillis") long durationMillis,
+                  @Param("bitrateKbps") int bitrateKbps, @Param("sampleRate") int sampleRate,
+                  @Param("frameCount") int frameCount);
+
+    @Modifying
+    @Query("update AudioBlob b set b.status = at.yousong.yousong_api.audio.AudioBlob.Status.FAILED, b.error = :error where b.hash = :hash")
+    int markFailed(@Param("hash") String hash, @Param("error") String error);
+
+    @Modifying
+    @Query("update AudioBlob b set b.status = at.yousong.yousong_api.audio.AudioBlob.Status.SKIPPED where b.hash = :hash")
+    int markSkipped(@Param("hash") String hash);
+
+    @Modifying
+    @Query("update AudioBlob b set b.refCount = b.refCount + 1 where b.hash = :hash")
+    int increment(@Param("hash") String hash);
+
+    @Modifying
+    @Query("update AudioBlob b set b.refCount = b.refCount + :count where b.hash = :hash")
+    int incrementBy(@Param("hash") String hash, @Param("count") int count);
+
+    @Modifying
+    @Query("update AudioBlob b set b.refCount = b.refCount - 1 where b.hash = :hash and b.refCount > 0")
+    int decrement(@Param("hash") String hash);
+
+    @Modifying
+    @Query("delete from AudioBlob b where b.hash = :hash and b.refCount = 0 and b.uploadedAt < :uploadedBefore")
+    int deleteIfUnreferenced(@Param("hash") String hash, @Param("uploadedBefore") Instant uploadedBefore);
+}
@@ -0,0 +1,113 @@
+package at.yousong.yousong_api.audio;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Audio-Bytes außerhalb des Heaps, pro (Song-ID, Version): dekodiertes Legacy-Audio als Direct-{@link ByteBuffer},
+ * Blobs als Memory-Mapping der Datei. Damit erzeugen viele Abrufe desselben Tracks keine Byte-Arrays im Heap.
+ * <ul>
+ *   <li>Budget in Bytes ({@code yousong.audio.byte-cache-size}), Caffeine (W-TinyLFU) verdrängt nach Häufigkeit</li>
+ *   <li>Single-Flight: gleichzeitige Fehlschläge für denselben Schlüssel laden genau einmal, die übrigen warten</li>
+ *   <li>Ein Update erhöht die Song-Version → neuer Schlüssel; alte Einträge entfernt {@link #invalidate(long)}</li>
+ * </ul>
+ * Verdrängte Puffer gibt die JVM beim nächsten GC frei; laufende Responses behalten bis dahin ihr Duplikat.
+ */
+@Component
+public class AudioByteCache implements MeterBinder {
+
+    public record Key(long songId, long version) {}
+
+    static final int WRITE_CHUNK = 64 * 1024;
+
+    private final boolean enabled;
+    private final AsyncCache<Key, ByteBuffer> cache;
+
+    public AudioByteCache(@Value("${yousong.audio.byte-cache-enabled:true}") boolean enabled,
+                          @Value("${yousong.audio.byte-cache-size:64MB}") DataSize budget) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(budget.toBytes())
+                .weigher((Key key, ByteBuffer bytes) -> bytes.capacity())
+                // Laden im aufrufenden Thread; die übrigen warten auf dasselbe Future statt selbst zu laden
+                .executor(Runnable::run)
+                .recordStats()
+                .buildAsync();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Gecachte Bytes (bzw. direkt geladen, falls abgeschaltet) als eigenes, schreibgeschütztes Duplikat. */
+    public ByteBuffer get(Key key, Function<Key, ByteBuffer> loader) {
+        if (!enabled) return loader.apply(key).asReadOnlyBuffer();
+        try {
+            return cache.get(key, loader).join().asReadOnlyBuffer();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    // 🔹 Song geändert oder gelöscht: alle Versionen raus (neuere Versionen würden ohnehin neu geladen)
+    public void invalidate(long songId) {
+        cache.synchronous().asMap().keySet().removeIf(key -> key.songId() == songId);
+    }
+
+    public long weightedSize() {
+        return cache.synchronous().policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    // 🔹 Blob-Datei read-only mappen: liegt im Page-Cache des OS, nicht im Heap
+    public static ByteBuffer map(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map audio " + file.getFileName(), e);
+        }
+    }
+
+    /**
+     * Schreibt {@code bytes} als Body über {@code response.getOutputStream()} – also durch alle Wrapper der
+     * Filter-Kette (Spring Security, Metriken, Kompression) und unabhängig vom Container. Kopiert wird in Stücken
+     * von {@value #WRITE_CHUNK} Bytes, der Heap sieht nie die ganze Datei. Ganze Blob-Dateien gehen per sendfile
+     * über den {@link AudioResponder}; hier landen nur dekodiertes Legacy-Audio und HLS-Segmente.
+     */
+    public static void write(ByteBuffer bytes, HttpServletResponse response) throws IOException {
+        OutputStream out = response.getOutputStream();
+        byte[] chunk = new byte[Math.min(WRITE_CHUNK, bytes.remaining())];
+        while (bytes.hasRemaining()) {
+            int n = Math.min(chunk.length, bytes.remaining());
+            bytes.get(chunk, 0, n);
+            out.write(chunk, 0, n);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "audio");
+        Gauge.builder("yousong.audio.byte-cache.size", this, AudioByteCache::weightedSize)
+                .baseUnit("bytes")
+                .description("Audio bytes held by the off-heap cache")
+                .register(registry);
+    }
+}
@@ -0,0 +1,175 @@
+package at.yousong.yousong_api.audio;
+
+import at.yousong.yousong_api.cache.ReadCache;
+import at.yousong.yousong_api.metrics.YousongMetrics;
+import at.yousong.yousong_api.song.SongRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Analysiert neue Blobs im Hintergrund mit {@link Mp3FrameParser}: exakte Dauer, Bitrate, Sample-Rate,
+ * Frame-Index (für Seeking/Segmente). Kaputte Dateien werden als {@code FAILED} markiert und lassen sich
+ * danach nicht mehr an Songs hängen. Songs mit der Datei bekommen die gemessene Dauer als {@code length}.
+ * <ul>
+ *   <li>eigener, begrenzter Pool ({@code yousong.audio.ingest-threads}/{@code -queue}): Uploads warten nie darauf</li>
+ *   <li>läuft nach dem Commit des Uploads; ist die Queue voll oder die App wurde neu gestartet,
+ *       holt der periodische Sweep offene Blobs nach</li>
+ * </ul>
+ */
+@Component
+public class AudioIngestion {
+
+    private static final Logger log = LoggerFactory.getLogger(AudioIngestion.class);
+    private static final int SWEEP_BATCH = 100;
+
+    private final AudioBlobRepository blobRepository;
+    private final SongRepository songRepository;
+    private final BlobStore blobStore;
+    private final TransactionTemplate tx;
+    private final ReadCache readCache;
+    private final YousongMetrics metrics;
+    private final boolean enabled;
+    private final ThreadPoolExecutor executor;
+    // Hashes in Queue oder Arbeit, damit Sweep und Upload-Event denselben Blob nicht doppelt einreihen
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public AudioIngestion(AudioBlobRepository blobRepository, SongRepository songRepository, BlobStore blobStore,
+                          TransactionTemplate tx, ReadCache readCache, YousongMetrics metrics,
+                          @Value("${yousong.audio.ingest-enabled:true}") boolean enabled,
+                          @Value("${yousong.audio.ingest-threads:2}") int threads,
+                          @Value("${yousong.audio.ingest-queue:256}") int queueSize) {
+        this.blobRepository = blobRepository;
+        this.songRepository = songRepository;
+        this.blobStore = blobStore;
+        this.tx = tx;
+        this.readCache = readCache;
+        this.metrics = metrics;
+        this.enabled = enabled;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                r -> {
+                    Thread t = new Thread(r, "audio-ingest-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // 🔹 Erst nach dem Commit: vorher ist die Blob-Zeile für den Worker nicht sichtbar
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStored(BlobStore.AudioStored event) {
+        submit(event.hash());
+    }
+
+    @Scheduled(fixedDelayString = "${yousong.audio.ingest-sweep-interval:PT1M}")
+    public void sweep() {
+        if (!enabled) return;
+        blobRepository.findPendingIngestion(PageRequest.of(0, SWEEP_BATCH)).forEach(this::submit);
+    }
+
+    /** @return false, wenn abgeschaltet, schon eingereiht oder die Queue voll ist (dann holt es der Sweep) */
+    public boolean submit(String hash) {
+        if (!enabled || !inFlight.add(hash)) return false;
+        try {
+            executor.execute(() -> {
+                try {
+                    ingest(hash);
+                } finally {
+                    inFlight.remove(hash);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(hash);
+            return false;
+        }
+    }
+
+    void ingest(String hash) {
+        AudioBlob blob = blobRepository.findById(hash).orElse(null);
+        if (blob == null || (blob.getStatus() != null && blob.getStatus() != AudioBlob.Status.PROCESSING)) return;
+        long start = System.nanoTime();
+
+        if (!isMpeg(blob.getContentType())) {
+            update(hash, () -> blobRepository.markSkipped(hash));
+            metrics.audioIngested("skipped", System.nanoTime() - start);
+            return;
+        }
+
+        Mp3FrameParser.Mp3Info info;
+        try (InputStream in = Files.newInputStream(blobStore.pathOf(hash))) {
+            info = Mp3FrameParser.parse(in);
+            info.frames().write(blobStore.framesPathOf(hash));
+        } catch (InvalidAudioException e) {
+            update(hash, () -> blobRepository.markFailed(hash, truncate(e.getMessage())));
+            metrics.audioIngested("failed", System.nanoTime() - start);
+            log.info("Audio {} rejected: {}", hash, e.getMessage());
+            return;
+        } catch (IOException | RuntimeException e) {
+            update(hash, () -> blobRepository.markFailed(hash, "Audio could not be read."));
+            metrics.audioIngested("error", System.nanoTime() - start);
+            log.warn("Audio {} could not be analysed", hash, e);
+            return;
+        }
+
+        int songs;
+        try {
+            // markReady zuerst: sperrt die Blob-Zeile, die auch retain() beim Anhängen an einen Song sperrt
+            songs = tx.execute(status -> {
+                blobRepository.markReady(hash, info.durationMillis(), info.bitrateKbps(),
+                        info.sampleRate(), info.frames().frameCount());
+                return songRepository.applyAudioLength(hash, lengthSeconds(info.durationMillis()), Instant.now());
+            });
+        } catch (RuntimeException e) {
+            log.warn("Audio {} analysed but not saved, retried by the next sweep", hash, e);
+            return;
+        }
+        // Bulk-Update läuft an den Entity-Listenern vorbei
+        readCache.clear();
+        metrics.audioIngested("ready", System.nanoTime() - start);
+        log.debug("Audio {}: {} ({} ms, {} kbps, {} frames), {} songs updated", hash, info.format(),
+                info.durationMillis(), info.bitrateKbps(), info.frames().frameCount(), songs);
+    }
+
+    private void update(String hash, Runnable mark) {
+        tx.executeWithoutResult(status -> {
+            mark.run();
+            songRepository.touchByAudioHash(hash, Instant.now());
+        });
+        readCache.clear();
+    }
+
+    // Song-Länge in ganzen Sekunden
+    static int lengthSeconds(long durationMillis) {
+        return (int) Math.max(1, Math.round(durationMillis / 1000.0));
+    }
+
+    private static String truncate(String message) {
+        return message == null || message.length() <= 200 ? message : message.substring(0, 200);
+    }
+
+    static boolean isMpeg(String contentType) {
+        return "audio/mpeg".equals(contentType) || "audio/mp3".equals(contentType) || "audio/mpeg3".equals(contentType);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
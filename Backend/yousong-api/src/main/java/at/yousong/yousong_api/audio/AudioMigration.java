@@ -0,0 +1,78 @@
+package at.yousong.yousong_api.audio;
+
+import at.yousong.yousong_api.song.Song;
+import at.yousong.yousong_api.song.SongAudio;
+import at.yousong.yousong_api.song.SongAudioRepository;
+import at.yousong.yousong_api.song.SongRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Übernimmt Legacy-Audio (Data-URIs aus {@code song_audio}) in den {@link BlobStore}. Die alte Spalte
+ * {@code song.music_data} hat schon Flyway nach {@code song_audio} verschoben (V5); hier ändert sich nur der Inhalt.
+ * Jede Zeile läuft in einer eigenen Transaktion, damit ein kaputter Eintrag den Rest nicht blockiert;
+ * solche Zeilen werden weiter über den Legacy-Pfad ausgeliefert.
+ */
+@Component
+@Order(30)
+public class AudioMigration implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(AudioMigration.class);
+
+    private final SongRepository songRepository;
+    private final SongAudioRepository songAudioRepository;
+    private final BlobStore blobStore;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+
+    public AudioMigration(SongRepository songRepository, SongAudioRepository songAudioRepository, BlobStore blobStore,
+                          TransactionTemplate tx,
+                          @Value("${yousong.audio.migrate-on-startup:true}") boolean enabled) {
+        this.songRepository = songRepository;
+        this.songAudioRepository = songAudioRepository;
+        this.blobStore = blobStore;
+        this.tx = tx;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) return;
+
+        List<Long> ids = songAudioRepository.findLegacyAudioIds();
+        int migrated = 0;
+        for (Long id : ids) {
+            try {
+                if (Boolean.TRUE.equals(tx.execute(status -> migrate(id)))) migrated++;
+            } catch (RuntimeException e) {
+                log.warn("Audio of song {} could not be migrated: {}", id, e.getMessage());
+            }
+        }
+        if (!ids.isEmpty()) log.info("Migrated audio of {}/{} songs into the blob store", migrated, ids.size());
+    }
+
+    private boolean migrate(Long id) {
+        SongAudio legacy = songAudioRepository.findById(id).orElse(null);
+        if (legacy == null || !DataUri.isAudio(legacy.getMusicData())) return false;
+        Song song = songRepository.findById(id).orElse(null);
+        if (song == null) return false;
+
+        if (song.getAudioHash() == null) {
+            DataUri uri = DataUri.parse(legacy.getMusicData());
+            BlobStore.StoredBlob blob = blobStore.store(uri.openStream(), uri.contentType());
+            blobStore.retain(blob.hash());
+            song.setAudioHash(blob.hash());
+            song.setAudioContentType(blob.contentType());
+            song.setAudioSize(blob.size());
+        }
+        songAudioRepository.delete(legacy);
+        return true;
+    }
+}
@@ -0,0 +1,167 @@
+package at.yousong.yousong_api.audio;
+
+import at.yousong.yousong_api.cache.ETags;
+import at.yousong.yousong_api.metrics.YousongMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Liefert Blobs aus dem {@link BlobStore} aus, inkl. {@code Range}/{@code If-Range} (206 Partial Content)
+ * und {@code If-None-Match} (304, ohne die Datei anzufassen). Das ETag ist der Inhalts-Hash.
+ * Ganze Dateien und Einzel-Ranges gehen per Tomcat-sendfile ({@code FileChannel.transferTo}) direkt
+ * vom Page-Cache auf den Socket; ohne sendfile wird der Bereich direkt aus der Datei kopiert. Multi-Ranges
+ * schreibt {@link #writeMultipart} als {@code multipart/byteranges} mit dem Typ des Songs je Teil.
+ */
+@Component
+public class AudioResponder {
+
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final BlobStore blobStore;
+    private final YousongMetrics metrics;
+
+    public AudioResponder(BlobStore blobStore, YousongMetrics metrics) {
+        this.blobStore = blobStore;
+        this.metrics = metrics;
+    }
+
+    public ResponseEntity<?> serve(HttpServletRequest request, HttpServletResponse response,
+                                   String hash, String contentType, long size) throws IOException {
+        Path file = blobStore.pathOf(hash);
+        FileSystemResource resource = new FileSystemResource(file);
+        String etag = ETags.strong(hash);
+        if (ETags.notModified(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag))
+            return headers(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag).build();
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+
+        List<HttpRange> ranges = requestedRanges(request, etag);
+        if (ranges.isEmpty()) {
+            ResponseEntity.BodyBuilder ok = headers(ResponseEntity.ok(), etag).contentType(mediaType).contentLength(size);
+            served(request, size);
+            // InputStreamResource, damit Spring Range-Header (z. B. bei abweichendem If-Range) nicht selbst auswertet
+            return sendfile(request, file, 0, size) ? ok.build() : ok.body(new InputStreamResource(resource));
+        }
+
+        List<ResourceRegion> regions;
+        try {
+            regions = HttpRange.toResourceRegions(ranges, resource);
+        } catch (IllegalArgumentException e) {
+            return headers(ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE), etag)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                    .build();
+        }
+
+        served(request, regions.stream().mapToLong(ResourceRegion::getCount).sum());
+        if (regions.size() > 1) {
+            writeMultipart(response, etag, regions, file, mediaType, size);
+            return null;
+        }
+
+        ResourceRegion region = regions.get(0);
+        long start = region.getPosition();
+        long end = start + region.getCount();
+        HttpHeaders partial = headers(ResponseEntity.status(HttpStatus.PARTIAL_CONTENT), etag)
+                .contentType(mediaType)
+                .contentLength(region.getCount())
+                .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + size)
+                .build().getHeaders();
+        if (sendfile(request, file, start, end))
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(partial).build();
+        // Ohne sendfile selbst kopieren: für ResponseEntity<?> mit ResourceRegion findet Spring keinen Converter
+        OutputStream body = partialContent(response, partial);
+        try (InputStream in = Files.newInputStream(file)) {
+            StreamUtils.copyRange(in, body, start, end - 1);
+        }
+        body.flush();
+        return null;
+    }
+
+    // 🔹 multipart/byteranges selbst schreiben: Springs ResourceRegion-Converter leitet den Typ jedes Teils aus dem
+    //    Dateinamen ab, der hier ein Hash ohne Endung ist (→ application/octet-stream statt z. B. audio/mpeg)
+    private static void writeMultipart(HttpServletResponse response, String etag, List<ResourceRegion> regions,
+                                       Path file, MediaType mediaType, long size) throws IOException {
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        HttpHeaders headers = headers(ResponseEntity.status(HttpStatus.PARTIAL_CONTENT), etag)
+                .contentType(MediaType.parseMediaType("multipart/byteranges; boundary=" + boundary))
+                .build().getHeaders();
+        OutputStream body = partialContent(response, headers);
+        for (ResourceRegion region : regions) {
+            long start = region.getPosition();
+            long end = start + region.getCount() - 1;
+            body.write(("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + mediaType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": bytes " + start + "-" + end + "/" + size + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            try (InputStream in = Files.newInputStream(file)) {
+                StreamUtils.copyRange(in, body, start, end);
+            }
+        }
+        body.write(("\r\n--" + boundary + "--").getBytes(StandardCharsets.US_ASCII));
+        body.flush();
+    }
+
+    private static OutputStream partialContent(HttpServletResponse response, HttpHeaders headers) throws IOException {
+        ServletServerHttpResponse out = new ServletServerHttpResponse(response);
+        out.setStatusCode(HttpStatus.PARTIAL_CONTENT);
+        out.getHeaders().addAll(headers);
+        return out.getBody();
+    }
+
+    // 🔹 Range nur auswerten, wenn If-Range fehlt oder zum aktuellen ETag passt; ungültige Syntax = ganze Datei
+    private List<HttpRange> requestedRanges(HttpServletRequest request, String etag) {
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range == null) return List.of();
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.trim().equals(etag)) return List.of();
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    private static ResponseEntity.BodyBuilder headers(ResponseEntity.BodyBuilder builder, String etag) {
+        return builder.eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+    }
+
+    // 🔹 Zählt die geplanten Body-Bytes (HEAD liefert keinen Body)
+    private void served(HttpServletRequest request, long bytes) {
+        if ("GET".equals(request.getMethod())) metrics.audioServed("blob", bytes);
+    }
+
+    private static boolean sendfile(HttpServletRequest request, Path file, long start, long end) {
+        if (!"GET".equals(request.getMethod()) || !Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT)))
+            return false;
+        request.setAttribute(SENDFILE_FILENAME, file.toString());
+        request.setAttribute(SENDFILE_START, start);
+        request.setAttribute(SENDFILE_END, end);
+        return true;
+    }
+}
@@ -0,0 +1,7 @@
+package at.yousong.yousong_api.audio;
+
+public class AudioTooLargeException extends RuntimeException {
+    public AudioTooLargeException(long maxBytes) {
+        super("Audio file exceeds the limit of " + maxBytes + " bytes.");
+    }
+}
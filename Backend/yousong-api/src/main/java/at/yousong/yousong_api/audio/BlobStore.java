@@ -0,0 +1,214 @@
+package at.yousong.yousong_api.audio;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Content-addressed Ablage für Audio-Dateien: jede Datei liegt genau einmal pro SHA-256
+ * unter {@code <storage-dir>/ab/cd/<hash>}, Songs halten nur den Hash und zählen über
+ * {@link AudioBlob#getRefCount()} mit.
+ */
+@Component
+public class BlobStore {
+
+    public record StoredBlob(String hash, String contentType, long size, AudioBlob.Status status) {}
+
+    /** Neuer Blob angelegt; {@link AudioIngestion} analysiert ihn nach dem Commit. */
+    public record AudioStored(String hash) {}
+
+    // Zwei Transaktionen, die je einen Hash halten und den des anderen wollen (z. B. Audio getauscht), warten
+    // nicht ewig aufeinander: eine bricht nach dieser Zeit ab (→ 503)
+    private static final long LOCK_TIMEOUT_SECONDS = 10;
+
+    private final AudioBlobRepository blobRepository;
+    private final ApplicationEventPublisher events;
+    private final Path root;
+    private final Duration uploadGrace;
+    // Gestreute Locks pro Hash für "Datei liegt da" ↔ "Zeile existiert" (promote ↔ release/purge),
+    // jeweils vor der Zeilensperre genommen und bis nach dem Löschen der Datei gehalten
+    private final ReentrantLock[] locks = new ReentrantLock[64];
+
+    public BlobStore(AudioBlobRepository blobRepository, ApplicationEventPublisher events,
+                     @Value("${yousong.audio.storage-dir:./data/audio}") String storageDir,
+                     @Value("${yousong.audio.upload-session-ttl:PT24H}") Duration uploadGrace) {
+        this.blobRepository = blobRepository;
+        this.events = events;
+        this.root = Path.of(storageDir).toAbsolutePath().normalize();
+        this.uploadGrace = uploadGrace;
+        for (int i = 0; i < locks.length; i++) locks[i] = new ReentrantLock();
+    }
+
+    // 🔹 Bytes streamen, hashen und (falls neu) ablegen – ohne den Inhalt im Heap zu halten
+    @Transactional
+    public StoredBlob store(InputStream in, String contentType) {
+        try {
+            Files.createDirectories(root);
+            Path tmp = Files.createTempFile(root, "upload-", ".tmp");
+            try {
+                MessageDigest digest = sha256();
+                long size;
+                try (OutputStream out = new DigestOutputStream(Files.newOutputStream(tmp), digest)) {
+                    size = in.transferTo(out);
+                }
+                String hash = HexFormat.of().formatHex(digest.digest());
+                return promote(tmp, hash, contentType, size);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store audio", e);
+        }
+    }
+
+    // 🔹 Bereits gehashte Datei (z. B. aus einem Upload) in den Store übernehmen. Datei und Zeile ändern sich nur unter
+    //    dem Lock des Hashes, gehalten bis zum Ende der Transaktion; die Zeile selbst ist per "for update" gesperrt
+    @Transactional
+    public StoredBlob promote(Path file, String hash, String contentType, long size) throws IOException {
+        lockUntilCompletion(hash);
+        Optional<AudioBlob> existing = blobRepository.lockById(hash);
+        Path target = pathOf(hash);
+        if (!Files.exists(target)) {
+            Files.createDirectories(target.getParent());
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+        if (existing.isPresent()) {
+            // Dedup: gilt wieder als frischer Upload, release löscht den Blob nicht, bevor er angehängt ist
+            blobRepository.markUploaded(hash, Instant.now());
+            return stored(existing.get());
+        }
+        events.publishEvent(new AudioStored(hash));
+        return stored(blobRepository.save(new AudioBlob(hash, contentType, size)));
+    }
+
+    @Transactional
+    public void retain(String hash) {
+        if (hash != null && blobRepository.increment(hash) == 0)
+            throw new IllegalArgumentException("Unknown audio " + hash);
+    }
+
+    // 🔹 Mehrere Referenzen auf einmal (z. B. Seeding: viele Songs teilen sich eine Datei)
+    @Transactional
+    public void retain(String hash, int count) {
+        if (blobRepository.incrementBy(hash, count) == 0)
+            throw new IllegalArgumentException("Unknown audio " + hash);
+    }
+
+    // 🔹 Referenz abgeben; letzte Referenz löscht Zeile und (nach Commit) die Datei. Frisch hochgeladene Blobs
+    //    bleiben bis zum Ablauf der Upload-Frist liegen (purgeUnreferenced), sie werden gleich wieder angehängt
+    @Transactional
+    public void release(String hash) {
+        if (hash == null) return;
+        lockUntilCompletion(hash);
+        if (blobRepository.lockById(hash).isEmpty()) return;
+        blobRepository.decrement(hash);
+        deleteIfUnreferenced(hash, Instant.now().minus(uploadGrace));
+    }
+
+    public Optional<StoredBlob> find(String hash) {
+        return blobRepository.findById(hash).map(BlobStore::stored);
+    }
+
+    // 🔹 Gemessene Dauer in Sekunden (nur READY). Erst nach retain() aufrufen: retain sperrt die Blob-Zeile,
+    //    ein paralleles Ingestion-Ergebnis ist dann entweder hier sichtbar oder die Ingestion sieht den Song schon
+    public Optional<Integer> measuredLength(String hash) {
+        return blobRepository.findReadyDuration(hash).map(AudioIngestion::lengthSeconds);
+    }
+
+    // 🔹 Blob inkl. Ingestion-Ergebnis (Dauer, Bitrate, Status)
+    public Optional<AudioBlob> describe(String hash) {
+        return blobRepository.findById(hash);
+    }
+
+    // 🔹 Uploads, die nie an einem Song gelandet sind
+    @Transactional
+    public void purgeUnreferenced(Instant uploadedBefore) {
+        blobRepository.findByRefCountAndUploadedAtBefore(0, uploadedBefore).forEach(blob -> {
+            lockUntilCompletion(blob.getHash());
+            blobRepository.lockById(blob.getHash());
+            deleteIfUnreferenced(blob.getHash(), uploadedBefore);
+        });
+    }
+
+    public Path pathOf(String hash) {
+        if (hash == null || !hash.matches("[0-9a-f]{64}"))
+            throw new IllegalArgumentException("Invalid audio hash");
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    // Frame-Index (siehe FrameIndex) liegt neben dem Blob
+    public Path framesPathOf(String hash) {
+        Path blob = pathOf(hash);
+        return blob.resolveSibling(hash + ".frames");
+    }
+
+    // Zeile und Hash-Lock sind gesperrt: löscht nur, wenn wirklich keine Referenz mehr besteht und der letzte Upload
+    // alt genug ist. afterCommit läuft vor afterCompletion (Unlock), ein promote kann die Datei also nicht
+    // zwischen Commit und Löschen neu ablegen – keine zweite Transaktion/Verbindung nötig
+    private void deleteIfUnreferenced(String hash, Instant uploadedBefore) {
+        if (blobRepository.deleteIfUnreferenced(hash, uploadedBefore) == 0) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() { deleteFiles(hash); }
+        });
+    }
+
+    private void deleteFiles(String hash) {
+        try {
+            Files.deleteIfExists(pathOf(hash));
+            Files.deleteIfExists(framesPathOf(hash));
+        } catch (IOException ignored) {
+            /* verwaiste Datei, wird beim nächsten Upload wiederverwendet */
+        }
+    }
+
+    private void lockUntilCompletion(String hash) {
+        ReentrantLock lock = lockOf(hash);
+        try {
+            if (!lock.tryLock(LOCK_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                throw new CannotAcquireLockException("Audio " + hash + " is busy");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotAcquireLockException("Interrupted while waiting for audio " + hash, e);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) { lock.unlock(); }
+        });
+    }
+
+    private ReentrantLock lockOf(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), locks.length)];
+    }
+
+    private static StoredBlob stored(AudioBlob blob) {
+        return new StoredBlob(blob.getHash(), blob.getContentType(), blob.getSize(), blob.getStatus());
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
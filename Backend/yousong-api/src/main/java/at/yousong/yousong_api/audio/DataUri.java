@@ -0,0 +1,117 @@
+package at.yousong.yousong_api.audio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Base64;
+
+/**
+ * Legacy-Format {@code data:audio/mpeg;base64,....} wie es der Client per readAsDataURL schickt.
+ * Dekodiert direkt aus dem String, ohne split() oder Zwischen-Arrays.
+ */
+public final class DataUri {
+
+    private final String value;
+    private final String contentType;
+    private final int payloadStart;
+
+    private DataUri(String value, String contentType, int payloadStart) {
+        this.value = value;
+        this.contentType = contentType;
+        this.payloadStart = payloadStart;
+    }
+
+    public static boolean isAudio(String value) {
+        return value != null && value.startsWith("data:audio");
+    }
+
+    public static DataUri parse(String value) {
+        if (!isAudio(value))
+            throw new IllegalArgumentException("Music data must be an audio data URI.");
+        int comma = value.indexOf(',');
+        int semicolon = value.indexOf(';');
+        if (comma < 0 || semicolon < 0 || semicolon > comma || !value.regionMatches(semicolon, ";base64", 0, 7))
+            throw new IllegalArgumentException("Music data must be base64 encoded.");
+        return new DataUri(value, value.substring(5, semicolon), comma + 1);
+    }
+
+    public String contentType() { return contentType; }
+
+    public InputStream openStream() {
+        return Base64.getDecoder().wrap(new CharSequenceInputStream(value, payloadStart));
+    }
+
+    /**
+     * Dekodiert eine Data-URI direkt aus einem {@link Reader} (z. B. CLOB-Stream): Header bis zum Komma
+     * überspringen, Rest über {@code Base64.getDecoder().wrap(...)} – Speicherbedarf bleibt konstant.
+     */
+    public static InputStream decode(Reader reader) throws IOException {
+        int c;
+        while ((c = reader.read()) != ',') {
+            if (c < 0) throw new IOException("Music data has no payload.");
+        }
+        return Base64.getDecoder().wrap(new ReaderInputStream(reader));
+    }
+
+    private static final class ReaderInputStream extends InputStream {
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private int pos;
+        private int limit;
+
+        ReaderInputStream(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (pos == limit && !fill()) return -1;
+            return buffer[pos++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            if (pos == limit && !fill()) return -1;
+            int n = Math.min(len, limit - pos);
+            for (int i = 0; i < n; i++) b[off + i] = (byte) buffer[pos++];
+            return n;
+        }
+
+        private boolean fill() throws IOException {
+            int n = reader.read(buffer);
+            pos = 0;
+            limit = Math.max(n, 0);
+            return n > 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static final class CharSequenceInputStream extends InputStream {
+        private final CharSequence chars;
+        private int pos;
+
+        CharSequenceInputStream(CharSequence chars, int start) {
+            this.chars = chars;
+            this.pos = start;
+        }
+
+        @Override
+        public int read() {
+            return pos < chars.length() ? chars.charAt(pos++) & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            int n = Math.min(len, chars.length() - pos);
+            if (n <= 0) return -1;
+            for (int i = 0; i < n; i++) b[off + i] = (byte) chars.charAt(pos++);
+            return n;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package at.yousong.yousong_api.audio;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Byte-Offsets aller MPEG-Audio-Frames einer Datei. Alle Frames haben dieselbe Sample-Rate und
+ * Samples pro Frame, daher ist die Zeit eines Frames {@code i * samplesPerFrame / sampleRate} –
+ * Zeit → Offset ist eine Division plus ein Array-Zugriff (Seeking, Segmentierung an Frame-Grenzen).
+ * Liegt als {@code <hash>.frames} neben dem Blob im {@link BlobStore}.
+ */
+public final class FrameIndex {
+
+    private static final int MAGIC = 0x59534649; // "YSFI"
+    private static final int FORMAT = 1;
+
+    private final int sampleRate;
+    private final int samplesPerFrame;
+    // offsets[i] = Start von Frame i, offsets[frameCount] = Ende des letzten Frames
+    private final int[] offsets;
+
+    public FrameIndex(int sampleRate, int samplesPerFrame, int[] offsets) {
+        if (offsets.length < 2) throw new IllegalArgumentException("Frame index needs at least one frame");
+        this.sampleRate = sampleRate;
+        this.samplesPerFrame = samplesPerFrame;
+        this.offsets = offsets;
+    }
+
+    public int sampleRate() { return sampleRate; }
+    public int samplesPerFrame() { return samplesPerFrame; }
+    public int frameCount() { return offsets.length - 1; }
+
+    // Speicherbedarf (Gewicht im Cache von SegmentedAudio)
+    public int sizeInBytes() { return 16 + offsets.length * 4; }
+
+    public long durationMillis() {
+        return (long) frameCount() * samplesPerFrame * 1000 / sampleRate;
+    }
+
+    /** Frame, der zum Zeitpunkt {@code millis} läuft (auf gültige Frames begrenzt). */
+    public int frameAt(long millis) {
+        long frame = Math.max(0, millis) * sampleRate / (1000L * samplesPerFrame);
+        return (int) Math.min(frame, frameCount() - 1);
+    }
+
+    /** Start-Offset von Frame {@code frame}; {@code frameCount()} liefert das Ende der Audiodaten. */
+    public long offsetOf(int frame) {
+        return offsets[frame];
+    }
+
+    public long offsetAt(long millis) {
+        return offsets[frameAt(millis)];
+    }
+
+    public long startMillisOf(int frame) {
+        return (long) frame * samplesPerFrame * 1000 / sampleRate;
+    }
+
+    // 🔹 Atomar schreiben: parallele Leser sehen die alte oder die neue Datei, nie eine halbe
+    public void write(Path file) throws IOException {
+        Path tmp = Files.createTempFile(file.getParent(), "frames-", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT);
+                out.writeInt(sampleRate);
+                out.writeInt(samplesPerFrame);
+                out.writeInt(offsets.length);
+                for (int offset : offsets) out.writeInt(offset);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public static FrameIndex read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT)
+                throw new IOException("Not a frame index: " + file);
+            int sampleRate = in.readInt();
+            int samplesPerFrame = in.readInt();
+            int[] offsets = new int[in.readInt()];
+            for (int i = 0; i < offsets.length; i++) offsets[i] = in.readInt();
+            return new FrameIndex(sampleRate, samplesPerFrame, offsets);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package at.yousong.yousong_api.audio;
+
+// Datei ist kein gültiges MP3 (kein Frame-Sync, kaputter Header, Frames passen nicht zusammen)
+public class InvalidAudioException extends IllegalArgumentException {
+    public InvalidAudioException(String message) {
+        super(message);
+    }
+}
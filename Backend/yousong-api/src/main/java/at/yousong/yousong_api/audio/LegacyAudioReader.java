@@ -0,0 +1,74 @@
+package at.yousong.yousong_api.audio;
+
+import at.yousong.yousong_api.metrics.YousongMetrics;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Liest noch nicht migriertes Audio ({@code song_audio.music_data} als Data-URI) per JDBC als CLOB-Stream,
+ * ohne den String über JPA in den Heap zu laden.
+ */
+@Component
+public class LegacyAudioReader {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final YousongMetrics metrics;
+
+    public LegacyAudioReader(JdbcTemplate jdbcTemplate, YousongMetrics metrics) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.metrics = metrics;
+    }
+
+    // 🔹 Content-Type und "ist überhaupt Audio?" aus der Spalte content_type, der LOB bleibt ungelesen
+    public Optional<String> contentType(long songId) {
+        List<String> types = jdbcTemplate.queryForList(
+                "select content_type from song_audio where song_id = ? and content_type is not null", String.class, songId);
+        return types.stream().findFirst();
+    }
+
+    // 🔹 Dekodierte Bytes direkt in den Response-Stream schreiben (konstanter Puffer)
+    public void copyTo(long songId, OutputStream out) throws DataAccessException {
+        metrics.lobRead(true);
+        jdbcTemplate.query("select music_data from song_audio where song_id = ?", (RowCallbackHandler) rs -> {
+            Reader reader = rs.getCharacterStream(1);
+            if (reader == null) return;
+            try (InputStream in = DataUri.decode(reader)) {
+                metrics.audioServed("legacy", in.transferTo(out));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, songId);
+    }
+
+    // 🔹 Einmal in einen Direct-Buffer dekodieren (für den AudioByteCache); Größe aus der Länge der Data-URI
+    public ByteBuffer readDirect(long songId) throws DataAccessException {
+        metrics.lobRead(true);
+        ByteBuffer[] result = {ByteBuffer.allocateDirect(0)};
+        jdbcTemplate.query("select length(music_data), music_data from song_audio where song_id = ?", (RowCallbackHandler) rs -> {
+            Reader reader = rs.getCharacterStream(2);
+            if (reader == null) return;
+            // Base64: 4 Zeichen → 3 Bytes; der "data:...;base64,"-Präfix macht die Schätzung zur Obergrenze
+            ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(Integer.MAX_VALUE - 8, rs.getLong(1) / 4 * 3 + 3));
+            try (InputStream in = DataUri.decode(reader); ReadableByteChannel channel = Channels.newChannel(in)) {
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) { /* weiterlesen */ }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            result[0] = buffer.flip();
+        }, songId);
+        return result[0];
+    }
+}
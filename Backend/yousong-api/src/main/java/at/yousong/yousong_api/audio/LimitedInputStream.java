@@ -0,0 +1,36 @@
+package at.yousong.yousong_api.audio;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/** Bricht ab, sobald mehr als {@code maxBytes} gelesen wurden – bevor der Rest auf der Platte landet. */
+final class LimitedInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+    private long count;
+
+    LimitedInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) count(1);
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) count(n);
+        return n;
+    }
+
+    private void count(long n) {
+        count += n;
+        if (count > maxBytes) throw new AudioTooLargeException(maxBytes);
+    }
+}
@@ -0,0 +1,227 @@
+package at.yousong.yousong_api.audio;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Liest die Frame-Header einer MPEG-Audio-Datei (MPEG 1/2/2.5, Layer I–III) ohne zu dekodieren:
+ * pro Frame 4 Byte Header lesen, Frame-Länge berechnen, Rest überspringen. Speicherbedarf ist
+ * unabhängig von der Dateigröße (bis auf den {@link FrameIndex}: 4 Byte pro Frame).
+ * <ul>
+ *   <li>ID3v2-Tags am Anfang und ID3v1/APE/Lyrics3-Tags am Ende werden übersprungen</li>
+ *   <li>ein Xing/Info/VBRI-Header im ersten Frame zählt nicht als Audio</li>
+ *   <li>ein abgeschnittener letzter Frame wird ignoriert, alles andere, was kein Frame ist, macht die Datei ungültig</li>
+ * </ul>
+ */
+public final class Mp3FrameParser {
+
+    public record Mp3Info(FrameIndex frames, int bitrateKbps, int sampleRate, int channels, String format) {
+        public long durationMillis() { return frames.durationMillis(); }
+    }
+
+    // Suche nach dem ersten Frame-Sync (Nullbytes nach ID3-Tags, Encoder-Müll)
+    private static final int MAX_LEADING_JUNK = 4096;
+
+    private static final int[][] BITRATES = {
+            {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448}, // MPEG 1, Layer I
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384},    // MPEG 1, Layer II
+            {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320},     // MPEG 1, Layer III
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},    // MPEG 2/2.5, Layer I
+            {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160}};        // MPEG 2/2.5, Layer II/III
+    private static final int[][] SAMPLE_RATES = {
+            {11025, 12000, 8000},   // MPEG 2.5
+            null,                   // reserviert
+            {22050, 24000, 16000},  // MPEG 2
+            {44100, 48000, 32000}}; // MPEG 1
+
+    private Mp3FrameParser() {}
+
+    /** Schneller Vorab-Check auf die ersten Bytes eines Uploads: ID3-Tag oder MPEG-Frame-Sync. */
+    public static boolean looksLikeMp3(byte[] head, int length) {
+        if (length >= 3 && head[0] == 'I' && head[1] == 'D' && head[2] == '3') return true;
+        return length >= 4 && Header.parse(head, 0) != null;
+    }
+
+    public static Mp3Info parse(InputStream raw) throws IOException {
+        Reader in = new Reader(new BufferedInputStream(raw, 64 * 1024));
+        byte[] buf = new byte[64];
+
+        skipId3v2(in, buf);
+        Header first = findFirstFrame(in, buf);
+        if (first == null) throw new InvalidAudioException("No MPEG audio frame found.");
+
+        int[] offsets = new int[1024];
+        int frames = 0;
+        Header header = first;
+        long start = in.position - 4;
+        long end = start;
+        boolean firstFrame = true;
+        while (true) {
+            if (start > Integer.MAX_VALUE) throw new InvalidAudioException("Audio file too large for the frame index.");
+            int body = header.frameLength - 4;
+            boolean info = false;
+            if (firstFrame) {
+                // Xing/Info (nach den Side-Infos) oder VBRI (fest nach 32 Byte) → Metadaten-Frame ohne Audio
+                int peek = Math.min(body, 40);
+                int got = in.read(buf, 0, peek);
+                info = got == peek && header.isInfoFrame(buf, got);
+                body -= got;
+                firstFrame = false;
+            }
+            if (in.skip(body) < body) break; // abgeschnittener letzter Frame
+            if (!info) {
+                if (frames + 1 >= offsets.length) offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                offsets[frames++] = (int) start;
+                end = start + header.frameLength;
+            }
+
+            start = in.position;
+            int got = in.read(buf, 0, 4);
+            if (got < 4) break;
+            Header next = Header.parse(buf, 0);
+            if (next == null) {
+                if (isTrailingTag(buf)) break;
+                throw new InvalidAudioException("Invalid MPEG frame header at byte " + start + ".");
+            }
+            if (next.version != first.version || next.layer != first.layer || next.sampleRate != first.sampleRate)
+                throw new InvalidAudioException("Inconsistent MPEG frames at byte " + start + ".");
+            header = next;
+        }
+
+        if (frames == 0) throw new InvalidAudioException("No complete MPEG audio frame found.");
+        offsets[frames] = (int) end;
+        FrameIndex index = new FrameIndex(first.sampleRate, first.samplesPerFrame, Arrays.copyOf(offsets, frames + 1));
+
+        long audioBytes = end - offsets[0];
+        int kbps = (int) Math.round(audioBytes * 8.0 / index.durationMillis());
+        return new Mp3Info(index, kbps, first.sampleRate, first.channels, first.format());
+    }
+
+    private static void skipId3v2(Reader in, byte[] buf) throws IOException {
+        while (true) {
+            in.mark(10);
+            if (in.read(buf, 0, 10) < 10 || buf[0] != 'I' || buf[1] != 'D' || buf[2] != '3') {
+                in.reset();
+                return;
+            }
+            // Größe als "syncsafe integer" (7 Bit pro Byte), Footer-Flag → weitere 10 Byte
+            int size = (buf[6] & 0x7f) << 21 | (buf[7] & 0x7f) << 14 | (buf[8] & 0x7f) << 7 | (buf[9] & 0x7f);
+            if ((buf[5] & 0x10) != 0) size += 10;
+            if (in.skip(size) < size) throw new InvalidAudioException("Truncated ID3 tag.");
+        }
+    }
+
+    private static Header findFirstFrame(Reader in, byte[] buf) throws IOException {
+        if (in.read(buf, 0, 4) < 4) return null;
+        for (int junk = 0; junk < MAX_LEADING_JUNK; junk++) {
+            Header header = Header.parse(buf, 0);
+            if (header != null) return header;
+            int next = in.read();
+            if (next < 0) return null;
+            System.arraycopy(buf, 1, buf, 0, 3);
+            buf[3] = (byte) next;
+        }
+        return null;
+    }
+
+    private static boolean isTrailingTag(byte[] b) {
+        return (b[0] == 'T' && b[1] == 'A' && b[2] == 'G')                  // ID3v1
+                || (b[0] == 'A' && b[1] == 'P' && b[2] == 'E' && b[3] == 'T') // APEv2
+                || (b[0] == 'L' && b[1] == 'Y' && b[2] == 'R' && b[3] == 'I') // Lyrics3
+                || (b[0] == 'I' && b[1] == 'D' && b[2] == '3');               // ID3v2 am Ende
+    }
+
+    private record Header(int version, int layer, int sampleRate, int frameLength, int samplesPerFrame, int channels) {
+
+        // 🔹 11 Bit Sync, Version (0 = MPEG 2.5, 2 = MPEG 2, 3 = MPEG 1), Layer (1 = III … 3 = I), Bitrate-/Sample-Rate-Index
+        static Header parse(byte[] b, int off) {
+            int b0 = b[off] & 0xff, b1 = b[off + 1] & 0xff, b2 = b[off + 2] & 0xff, b3 = b[off + 3] & 0xff;
+            if (b0 != 0xff || (b1 & 0xe0) != 0xe0) return null;
+            int version = (b1 >> 3) & 0x03;
+            int layerBits = (b1 >> 1) & 0x03;
+            int bitrateIndex = (b2 >> 4) & 0x0f;
+            int rateIndex = (b2 >> 2) & 0x03;
+            if (version == 1 || layerBits == 0 || bitrateIndex == 0 || bitrateIndex == 15 || rateIndex == 3) return null;
+
+            int layer = 4 - layerBits;
+            boolean mpeg1 = version == 3;
+            int kbps = BITRATES[mpeg1 ? layer - 1 : (layer == 1 ? 3 : 4)][bitrateIndex];
+            int sampleRate = SAMPLE_RATES[version][rateIndex];
+            int padding = (b2 >> 1) & 0x01;
+            int channels = ((b3 >> 6) & 0x03) == 3 ? 1 : 2;
+
+            int samples = layer == 1 ? 384 : (layer == 3 && !mpeg1 ? 576 : 1152);
+            int length = layer == 1
+                    ? (12 * kbps * 1000 / sampleRate + padding) * 4
+                    : samples / 8 * kbps * 1000 / sampleRate + padding;
+            return new Header(version, layer, sampleRate, length, samples, channels);
+        }
+
+        // Xing/Info stehen nach den Side-Infos (Layer III), VBRI immer 32 Byte nach dem Header
+        boolean isInfoFrame(byte[] body, int length) {
+            int sideInfo = version == 3 ? (channels == 1 ? 17 : 32) : (channels == 1 ? 9 : 17);
+            return (layer == 3 && (tag(body, length, sideInfo, "Xing") || tag(body, length, sideInfo, "Info")))
+                    || tag(body, length, 32, "VBRI");
+        }
+
+        private static boolean tag(byte[] body, int length, int at, String tag) {
+            if (at + 4 > length) return false;
+            for (int i = 0; i < 4; i++) if (body[at + i] != tag.charAt(i)) return false;
+            return true;
+        }
+
+        String format() {
+            String mpeg = version == 3 ? "MPEG-1" : version == 2 ? "MPEG-2" : "MPEG-2.5";
+            return mpeg + " Layer " + "I".repeat(layer);
+        }
+    }
+
+    // 🔹 BufferedInputStream mit Positionszähler; skip liest notfalls, um EOF sicher zu erkennen
+    private static final class Reader {
+        private final BufferedInputStream in;
+        private long position;
+        private long marked;
+
+        Reader(BufferedInputStream in) {
+            this.in = in;
+        }
+
+        int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) position++;
+            return b;
+        }
+
+        int read(byte[] buf, int off, int len) throws IOException {
+            int n = in.readNBytes(buf, off, len);
+            position += n;
+            return n;
+        }
+
+        long skip(long n) throws IOException {
+            long done = 0;
+            while (done < n) {
+                long s = in.skip(n - done);
+                if (s <= 0) {
+                    if (in.read() < 0) break;
+                    s = 1;
+                }
+                done += s;
+            }
+            position += done;
+            return done;
+        }
+
+        void mark(int limit) {
+            in.mark(limit);
+            marked = position;
+        }
+
+        void reset() throws IOException {
+            in.reset();
+            position = marked;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package at.yousong.yousong_api.audio;
+
+import at.yousong.yousong_api.cache.ETags;
+import at.yousong.yousong_api.metrics.YousongMetrics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Segmentierte Auslieferung (HLS mit "Packed Audio"): Playlist {@code .m3u8} plus MP3-Segmente fester Dauer,
+ * geschnitten an Frame-Grenzen aus dem {@link FrameIndex} – ohne Re-Encoding, der Player kann nach dem ersten
+ * Segment starten und springt beim Seeking direkt zum passenden Segment.
+ * <ul>
+ *   <li>Segment = Byte-Bereich des Blobs + 73 Byte ID3-Zeitstempel (PRIV-Frame, wie von HLS verlangt);
+ *       der Blob kommt gemappt aus dem {@link AudioByteCache}</li>
+ *   <li>Segment-URLs enthalten Hash und Segmentlänge → Inhalt unveränderlich, {@code Cache-Control: immutable}</li>
+ *   <li>Frame-Indizes liegen als Sidecar im {@link BlobStore} und zusätzlich begrenzt im Speicher;
+ *       fehlt der Sidecar (Ingestion noch nicht durch), wird beim ersten Abruf geschnitten</li>
+ * </ul>
+ */
+@Component
+public class SegmentedAudio {
+
+    public static final MediaType PLAYLIST_TYPE = MediaType.parseMediaType("application/vnd.apple.mpegurl");
+    public static final int MIN_SEGMENT_SECONDS = 2;
+    public static final int MAX_SEGMENT_SECONDS = 30;
+
+    // ID3v2.4-Tag mit einem PRIV-Frame: 10 Byte Tag-Header + 10 Byte Frame-Header + Owner + 8 Byte PTS
+    private static final byte[] PRIV_OWNER = "com.apple.streaming.transportStreamTimestamp\0".getBytes(StandardCharsets.ISO_8859_1);
+    static final int TIMESTAMP_TAG_LENGTH = 20 + PRIV_OWNER.length + 8;
+
+    /** Segment {@code index}: Bytes {@code [start, end)} des Blobs, Start und Dauer in Millisekunden. */
+    public record Segment(int index, long start, long end, long startMillis, long durationMillis) {
+        public long length() { return end - start; }
+    }
+
+    private final BlobStore blobStore;
+    private final AudioByteCache audioCache;
+    private final YousongMetrics metrics;
+    private final int segmentSeconds;
+    private final Cache<String, FrameIndex> indexes;
+
+    public SegmentedAudio(BlobStore blobStore, AudioByteCache audioCache, YousongMetrics metrics,
+                          @Value("${yousong.audio.segment-seconds:6}") int segmentSeconds,
+                          @Value("${yousong.audio.frame-index-cache:8MB}") DataSize cacheSize) {
+        if (segmentSeconds < MIN_SEGMENT_SECONDS || segmentSeconds > MAX_SEGMENT_SECONDS)
+            throw new IllegalArgumentException("yousong.audio.segment-seconds must be between "
+                    + MIN_SEGMENT_SECONDS + " and " + MAX_SEGMENT_SECONDS);
+        this.blobStore = blobStore;
+        this.audioCache = audioCache;
+        this.metrics = metrics;
+        this.segmentSeconds = segmentSeconds;
+        // 4 Byte pro Frame; ein 5-Minuten-Track hat ~11.500 Frames ≈ 46 KB
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(cacheSize.toBytes())
+                .weigher((String hash, FrameIndex index) -> index.sizeInBytes())
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+    }
+
+    public static boolean supports(String contentType) {
+        return AudioIngestion.isMpeg(contentType);
+    }
+
+    // 🔹 Playlist: hängt nur vom Inhalt (Hash) und der Segmentlänge ab; relative URLs → .../segments/<hash>/<s>/<n>.mp3
+    public ResponseEntity<?> playlist(HttpServletRequest request, String hash) {
+        String etag = ETags.strong("hls-" + hash + "-" + segmentSeconds);
+        if (ETags.notModified(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag))
+            return headers(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag).build();
+
+        FrameIndex index = frameIndex(hash);
+        int count = segmentCount(index, segmentSeconds);
+        long longest = 0;
+        StringBuilder segments = new StringBuilder(count * 64);
+        for (int i = 0; i < count; i++) {
+            Segment segment = segment(index, segmentSeconds, i);
+            longest = Math.max(longest, segment.durationMillis());
+            segments.append(String.format(Locale.ROOT, "#EXTINF:%.3f,%n", segment.durationMillis() / 1000.0))
+                    .append("segments/").append(hash).append('/').append(segmentSeconds).append('/').append(i).append(".mp3\n");
+        }
+        String playlist = "#EXTM3U\n"
+                + "#EXT-X-VERSION:3\n"
+                + "#EXT-X-PLAYLIST-TYPE:VOD\n"
+                + "#EXT-X-TARGETDURATION:" + (longest + 999) / 1000 + "\n"
+                + "#EXT-X-MEDIA-SEQUENCE:0\n"
+                + segments
+                + "#EXT-X-ENDLIST\n";
+        return headers(ResponseEntity.ok(), etag).contentType(PLAYLIST_TYPE).body(playlist);
+    }
+
+    // 🔹 Ein Segment; ungültige Nummer/Länge → 404 (z. B. Playlist eines anderen Stands)
+    public ResponseEntity<?> segment(HttpServletRequest request, HttpServletResponse response,
+                                     AudioByteCache.Key song, String hash, int seconds, int index) throws IOException {
+        if (seconds < MIN_SEGMENT_SECONDS || seconds > MAX_SEGMENT_SECONDS || index < 0)
+            return ResponseEntity.notFound().build();
+        String etag = ETags.strong(hash + "-" + seconds + "-" + index);
+        CacheControl immutable = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+        if (ETags.notModified(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag))
+            return headers(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag).cacheControl(immutable).build();
+
+        FrameIndex frames = frameIndex(hash);
+        if (index >= segmentCount(frames, seconds)) return ResponseEntity.notFound().build();
+        Segment segment = segment(frames, seconds, index);
+
+        long length = TIMESTAMP_TAG_LENGTH + segment.length();
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType("audio/mpeg");
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, immutable.getHeaderValue());
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        if ("GET".equals(request.getMethod())) {
+            // Segment = Ausschnitt des gemappten Blobs aus dem AudioByteCache, keine Kopie im Heap
+            ByteBuffer blob = audioCache.get(song, key -> AudioByteCache.map(blobStore.pathOf(hash)));
+            response.getOutputStream().write(timestampTag(segment.startMillis()));
+            AudioByteCache.write(blob.slice((int) segment.start(), (int) segment.length()), response);
+            metrics.audioServed("segment", length);
+        }
+        return null;
+    }
+
+    static int segmentCount(FrameIndex index, int seconds) {
+        int perSegment = framesPerSegment(index, seconds);
+        return (index.frameCount() + perSegment - 1) / perSegment;
+    }
+
+    static Segment segment(FrameIndex index, int seconds, int i) {
+        int perSegment = framesPerSegment(index, seconds);
+        int first = i * perSegment;
+        int last = Math.min(first + perSegment, index.frameCount());
+        long startMillis = index.startMillisOf(first);
+        return new Segment(i, index.offsetOf(first), index.offsetOf(last), startMillis, index.startMillisOf(last) - startMillis);
+    }
+
+    private static int framesPerSegment(FrameIndex index, int seconds) {
+        return (int) Math.max(1, Math.round((double) seconds * index.sampleRate() / index.samplesPerFrame()));
+    }
+
+    // 🔹 Caffeine lädt pro Hash nur einmal, parallele Abrufe warten auf dasselbe Ergebnis
+    FrameIndex frameIndex(String hash) {
+        return indexes.get(hash, this::loadFrameIndex);
+    }
+
+    private FrameIndex loadFrameIndex(String hash) {
+        Path sidecar = blobStore.framesPathOf(hash);
+        try {
+            if (Files.exists(sidecar)) return FrameIndex.read(sidecar);
+            FrameIndex index;
+            try (InputStream in = Files.newInputStream(blobStore.pathOf(hash))) {
+                index = Mp3FrameParser.parse(in).frames();
+            }
+            index.write(sidecar);
+            return index;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read audio " + hash, e);
+        }
+    }
+
+    // ID3v2.4 mit PRIV "com.apple.streaming.transportStreamTimestamp": 33-Bit-PTS im 90-kHz-Takt
+    static byte[] timestampTag(long startMillis) {
+        byte[] tag = new byte[TIMESTAMP_TAG_LENGTH];
+        int frameSize = PRIV_OWNER.length + 8;
+        int tagSize = 10 + frameSize;
+        tag[0] = 'I'; tag[1] = 'D'; tag[2] = '3'; tag[3] = 4;
+        syncsafe(tag, 6, tagSize);
+        tag[10] = 'P'; tag[11] = 'R'; tag[12] = 'I'; tag[13] = 'V';
+        syncsafe(tag, 14, frameSize);
+        System.arraycopy(PRIV_OWNER, 0, tag, 20, PRIV_OWNER.length);
+        long pts = (startMillis * 90) & 0x1_ffff_ffffL;
+        for (int i = 0; i < 8; i++) tag[TIMESTAMP_TAG_LENGTH - 1 - i] = (byte) (pts >>> (8 * i));
+        return tag;
+    }
+
+    private static void syncsafe(byte[] b, int off, int value) {
+        b[off] = (byte) ((value >> 21) & 0x7f);
+        b[off + 1] = (byte) ((value >> 14) & 0x7f);
+        b[off + 2] = (byte) ((value >> 7) & 0x7f);
+        b[off + 3] = (byte) (value & 0x7f);
+    }
+
+    private static ResponseEntity.BodyBuilder headers(ResponseEntity.BodyBuilder builder, String etag) {
+        return builder.eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+    }
+}
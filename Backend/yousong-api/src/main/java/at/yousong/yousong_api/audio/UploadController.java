@@ -0,0 +1,137 @@
+package at.yousong.yousong_api.audio;
+
+import at.yousong.yousong_api.song.dto.AudioRefDto;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Audio-Uploads getrennt vom Song-JSON. Ergebnis ist immer eine {@code audioId} (SHA-256),
+ * die anschließend beim Anlegen/Ändern eines Songs mitgeschickt wird.
+ * <ul>
+ *   <li>{@code POST /api/uploads} – Rohdaten ({@code audio/*} oder {@code application/octet-stream}) oder multipart {@code file}</li>
+ *   <li>{@code POST /api/uploads/sessions} → {@code PATCH .../{id}} mit {@code Upload-Offset} → {@code POST .../{id}/finalize}</li>
+ *   <li>{@code GET /api/uploads/{audioId}} – Stand der Analyse im Hintergrund ({@link AudioIngestion})</li>
+ * </ul>
+ */
+@RestController
+@RequestMapping("/api/uploads")
+@CrossOrigin(origins = "*")
+public class UploadController {
+
+    static final String UPLOAD_OFFSET = "Upload-Offset";
+
+    private final UploadSessionStore uploads;
+    private final BlobStore blobStore;
+
+    public UploadController(UploadSessionStore uploads, BlobStore blobStore) {
+        this.uploads = uploads;
+        this.blobStore = blobStore;
+    }
+
+    public static class OpenUploadRequest {
+        public String contentType;
+    }
+
+    // 🔹 Einmal-Upload als Rohdaten-Stream
+    @PostMapping(consumes = {"audio/*", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<?> uploadRaw(HttpServletRequest request,
+                                       @RequestParam(required = false) String contentType) throws IOException {
+        String type = audioType(contentType != null ? contentType : request.getContentType());
+        try (InputStream in = request.getInputStream()) {
+            return created(uploads.storeAll(in, type));
+        }
+    }
+
+    // 🔹 Einmal-Upload als multipart/form-data
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadMultipart(@RequestParam("file") MultipartFile file) throws IOException {
+        String type = audioType(file.getContentType());
+        try (InputStream in = file.getInputStream()) {
+            return created(uploads.storeAll(in, type));
+        }
+    }
+
+    // 🔹 Fortsetzbarer Upload: Session anlegen
+    @PostMapping(value = "/sessions", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> open(@RequestBody OpenUploadRequest req) {
+        var session = uploads.open(currentUsername(), audioType(req.contentType));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(UPLOAD_OFFSET, "0")
+                .body(Map.of("uploadId", session.uploadId(), "offset", session.offset(), "maxSize", uploads.maxBytes()));
+    }
+
+    @GetMapping("/sessions/{uploadId}")
+    public ResponseEntity<?> status(@PathVariable String uploadId) {
+        var session = uploads.status(currentUsername(), uploadId);
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET, String.valueOf(session.offset()))
+                .body(Map.of("uploadId", session.uploadId(), "offset", session.offset()));
+    }
+
+    // 🔹 Chunk an Position Upload-Offset anhängen
+    @PatchMapping("/sessions/{uploadId}")
+    public ResponseEntity<?> append(@PathVariable String uploadId,
+                                    @RequestHeader(UPLOAD_OFFSET) long offset,
+                                    HttpServletRequest request) throws IOException {
+        String owner = currentUsername();
+        try (InputStream in = request.getInputStream()) {
+            var session = uploads.append(owner, uploadId, offset, in);
+            return ResponseEntity.ok()
+                    .header(UPLOAD_OFFSET, String.valueOf(session.offset()))
+                    .body(Map.of("uploadId", session.uploadId(), "offset", session.offset()));
+        } catch (IllegalStateException e) {
+            long current = uploads.status(owner, uploadId).offset();
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header(UPLOAD_OFFSET, String.valueOf(current))
+                    .body(Map.of("message", e.getMessage(), "offset", current));
+        }
+    }
+
+    @PostMapping("/sessions/{uploadId}/finalize")
+    public ResponseEntity<?> finalizeUpload(@PathVariable String uploadId) {
+        return created(uploads.complete(currentUsername(), uploadId));
+    }
+
+    @DeleteMapping("/sessions/{uploadId}")
+    public ResponseEntity<?> abort(@PathVariable String uploadId) {
+        uploads.abort(currentUsername(), uploadId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // 🔹 Ingestion-Stand eines Uploads (processing → ready/failed/skipped), z. B. zum Pollen vor dem Anlegen des Songs
+    @GetMapping("/{audioId}")
+    public ResponseEntity<?> audio(@PathVariable String audioId) {
+        return blobStore.describe(audioId)
+                .map(blob -> ResponseEntity.ok(AudioRefDto.of(null, blob)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private static ResponseEntity<?> created(BlobStore.StoredBlob blob) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(Map.of("audioId", blob.hash(), "contentType", blob.contentType(), "size", blob.size(),
+                        "status", AudioRefDto.status(blob.status())));
+    }
+
+    // 🔹 Nur audio/*; Rohdaten ohne Typ gelten als MP3
+    private static String audioType(String contentType) {
+        if (contentType == null || contentType.isBlank() || contentType.startsWith(MediaType.APPLICATION_OCTET_STREAM_VALUE))
+            return "audio/mpeg";
+        MediaType type = MediaType.parseMediaType(contentType);
+        if (!"audio".equals(type.getType()) || type.isWildcardSubtype())
+            throw new IllegalArgumentException("Only audio files can be uploaded.");
+        return type.getType() + "/" + type.getSubtype();
+    }
+
+    private static String currentUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+}
@@ -0,0 +1,216 @@
+package at.yousong.yousong_api.audio;
+
+import at.yousong.yousong_api.metrics.YousongMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fortsetzbare Uploads: Chunks werden an eine Teildatei angehängt und gleichzeitig in einen
+ * laufenden SHA-256 eingerechnet, {@link #complete(String, String)} übergibt das Ergebnis an den {@link BlobStore}.
+ * Sessions leben nur im Speicher; nach einem Neustart beginnt der Client von vorne.
+ */
+@Component
+public class UploadSessionStore {
+
+    public record SessionInfo(String uploadId, long offset, String contentType) {}
+
+    private static final class Session {
+        final String id;
+        final String owner;
+        final String contentType;
+        final Path file;
+        final MessageDigest digest = BlobStore.sha256();
+        long offset;
+        Instant touched = Instant.now();
+
+        Session(String id, String owner, String contentType, Path file) {
+            this.id = id;
+            this.owner = owner;
+            this.contentType = contentType;
+            this.file = file;
+        }
+
+        SessionInfo info() { return new SessionInfo(id, offset, contentType); }
+    }
+
+    private static final int CHUNK_BUFFER = 64 * 1024;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final BlobStore blobStore;
+    private final YousongMetrics metrics;
+    private final Path dir;
+    private final long maxBytes;
+    private final Duration sessionTtl;
+
+    public UploadSessionStore(BlobStore blobStore, YousongMetrics metrics,
+                              @Value("${yousong.audio.storage-dir:./data/audio}") String storageDir,
+                              @Value("${yousong.audio.max-size:25MB}") DataSize maxSize,
+                              @Value("${yousong.audio.upload-session-ttl:PT24H}") Duration sessionTtl) {
+        this.blobStore = blobStore;
+        this.metrics = metrics;
+        this.dir = Path.of(storageDir).toAbsolutePath().normalize().resolve("uploads");
+        this.maxBytes = maxSize.toBytes();
+        this.sessionTtl = sessionTtl;
+    }
+
+    public long maxBytes() { return maxBytes; }
+
+    // 🔹 Einmal-Upload: direkt in den BlobStore streamen, mit Größenlimit
+    public BlobStore.StoredBlob storeAll(InputStream in, String contentType) {
+        BlobStore.StoredBlob blob = blobStore.store(new LimitedInputStream(checkHead(in, contentType, false), maxBytes), contentType);
+        metrics.audioUploaded("single", blob.size());
+        return blob;
+    }
+
+    public SessionInfo open(String owner, String contentType) {
+        try {
+            Files.createDirectories(dir);
+            String id = UUID.randomUUID().toString();
+            Path file = Files.createFile(dir.resolve(id + ".part"));
+            Session session = new Session(id, owner, contentType, file);
+            sessions.put(id, session);
+            return session.info();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open upload", e);
+        }
+    }
+
+    public SessionInfo status(String owner, String uploadId) {
+        Session session = get(owner, uploadId);
+        synchronized (session) {
+            return session.info();
+        }
+    }
+
+    // 🔹 Chunk anhängen; Offset muss exakt passen, sonst Client mit status() neu synchronisieren.
+    //    Bricht der Chunk ab, bleibt die Session erhalten: Datei, Offset und Hash umfassen genau die Bytes,
+    //    die vollständig angekommen sind, der Client setzt per status() an dieser Stelle fort
+    public SessionInfo append(String owner, String uploadId, long offset, InputStream chunk) {
+        Session session = get(owner, uploadId);
+        synchronized (session) {
+            if (offset != session.offset)
+                throw new IllegalStateException("Upload offset mismatch, expected " + session.offset);
+            if (session.offset == 0) chunk = checkHead(chunk, session.contentType, true);
+            long start = session.offset;
+            try (OutputStream out = Files.newOutputStream(session.file, StandardOpenOption.APPEND)) {
+                InputStream in = new LimitedInputStream(chunk, maxBytes - session.offset);
+                byte[] buffer = new byte[CHUNK_BUFFER];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    // Erst schreiben, dann zählen: Offset und Hash laufen der Datei nie voraus
+                    out.write(buffer, 0, n);
+                    session.digest.update(buffer, 0, n);
+                    session.offset += n;
+                }
+            } catch (AudioTooLargeException e) {
+                discard(session);
+                throw new AudioTooLargeException(maxBytes);
+            } catch (IOException e) {
+                truncate(session);
+                throw new UncheckedIOException("Upload chunk failed at offset " + session.offset, e);
+            } finally {
+                metrics.audioUploaded("chunk", session.offset - start);
+                session.touched = Instant.now();
+            }
+            return session.info();
+        }
+    }
+
+    public BlobStore.StoredBlob complete(String owner, String uploadId) {
+        Session session = get(owner, uploadId);
+        synchronized (session) {
+            if (session.offset == 0)
+                throw new IllegalArgumentException("Upload is empty.");
+            try {
+                String hash = HexFormat.of().formatHex(session.digest.digest());
+                return blobStore.promote(session.file, hash, session.contentType, session.offset);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not finalize upload", e);
+            } finally {
+                discard(session);
+            }
+        }
+    }
+
+    public void abort(String owner, String uploadId) {
+        Session session = get(owner, uploadId);
+        synchronized (session) {
+            discard(session);
+        }
+    }
+
+    // 🔹 Verwaiste Sessions und nie referenzierte Uploads aufräumen
+    @Scheduled(fixedDelayString = "${yousong.audio.cleanup-interval:PT1H}")
+    public void cleanup() {
+        Instant cutoff = Instant.now().minus(sessionTtl);
+        sessions.values().stream()
+                .filter(s -> s.touched.isBefore(cutoff))
+                .forEach(s -> {
+                    synchronized (s) { discard(s); }
+                });
+        blobStore.purgeUnreferenced(cutoff);
+    }
+
+    // 🔹 Ohne den Anfang zu verbrauchen: ein leerer Einmal-Upload wird abgelehnt (wie complete()), bei MP3 müssen
+    //    die ersten Bytes nach ID3-Tag oder Frame-Sync aussehen – sonst wird gar nichts gespeichert.
+    //    Die vollständige Prüfung macht danach AudioIngestion.
+    private static InputStream checkHead(InputStream in, String contentType, boolean allowEmpty) {
+        try {
+            BufferedInputStream buffered = new BufferedInputStream(in);
+            buffered.mark(4);
+            byte[] head = buffered.readNBytes(4);
+            buffered.reset();
+            if (head.length == 0) {
+                if (allowEmpty) return buffered;
+                throw new IllegalArgumentException("Upload is empty.");
+            }
+            if (AudioIngestion.isMpeg(contentType) && !Mp3FrameParser.looksLikeMp3(head, head.length))
+                throw new InvalidAudioException("Upload is not an MP3 file.");
+            return buffered;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Upload failed", e);
+        }
+    }
+
+    private Session get(String owner, String uploadId) {
+        Session session = sessions.get(uploadId);
+        if (session == null || !session.owner.equals(owner))
+            throw new IllegalArgumentException("Unknown upload " + uploadId);
+        return session;
+    }
+
+    // Halb geschriebener Puffer beim Fehler auf der Platte: Datei auf den gezählten Stand kürzen
+    private void truncate(Session session) {
+        try (FileChannel file = FileChannel.open(session.file, StandardOpenOption.WRITE)) {
+            if (file.size() > session.offset) file.truncate(session.offset);
+        } catch (IOException e) {
+            discard(session);
+        }
+    }
+
+    private void discard(Session session) {
+        sessions.remove(session.id);
+        try {
+            Files.deleteIfExists(session.file);
+        } catch (IOException ignored) { /* nächster cleanup-Lauf */ }
+    }
+}
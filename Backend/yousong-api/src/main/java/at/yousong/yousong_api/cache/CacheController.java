@@ -0,0 +1,22 @@
+package at.yousong.yousong_api.cache;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+public class CacheController {
+
+    private final ReadCache cache;
+
+    public CacheController(ReadCache cache) {
+        this.cache = cache;
+    }
+
+    // 🔹 Treffer/Fehlzugriffe/Verdrängungen je Cache
+    @GetMapping("/api/cache/stats")
+    public Map<String, Object> stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,80 @@
+package at.yousong.yousong_api.cache;
+
+import at.yousong.yousong_api.artist.Artist;
+import at.yousong.yousong_api.audio.AudioByteCache;
+import at.yousong.yousong_api.song.Song;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA-Entity-Listener für {@link Song} und {@link Artist}: invalidiert den {@link ReadCache} (und für Songs den
+ * {@link AudioByteCache}) nach dem Commit.
+ * Deckt damit alle Schreibpfade ab (SongController, ArtistController, DemoDataSeeder, Migrationen).
+ */
+@Component
+public class CacheInvalidationListener {
+
+    private final ReadCache cache;
+    private final AudioByteCache audioCache;
+
+    public CacheInvalidationListener(ReadCache cache, AudioByteCache audioCache) {
+        this.cache = cache;
+        this.audioCache = audioCache;
+    }
+
+    @PostPersist
+    public void created(Object entity) {
+        if (entity instanceof Song song) {
+            long id = song.getId();
+            afterCommit(() -> cache.songCreated(id));
+        } else if (entity instanceof Artist artist) {
+            long id = artist.getId();
+            afterCommit(() -> cache.artistChanged(id));
+        }
+    }
+
+    @PostUpdate
+    public void updated(Object entity) {
+        if (entity instanceof Song song) {
+            long id = song.getId();
+            afterCommit(() -> {
+                cache.songUpdated(id);
+                audioCache.invalidate(id);
+            });
+        } else if (entity instanceof Artist artist) {
+            long id = artist.getId();
+            afterCommit(() -> cache.artistChanged(id));
+        }
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        if (entity instanceof Song song) {
+            long id = song.getId();
+            afterCommit(() -> {
+                cache.songRemoved(id);
+                audioCache.invalidate(id);
+            });
+        } else if (entity instanceof Artist artist) {
+            long id = artist.getId();
+            afterCommit(() -> cache.artistChanged(id));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,49 @@
+package at.yousong.yousong_api.cache;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Bedingte Requests per ETag:
+ * <ul>
+ *   <li>stark ({@code "..."}) für einzelne Ressourcen – Song-Details (ID + Version) und Audio (Hash)</li>
+ *   <li>schwach ({@code W/"..."}) für Listen – aus dem Änderungszähler von {@link ReadCache}</li>
+ * </ul>
+ * Die Prüfung passiert vor dem Laden: bei 304 wird weder gelesen noch serialisiert.
+ */
+public final class ETags {
+
+    private ETags() {}
+
+    public static String strong(String value) {
+        return "\"" + value + "\"";
+    }
+
+    public static String weak(String value) {
+        return "W/\"" + value + "\"";
+    }
+
+    /** {@code If-None-Match} (GET): schwacher Vergleich, {@code *} passt immer. */
+    public static boolean notModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        ETag current = ETag.create(etag);
+        return ETag.parse(ifNoneMatch).stream().anyMatch(tag -> tag.isWildcard() || tag.compare(current, false));
+    }
+
+    /** {@code If-Match} (PUT): starker Vergleich – schwache ETags des Clients passen nie. */
+    public static boolean matches(String ifMatch, String etag) {
+        ETag current = ETag.create(etag);
+        return ETag.parse(ifMatch).stream().anyMatch(tag -> tag.isWildcard() || tag.compare(current, true));
+    }
+
+    // 🔹 no-cache statt des no-store von Spring Security: Browser dürfen speichern, müssen aber revalidieren
+    public static ResponseEntity.BodyBuilder okResponse(String etag) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache());
+    }
+
+    public static <T> ResponseEntity<T> notModifiedResponse(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+    }
+}
@@ -0,0 +1,228 @@
+package at.yousong.yousong_api.cache;
+
+import at.yousong.yousong_api.artist.Artist;
+import at.yousong.yousong_api.song.dto.CursorSliceDto;
+import at.yousong.yousong_api.song.dto.SongDetailDto;
+import at.yousong.yousong_api.song.dto.SongListDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * In-Process-Cache für die lesenden Endpoints (Katalogseiten, Song-Details, Artist-Liste).
+ * <ul>
+ *   <li>Caffeine (W-TinyLFU), je Cache nach Bytes begrenzt – Gewicht = Größe der JSON-Antwort</li>
+ *   <li>TTL als Obergrenze für Veraltung; die eigentliche Invalidierung kommt von {@link CacheInvalidationListener}</li>
+ *   <li>Katalogseiten merken sich die enthaltenen Song- und Artist-IDs, damit z. B. ein Artist-Rename
+ *       nur die Seiten entfernt, auf denen dieser Artist vorkommt</li>
+ * </ul>
+ * Mit {@code yousong.cache.enabled=false} wird jeder Aufruf direkt an die DB durchgereicht (A/B-Lasttests).
+ * Treffer, Fehlschläge und Verdrängungen gehen zusätzlich als {@code cache.*}-Metriken an Micrometer.
+ */
+@Component
+public class ReadCache implements MeterBinder {
+
+    /**
+     * Ein Cache-Eintrag samt Tags für die Invalidierung.
+     * {@code search}: Seite mit Suchphrase – kann nach jeder Änderung andere Treffer haben.
+     * {@code counted}: enthält eine Gesamtanzahl. {@code lastPage}: neue Songs (höchste ID) landen hier.
+     */
+    private record Entry(Object value, int weight, Set<Long> songIds, Set<Long> artistIds,
+                         boolean search, boolean counted, boolean lastPage) {}
+
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Entry> catalog;
+    private final Cache<Long, Entry> songs;
+    private final Cache<String, Entry> artists;
+    // Wird bei jeder Invalidierung erhöht: Werte, die während einer Änderung geladen wurden, werden nicht gecacht
+    private final AtomicLong generation = new AtomicLong();
+    // Wird nach jeder abgeschlossenen Invalidierung erhöht (ETag der Listen); der Startzeitpunkt verhindert,
+    // dass nach einem Neustart (Zähler wieder 0) alte Listen bestätigt werden
+    private final AtomicLong listVersion = new AtomicLong();
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    public ReadCache(ObjectMapper objectMapper,
+                     @Value("${yousong.cache.enabled:true}") boolean enabled,
+                     @Value("${yousong.cache.ttl:PT5M}") Duration ttl,
+                     @Value("${yousong.cache.max-weight:16MB}") DataSize maxWeight) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.catalog = build(ttl, maxWeight);
+        this.songs = build(ttl, maxWeight);
+        this.artists = build(ttl, maxWeight);
+    }
+
+    private static <K> Cache<K, Entry> build(Duration ttl, DataSize maxWeight) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maxWeight.toBytes())
+                .weigher((K key, Entry entry) -> entry.weight())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    /**
+     * Schwaches ETag für Katalogseiten und Artist-Liste: ändert sich bei jeder Song- oder Artist-Änderung.
+     * Vor dem Laden abfragen – ein Commit dazwischen führt höchstens zu einem unnötigen 200, nie zu einem falschen 304.
+     */
+    public String listETag() {
+        return ETags.weak(epoch + "-" + listVersion.get());
+    }
+
+    // 🔹 Lesen
+
+    public Page<SongListDto> catalogPage(String key, boolean search, Supplier<Page<SongListDto>> loader) {
+        return load(catalog, key, loader, page -> entry(page, page.getContent(), search, true, page.isLast()));
+    }
+
+    public CursorSliceDto<SongListDto> catalogSlice(String key, boolean search, Supplier<CursorSliceDto<SongListDto>> loader) {
+        return load(catalog, key, loader,
+                slice -> entry(slice, slice.content, search, slice.approximateTotal != null, !slice.hasNext));
+    }
+
+    public Optional<SongDetailDto> songDetail(long id, Supplier<Optional<SongDetailDto>> loader) {
+        if (!enabled) return loader.get();
+        Entry cached = songs.getIfPresent(id);
+        if (cached != null) return Optional.of((SongDetailDto) cached.value());
+        long gen = generation.get();
+        Optional<SongDetailDto> loaded = loader.get();
+        loaded.ifPresent(dto -> {
+            Set<Long> artistIds = dto.artist == null ? Set.of() : Set.of(dto.artist.id);
+            store(songs, id, gen, new Entry(dto, weigh(dto), Set.of(id), artistIds, false, false, false));
+        });
+        return loaded;
+    }
+
+    public List<Artist> artists(Supplier<List<Artist>> loader) {
+        return load(artists, "all", loader, list -> new Entry(list, weigh(list), Set.of(), Set.of(), false, true, true));
+    }
+
+    // 🔹 Invalidierung (nach Commit)
+
+    /** Neuer Song: betrifft Suchseiten, Seiten mit Gesamtanzahl und die jeweils letzte Seite. */
+    public void songCreated(long id) {
+        generation.incrementAndGet();
+        catalog.asMap().values().removeIf(e -> e.search() || e.counted() || e.lastPage());
+        listVersion.incrementAndGet();
+    }
+
+    /** Geänderter Song: Detail, Seiten mit diesem Song und Suchseiten. */
+    public void songUpdated(long id) {
+        generation.incrementAndGet();
+        songs.invalidate(id);
+        catalog.asMap().values().removeIf(e -> e.search() || e.songIds().contains(id));
+        listVersion.incrementAndGet();
+    }
+
+    /** Gelöschter Song: zusätzlich verschieben sich Gesamtanzahlen. */
+    public void songRemoved(long id) {
+        generation.incrementAndGet();
+        songs.invalidate(id);
+        catalog.asMap().values().removeIf(e -> e.search() || e.counted() || e.songIds().contains(id));
+        listVersion.incrementAndGet();
+    }
+
+    /** Artist angelegt, umbenannt oder gelöscht: Artist-Liste, Seiten/Details mit diesem Artist und Suchseiten. */
+    public void artistChanged(long id) {
+        generation.incrementAndGet();
+        artists.invalidateAll();
+        songs.asMap().values().removeIf(e -> e.artistIds().contains(id));
+        catalog.asMap().values().removeIf(e -> e.search() || e.artistIds().contains(id));
+        listVersion.incrementAndGet();
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        catalog.invalidateAll();
+        songs.invalidateAll();
+        artists.invalidateAll();
+        listVersion.incrementAndGet();
+    }
+
+    // 🔹 Statistik
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("catalog", stats(catalog));
+        result.put("songs", stats(songs));
+        result.put("artists", stats(artists));
+        return result;
+    }
+
+    private static Map<String, Object> stats(Cache<?, Entry> cache) {
+        CacheStats s = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hits", s.hitCount());
+        result.put("misses", s.missCount());
+        result.put("hitRate", s.hitRate());
+        result.put("evictions", s.evictionCount());
+        result.put("evictedBytes", s.evictionWeight());
+        result.put("entries", cache.estimatedSize());
+        result.put("bytes", cache.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L));
+        return result;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, catalog, "catalog");
+        CaffeineCacheMetrics.monitor(registry, songs, "songs");
+        CaffeineCacheMetrics.monitor(registry, artists, "artists");
+    }
+
+    // 🔹 Intern
+
+    @SuppressWarnings("unchecked")
+    private <K, V> V load(Cache<K, Entry> cache, K key, Supplier<V> loader, Function<V, Entry> toEntry) {
+        if (!enabled) return loader.get();
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null) return (V) cached.value();
+        long gen = generation.get();
+        V value = loader.get();
+        store(cache, key, gen, toEntry.apply(value));
+        return value;
+    }
+
+    private <K> void store(Cache<K, Entry> cache, K key, long gen, Entry entry) {
+        cache.put(key, entry);
+        // Während des Ladens invalidiert: der Wert kann veraltet sein → nicht behalten
+        if (generation.get() != gen) cache.invalidate(key);
+    }
+
+    private Entry entry(Object value, List<SongListDto> rows, boolean search, boolean counted, boolean lastPage) {
+        Set<Long> songIds = rows.stream().map(r -> r.id).collect(Collectors.toUnmodifiableSet());
+        Set<Long> artistIds = rows.stream().map(r -> r.artist.id).collect(Collectors.toUnmodifiableSet());
+        return new Entry(value, weigh(value), songIds, artistIds, search, counted, lastPage);
+    }
+
+    private int weigh(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value).length;
+        } catch (JsonProcessingException e) {
+            return Integer.MAX_VALUE; // nicht serialisierbar → sofort wieder verdrängen
+        }
+    }
+}
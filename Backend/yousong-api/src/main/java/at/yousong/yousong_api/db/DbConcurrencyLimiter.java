@@ -0,0 +1,55 @@
+package at.yousong.yousong_api.db;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Legt {@link LimitedDataSource} um die (Hikari-)DataSource, damit tausende virtuelle Threads
+ * H2 nicht gleichzeitig überrennen. {@code yousong.db.max-concurrency=0} = so viele wie der Pool Verbindungen hat.
+ * Belegung, Warteschlange und Ablehnungen als {@code yousong.db.*}-Metriken (Pool selbst: {@code hikaricp.*}).
+ */
+@Component
+public class DbConcurrencyLimiter implements BeanPostProcessor, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(DbConcurrencyLimiter.class);
+
+    private final int maxConcurrency;
+    private final Duration acquireTimeout;
+    private volatile LimitedDataSource limited;
+
+    public DbConcurrencyLimiter(@Value("${yousong.db.max-concurrency:0}") int maxConcurrency,
+                                @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                @Value("${yousong.db.acquire-timeout:PT5S}") Duration acquireTimeout) {
+        this.maxConcurrency = maxConcurrency > 0 ? maxConcurrency : poolSize;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof LimitedDataSource)) {
+            log.info("Limiting '{}' to {} concurrent connections (timeout {})", beanName, maxConcurrency, acquireTimeout);
+            limited = new LimitedDataSource(dataSource, maxConcurrency, acquireTimeout);
+            return limited;
+        }
+        return bean;
+    }
+
+    // Registry kann vor der DataSource entstehen: Werte daher erst beim Abfragen auflösen
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("yousong.db.permits.in-use", this, l -> l.limited == null ? 0 : l.limited.inUse()).register(registry);
+        Gauge.builder("yousong.db.permits.waiting", this, l -> l.limited == null ? 0 : l.limited.waiting()).register(registry);
+        FunctionCounter.builder("yousong.db.permits.rejected", this, l -> l.limited == null ? 0 : l.limited.rejected())
+                .description("Connection requests rejected after the acquire timeout").register(registry);
+    }
+}
@@ -0,0 +1,68 @@
+package at.yousong.yousong_api.db;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * IDs für Song und Artist aus Sequenzen mit Pooled-Allocation: ein Sequenzaufruf reserviert
+ * {@value #ALLOCATION_SIZE} IDs (Wert {@code v} = Block {@code v-49..v}, wie Hibernates pooled-Optimizer).
+ * Anders als mit IDENTITY kann Hibernate so per JDBC-Batch einfügen, und der Bulk-Import vergibt IDs selbst.
+ * <p>
+ * Beim Start (nach den Flyway-Migrationen) wird jede Sequenz hinter die höchste vergebene ID gesetzt –
+ * Datenbanken aus der IDENTITY-Zeit und per JDBC mit expliziten IDs befüllte Tabellen kollidieren sonst.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class IdSequences {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequences.class);
+
+    public static final int ALLOCATION_SIZE = 50;
+    public static final String SONG = "song_seq";
+    public static final String ARTIST = "artist_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequences(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void alignOnStartup() {
+        align(jdbcTemplate);
+    }
+
+    public static void align(JdbcTemplate jdbc) {
+        align(jdbc, "song", SONG);
+        align(jdbc, "artist", ARTIST);
+    }
+
+    private static void align(JdbcTemplate jdbc, String table, String sequence) {
+        long maxId = jdbc.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+        long next = jdbc.queryForObject("select base_value from information_schema.sequences where lower(sequence_name) = ?",
+                Long.class, sequence);
+        // der erste Wert ist das Ende des ersten Blocks: mindestens maxId + Blockgröße
+        long required = maxId + ALLOCATION_SIZE;
+        if (next < required) {
+            jdbc.execute("alter sequence " + sequence + " restart with " + required);
+            log.info("Sequence {} moved from {} to {} (max id {})", sequence, next, required, maxId);
+        }
+    }
+
+    /** Reserviert mindestens {@code count} IDs in einer Abfrage und liefert genau {@code count} davon. */
+    public long[] allocate(String sequence, int count) {
+        int blocks = (count + ALLOCATION_SIZE - 1) / ALLOCATION_SIZE;
+        long[] ids = new long[count];
+        int[] i = {0};
+        jdbcTemplate.query("select next value for " + sequence + " from system_range(1, ?)", (RowCallbackHandler) rs -> {
+            long end = rs.getLong(1);
+            for (long id = end - ALLOCATION_SIZE + 1; id <= end && i[0] < count; id++) ids[i[0]++] = id;
+        }, blocks);
+        return ids;
+    }
+}
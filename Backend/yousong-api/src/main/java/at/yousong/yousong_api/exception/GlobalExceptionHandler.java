@@ -1,18 +1,34 @@
 package at.yousong.yousong_api.exception;
 
+import at.yousong.yousong_api.audio.AudioTooLargeException;
+import at.yousong.yousong_api.security.AuthBusyException;
+import at.yousong.yousong_api.security.TooManyAttemptsException;
+import at.yousong.yousong_api.metrics.YousongMetrics;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import java.util.HashMap;
 import java.util.Map;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final YousongMetrics metrics;
+
+    public GlobalExceptionHandler(YousongMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationErrors(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
@@ -21,6 +37,51 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
     }
 
+    @ExceptionHandler({AudioTooLargeException.class, MaxUploadSizeExceededException.class})
+    public ResponseEntity<Map<String, String>> handleTooLarge(RuntimeException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(error);
+    }
+
+    @ExceptionHandler(AuthBusyException.class)
+    public ResponseEntity<Map<String, String>> handleAuthBusy(AuthBusyException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    // 🔹 Keine DB-Verbindung bzw. Sperre innerhalb des Timeouts (Pool, DB-Limit oder Audio-Hash belegt)
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class,
+            CannotAcquireLockException.class})
+    public ResponseEntity<Map<String, String>> handleDatabaseBusy(RuntimeException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", "Database busy, please retry.");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    // 🔹 Paralleles Update hat die Versionsprüfung überholt und wurde erst beim Flush erkannt
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLock(OptimisticLockingFailureException ex) {
+        metrics.updateConflict("flush");
+        Map<String, String> error = new HashMap<>();
+        error.put("message", "Dieser Song wurde inzwischen geändert. Bitte lade die Seite neu.");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(TooManyAttemptsException.class)
+    public ResponseEntity<Map<String, String>> handleTooManyAttempts(TooManyAttemptsException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, String>> handleRuntimeErrors(RuntimeException ex) {
         Map<String, String> error = new HashMap<>();
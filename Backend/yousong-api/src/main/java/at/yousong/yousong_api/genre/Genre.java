@@ -0,0 +1,36 @@
+package at.yousong.yousong_api.genre;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+
+/**
+ * Eintrag im Genre-Wörterbuch: Songs referenzieren Genres nur noch über die ID (Tabelle {@code song_genre}).
+ * {@code name} ist die Schreibweise der ersten Verwendung, {@code normalizedName} der Schlüssel ohne
+ * Groß-/Kleinschreibung ({@link GenreDictionary#normalize(String)}). {@code songCount} pflegt
+ * {@link GenreCountListener} bei jedem Song-Schreibvorgang mit.
+ */
+@Entity
+@Table(name = "genre", uniqueConstraints = @UniqueConstraint(name = "uk_genre_normalized_name", columnNames = "normalized_name"))
+public class Genre {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, length = 80)
+    private String name;
+
+    @JsonIgnore
+    @Column(name = "normalized_name", nullable = false, length = 80)
+    private String normalizedName;
+
+    @Column(name = "song_count", nullable = false)
+    private int songCount;
+
+    public Genre() {}
+
+    public Integer getId() { return id; }
+    public String getName() { return name; }
+    public String getNormalizedName() { return normalizedName; }
+    public int getSongCount() { return songCount; }
+}
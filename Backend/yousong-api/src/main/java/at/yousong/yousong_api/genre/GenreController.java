@@ -0,0 +1,33 @@
+package at.yousong.yousong_api.genre;
+
+import at.yousong.yousong_api.cache.ETags;
+import at.yousong.yousong_api.cache.ReadCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/genres")
+@CrossOrigin(origins = "*")
+public class GenreController {
+
+    private final GenreRepository genreRepository;
+    private final ReadCache readCache;
+
+    public GenreController(GenreRepository genreRepository, ReadCache readCache) {
+        this.genreRepository = genreRepository;
+        this.readCache = readCache;
+    }
+
+    // 🔹 Genres mit Song-Anzahl: Zähler liegen vorberechnet in der Tabelle (kein group by über song_genre).
+    //    Sie ändern sich nur mit Songs → dasselbe schwache ETag wie die Song-Listen
+    @GetMapping
+    public ResponseEntity<List<Genre>> getGenres(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = readCache.listETag();
+        if (ETags.notModified(ifNoneMatch, etag)) return ETags.notModifiedResponse(etag);
+        return ETags.okResponse(etag).body(genreRepository.findInUse());
+    }
+}
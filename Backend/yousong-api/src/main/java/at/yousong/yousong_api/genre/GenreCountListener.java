@@ -0,0 +1,60 @@
+package at.yousong.yousong_api.genre;
+
+import at.yousong.yousong_api.song.Song;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreRemove;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JPA-Entity-Listener für {@link Song}: übersetzt Genre-Namen beim Anlegen in IDs und hält
+ * {@code genre.song_count} aktuell – in derselben Transaktion wie der Song, ein Rollback nimmt also beides zurück.
+ * Deckt alle JPA-Schreibpfade ab; der Bulk-Import (JDBC) passt die Zähler selbst an.
+ */
+@Component
+public class GenreCountListener {
+
+    private final GenreDictionary dictionary;
+
+    public GenreCountListener(GenreDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    // 🔹 Songs mit Genre-Namen (Request, Seeding): IDs vor dem Insert auflösen
+    @PrePersist
+    public void resolve(Song song) {
+        if (song.getGenreIds().isEmpty() && song.getGenres() != null)
+            song.setGenreIds(dictionary.resolve(song.getGenres()));
+    }
+
+    @PostPersist
+    public void created(Song song) {
+        song.takePreviousGenreIds();
+        dictionary.adjustCounts(delta(List.of(), song.getGenreIds()));
+    }
+
+    // 🔹 Ersetzte Genres: Stand vor setGenreIds gegen den neuen (ohne Genre-Änderung kein Snapshot)
+    @PostUpdate
+    public void updated(Song song) {
+        List<Integer> before = song.takePreviousGenreIds();
+        if (before != null) dictionary.adjustCounts(delta(before, song.getGenreIds()));
+    }
+
+    // 🔹 Vor dem Delete: danach wären die Collection-Zeilen schon weg
+    @PreRemove
+    public void removed(Song song) {
+        dictionary.adjustCounts(delta(song.getGenreIds(), List.of()));
+    }
+
+    private static Map<Integer, Integer> delta(List<Integer> before, List<Integer> after) {
+        Map<Integer, Integer> delta = new HashMap<>();
+        before.forEach(id -> delta.merge(id, -1, Integer::sum));
+        after.forEach(id -> delta.merge(id, 1, Integer::sum));
+        return delta;
+    }
+}
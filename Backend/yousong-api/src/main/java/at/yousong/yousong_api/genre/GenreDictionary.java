@@ -0,0 +1,197 @@
+package at.yousong.yousong_api.genre;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Genre-Wörterbuch im Speicher: normalisierter Name → ID und ID → Anzeigename (Tabelle {@code genre}).
+ * <ul>
+ *   <li>"Pop", " pop " und "POP" sind dasselbe Genre; angezeigt wird die Schreibweise der ersten Verwendung</li>
+ *   <li>unbekannte Namen werden angelegt; in der Namens-Map landen sie erst nach dem Commit
+ *       (ein Rollback würde sonst eine ID ohne Zeile hinterlassen)</li>
+ *   <li>Suche: passende Genre-IDs aus dem Speicher, die Abfrage prüft danach nur noch {@code genre_id in (…)}</li>
+ * </ul>
+ * Wird beim ersten Zugriff einmal geladen; IDs werden nie wiederverwendet, die Anzeigenamen ändern sich nicht.
+ */
+@Component
+public class GenreDictionary {
+
+    public static final int MAX_LENGTH = 80;
+    /** Platzhalter für "kein Genre passt" – JPQL-{@code in} braucht eine nicht-leere Liste. */
+    public static final List<Integer> NONE = List.of(-1);
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Integer> idsByKey = new ConcurrentHashMap<>();
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public GenreDictionary(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // 🔹 Schreibweise zum Anzeigen: Leerraum zusammengefasst, außen abgeschnitten
+    public static String canonical(String name) {
+        return WHITESPACE.matcher(name).replaceAll(" ").trim();
+    }
+
+    // 🔹 Schlüssel: wie canonical, ohne Groß-/Kleinschreibung (V6__song_genres_to_genre_dictionary.sql macht dasselbe in SQL)
+    public static String normalize(String name) {
+        return canonical(name).toLowerCase(Locale.ROOT);
+    }
+
+    public static List<Integer> orNone(List<Integer> ids) {
+        return ids.isEmpty() ? NONE : ids;
+    }
+
+    /** IDs zu den Namen in Eingabereihenfolge, ohne Duplikate und leere Namen; fehlende Genres werden angelegt. */
+    public List<Integer> resolve(Collection<String> genreNames) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        if (genreNames != null) {
+            for (String name : genreNames) {
+                Integer id = resolve(name);
+                if (id != null) ids.add(id);
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    /** ID zu einem Namen (angelegt, falls neu); {@code null} für leere Namen. */
+    public Integer resolve(String name) {
+        if (name == null || name.isBlank()) return null;
+        String canonical = canonical(name);
+        if (canonical.length() > MAX_LENGTH)
+            throw new IllegalArgumentException("Genre must be at most " + MAX_LENGTH + " characters.");
+        ensureLoaded();
+        String key = canonical.toLowerCase(Locale.ROOT);
+        Integer id = idsByKey.get(key);
+        if (id != null) return id;
+
+        id = find(key);
+        if (id == null) {
+            try {
+                id = insert(canonical, key);
+            } catch (DuplicateKeyException e) {
+                // parallel angelegt und schon committet
+                id = find(key);
+                if (id == null) throw e;
+            }
+        }
+        int resolved = id;
+        afterCommit(() -> idsByKey.put(key, resolved));
+        return id;
+    }
+
+    public String name(int id) {
+        ensureLoaded();
+        String name = names.get(id);
+        if (name != null) return name;
+        // in einer noch offenen Transaktion angelegt oder von außen eingefügt (Bulk-Import, Benchmarks)
+        List<String> found = jdbcTemplate.queryForList("select name from genre where id = ?", String.class, id);
+        if (found.isEmpty()) return null;
+        names.put(id, found.get(0));
+        return found.get(0);
+    }
+
+    public List<String> names(List<Integer> ids) {
+        List<String> result = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            String name = name(id);
+            if (name != null) result.add(name);
+        }
+        return result;
+    }
+
+    /** IDs aller Genres, deren Name {@code query} enthält (ohne Groß-/Kleinschreibung), aufsteigend. */
+    public List<Integer> matchingIds(String query) {
+        ensureLoaded();
+        String q = normalize(query);
+        List<Integer> ids = new ArrayList<>();
+        idsByKey.forEach((key, id) -> {
+            if (key.contains(q)) ids.add(id);
+        });
+        Collections.sort(ids);
+        return ids;
+    }
+
+    // 🔹 Zähler in der laufenden Transaktion anpassen; sortiert, damit parallele Schreiber in derselben Reihenfolge sperren
+    public void adjustCounts(Map<Integer, Integer> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        new TreeMap<>(deltas).forEach((id, delta) -> {
+            if (delta != 0) args.add(new Object[]{delta, id});
+        });
+        if (!args.isEmpty())
+            jdbcTemplate.batchUpdate("update genre set song_count = song_count + ? where id = ?", args);
+    }
+
+    // 🔹 Zähler komplett neu berechnen (Migration, Schreibpfade an der Anwendung vorbei)
+    public static int recount(JdbcTemplate jdbc) {
+        return jdbc.update("update genre g set song_count = (select count(*) from song_genre sg where sg.genre_id = g.id)");
+    }
+
+    // 🔹 Nach Änderungen an der Tabelle vorbei: beim nächsten Zugriff neu laden
+    public void reload() {
+        synchronized (this) {
+            loaded = false;
+            idsByKey.clear();
+            names.clear();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        synchronized (this) {
+            if (loaded) return;
+            jdbcTemplate.query("select id, name, normalized_name from genre", (RowCallbackHandler) rs -> {
+                names.put(rs.getInt(1), rs.getString(2));
+                idsByKey.put(rs.getString(3), rs.getInt(1));
+            });
+            loaded = true;
+        }
+    }
+
+    private Integer find(String key) {
+        List<Integer> ids = jdbcTemplate.queryForList("select id from genre where normalized_name = ?", Integer.class, key);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    private int insert(String canonical, String key) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "insert into genre (name, normalized_name, song_count) values (?, ?, 0)", Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, canonical);
+            ps.setString(2, key);
+            return ps;
+        }, keys);
+        int id = Objects.requireNonNull(keys.getKey()).intValue();
+        names.put(id, canonical);
+        return id;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
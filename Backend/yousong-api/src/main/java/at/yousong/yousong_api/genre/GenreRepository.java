@@ -0,0 +1,15 @@
+package at.yousong.yousong_api.genre;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GenreRepository extends JpaRepository<Genre, Integer> {
+
+    // 🔹 Genres mit mindestens einem Song, häufigste zuerst (Zähler sind vorberechnet, kein group by)
+    @Query("select g from Genre g where g.songCount > 0 order by g.songCount desc, g.name")
+    List<Genre> findInUse();
+}
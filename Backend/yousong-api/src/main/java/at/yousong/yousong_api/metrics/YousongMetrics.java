@@ -0,0 +1,73 @@
+package at.yousong.yousong_api.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fachliche Metriken der Anwendung (Prefix {@code yousong.}); HTTP-, JVM-, Hikari- und Hibernate-Metriken
+ * kommen von Spring Boot Actuator. Alles unter {@code /actuator/prometheus}.
+ */
+@Component
+public class YousongMetrics {
+
+    private final MeterRegistry registry;
+    private final Counter lobHeaderReads;
+    private final Counter lobStreamReads;
+
+    public YousongMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.lobHeaderReads = lobReads("header");
+        this.lobStreamReads = lobReads("stream");
+    }
+
+    /** Ausgelieferte Audio-Bytes; {@code source}: blob (BlobStore) oder legacy (Data-URI aus song_audio). */
+    public void audioServed(String source, long bytes) {
+        Counter.builder("yousong.audio.served").baseUnit("bytes").tag("source", source)
+                .description("Audio bytes served").register(registry).increment(bytes);
+    }
+
+    /** Hochgeladene Audio-Bytes; {@code source}: single, chunk oder data-uri. */
+    public void audioUploaded(String source, long bytes) {
+        Counter.builder("yousong.audio.uploaded").baseUnit("bytes").tag("source", source)
+                .description("Audio bytes uploaded").register(registry).increment(bytes);
+    }
+
+    /** LOB-Zugriffe auf noch nicht migriertes Audio: nur Header (Content-Type) oder kompletter Stream. */
+    public void lobRead(boolean fullStream) {
+        (fullStream ? lobStreamReads : lobHeaderReads).increment();
+    }
+
+    /** Optimistic-Lock-Konflikt in updateSong; {@code stage}: if-match (412), version-check (409 vor dem Schreiben) oder flush. */
+    public void updateConflict(String stage) {
+        Counter.builder("yousong.song.update.conflicts").tag("stage", stage)
+                .description("Optimistic-lock conflicts when updating songs").register(registry).increment();
+    }
+
+    /** Bulk-Import: Zeilen je Ergebnis ({@code outcome}: imported oder failed). */
+    public void importRows(String outcome, long rows) {
+        Counter.builder("yousong.import.rows").tag("outcome", outcome)
+                .description("Rows processed by the bulk import").register(registry).increment(rows);
+    }
+
+    /** Audio-Ingestion (MP3-Frames parsen) je Ergebnis ({@code outcome}: ready, failed, skipped, error). */
+    public void audioIngested(String outcome, long nanos) {
+        Timer.builder("yousong.audio.ingest").tag("outcome", outcome)
+                .description("Background analysis of uploaded audio").register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Timer für den JWT-Filter; {@code outcome}: none (kein Token), authenticated oder rejected. */
+    public Timer authFilter(String outcome) {
+        return Timer.builder("yousong.auth.filter").tag("outcome", outcome)
+                .description("JWT authentication filter").register(registry);
+    }
+
+    private Counter lobReads(String kind) {
+        return Counter.builder("yousong.audio.lob.reads").tag("kind", kind)
+                .description("Reads of legacy audio LOBs").register(registry);
+    }
+}
@@ -0,0 +1,11 @@
+package at.yousong.yousong_api.security;
+
+/** Passwort-Hashing ausgelastet (Queue voll) → 503 mit Retry-After. */
+public class AuthBusyException extends RuntimeException {
+    private final long retryAfterSeconds;
+    public AuthBusyException(long retryAfterSeconds) {
+        super("Authentication is busy, please retry later.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
@@ -0,0 +1,110 @@
+package at.yousong.yousong_api.security;
+
+import at.yousong.yousong_api.user.BenutzerRepository;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Caches für {@link JwtAuthFilter}, damit authentifizierte Requests weder Signatur prüfen noch die DB fragen müssen:
+ * <ul>
+ *   <li>geprüfte Tokens (Schlüssel = SHA-256 des Tokens) mit Subject, gültig bis zum {@code exp} des Tokens</li>
+ *   <li>per Logout widerrufene Tokens, ebenfalls bis zu ihrem {@code exp}</li>
+ *   <li>Existenz des Benutzers mit kurzer TTL; {@link #evictUser} wird beim Anlegen/Löschen aufgerufen</li>
+ * </ul>
+ * Alles liegt im Prozess – bei mehreren Instanzen wirkt ein Logout nur auf der Instanz, die ihn empfangen hat.
+ */
+@Component
+public class AuthCache {
+
+    private record Verified(String username, Instant expiresAt) {}
+
+    private final JwtUtil jwtUtil;
+    private final BenutzerRepository benutzerRepository;
+    private final Cache<String, Verified> tokens;
+    private final Cache<String, Instant> revoked;
+    private final Cache<String, Boolean> users;
+
+    public AuthCache(JwtUtil jwtUtil, BenutzerRepository benutzerRepository,
+                     @Value("${yousong.auth.token-cache-size:10000}") long tokenCacheSize,
+                     @Value("${yousong.auth.user-cache-ttl:PT30S}") Duration userCacheTtl) {
+        this.jwtUtil = jwtUtil;
+        this.benutzerRepository = benutzerRepository;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheSize)
+                .expireAfter(Expiry.creating((String key, Verified v) -> untilExpiry(v.expiresAt())))
+                .build();
+        this.revoked = Caffeine.newBuilder()
+                .maximumSize(tokenCacheSize)
+                .expireAfter(Expiry.creating((String key, Instant exp) -> untilExpiry(exp)))
+                .build();
+        this.users = Caffeine.newBuilder()
+                .maximumSize(tokenCacheSize)
+                .expireAfterWrite(userCacheTtl)
+                .build();
+    }
+
+    /** Username zum Token, falls es gültig, nicht widerrufen und der Benutzer (noch) vorhanden ist. */
+    public Optional<String> authenticate(String token) {
+        String key = hash(token);
+        if (revoked.getIfPresent(key) != null) return Optional.empty();
+
+        Verified verified = tokens.getIfPresent(key);
+        if (verified == null || !verified.expiresAt().isAfter(Instant.now())) {
+            verified = verify(token);
+            if (verified == null) return Optional.empty();
+            tokens.put(key, verified);
+        }
+        String username = verified.username();
+        return users.get(username, benutzerRepository::existsByUsername) ? Optional.of(username) : Optional.empty();
+    }
+
+    /** Logout: Token bis zu seinem Ablauf sperren. */
+    public void revokeToken(String token) {
+        String key = hash(token);
+        Verified verified = tokens.getIfPresent(key);
+        if (verified == null) verified = verify(token);
+        tokens.invalidate(key);
+        if (verified != null) revoked.put(key, verified.expiresAt());
+    }
+
+    /** Benutzer angelegt/gelöscht/umbenannt: nächste Anfrage prüft die Existenz wieder in der DB. */
+    public void evictUser(String username) {
+        users.invalidate(username);
+    }
+
+    private Verified verify(String token) {
+        try {
+            DecodedJWT jwt = jwtUtil.verify(token);
+            if (jwt.getExpiresAtAsInstant() == null) return null; // ohne exp nicht cachebar – eigene Tokens haben immer eines
+            return new Verified(jwt.getSubject(), jwt.getExpiresAtAsInstant());
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Duration untilExpiry(Instant expiresAt) {
+        Duration left = Duration.between(Instant.now(), expiresAt);
+        return left.isNegative() ? Duration.ZERO : left;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
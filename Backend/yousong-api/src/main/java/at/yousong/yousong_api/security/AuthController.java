@@ -2,38 +2,70 @@ package at.yousong.yousong_api.security;
 
 import at.yousong.yousong_api.user.Benutzer;
 import at.yousong.yousong_api.user.BenutzerRepository;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @CrossOrigin(origins = "*")
 public class AuthController {
 
     private final BenutzerRepository benutzerRepository;
-    private final BCryptPasswordEncoder encoder;
+    private final PasswordHasher passwordHasher;
+    private final LoginThrottle loginThrottle;
     private final JwtUtil jwtUtil;
+    private final AuthCache authCache;
 
-    public AuthController(BenutzerRepository benutzerRepository, BCryptPasswordEncoder encoder, JwtUtil jwtUtil) {
+    public AuthController(BenutzerRepository benutzerRepository, PasswordHasher passwordHasher, LoginThrottle loginThrottle,
+                          JwtUtil jwtUtil, AuthCache authCache) {
         this.benutzerRepository = benutzerRepository;
-        this.encoder = encoder;
+        this.passwordHasher = passwordHasher;
+        this.loginThrottle = loginThrottle;
         this.jwtUtil = jwtUtil;
+        this.authCache = authCache;
     }
 
     @PostMapping(value = "/login", consumes = "application/x-www-form-urlencoded")
-    public ResponseEntity<?> login(@RequestParam String username, @RequestParam String password) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestParam String username, @RequestParam String password,
+                                                      HttpServletRequest request) {
+        String ip = request.getRemoteAddr();
+        loginThrottle.checkLogin(username, ip);
         Benutzer user = benutzerRepository.findByUsername(username).orElse(null);
-        if (user == null || !encoder.matches(password, user.getPassword())) {
-            return ResponseEntity.status(401).body(Map.of("message", "Invalid username or password"));
-        }
-        String token = jwtUtil.generateToken(user.getUsername());
-        return ResponseEntity.ok(Map.of("token", token, "username", user.getUsername()));
+        // BCrypt läuft im PasswordHasher-Pool, der Tomcat-Thread ist bis zur Antwort frei. Unbekannte Benutzer
+        // hashen genauso (fester Vergleichs-Hash), sonst verrät die Antwortzeit, welche Namen existieren
+        CompletableFuture<Boolean> check = user == null
+                ? passwordHasher.matchesNothing(password)
+                : passwordHasher.matches(password, user.getPassword());
+        return check.thenApply(matches -> {
+            if (!matches) {
+                loginThrottle.loginFailed(username, ip);
+                return invalidCredentials();
+            }
+            loginThrottle.loginSucceeded(username);
+            String token = jwtUtil.generateToken(user.getUsername());
+            return ResponseEntity.ok(Map.of("token", token, "username", user.getUsername()));
+        });
+    }
+
+    private static ResponseEntity<?> invalidCredentials() {
+        return ResponseEntity.status(401).body(Map.of("message", "Invalid username or password"));
     }
 
+    // 🔹 Auslastung des Hash-Pools (Latenz, Queue-Tiefe, Ablehnungen)
+    @GetMapping("/api/auth/stats")
+    public Map<String, Object> stats() {
+        return passwordHasher.stats();
+    }
+
+    // 🔹 Logout: übergebenes Token bis zu seinem Ablauf sperren
     @PostMapping("/logout")
-    public ResponseEntity<?> logout() {
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            authCache.revokeToken(authorization.substring(7));
+        }
         return ResponseEntity.ok(Map.of("message", "Logged out"));
     }
 }
@@ -1,6 +1,7 @@
 package at.yousong.yousong_api.security;
 
-import at.yousong.yousong_api.user.BenutzerRepository;
+import at.yousong.yousong_api.metrics.YousongMetrics;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,35 +13,45 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
-    private final BenutzerRepository benutzerRepository;
+    private final AuthCache authCache;
+    private final Timer noToken;
+    private final Timer authenticated;
+    private final Timer rejected;
 
-    public JwtAuthFilter(JwtUtil jwtUtil, BenutzerRepository benutzerRepository) {
-        this.jwtUtil = jwtUtil;
-        this.benutzerRepository = benutzerRepository;
+    public JwtAuthFilter(AuthCache authCache, YousongMetrics metrics) {
+        this.authCache = authCache;
+        this.noToken = metrics.authFilter("none");
+        this.authenticated = metrics.authFilter("authenticated");
+        this.rejected = metrics.authFilter("rejected");
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
+        long start = System.nanoTime();
+        Timer outcome = noToken;
         String auth = request.getHeader("Authorization");
         if (auth != null && auth.startsWith("Bearer ")) {
             String token = auth.substring(7);
-            try {
-                String username = jwtUtil.validateAndExtractUsername(token);
-                benutzerRepository.findByUsername(username).ifPresent(u -> {
-                    var authToken = new UsernamePasswordAuthenticationToken(
-                            username, null, AuthorityUtils.NO_AUTHORITIES
-                    );
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                });
-            } catch (Exception ignored) { /* ungültiges Token -> als anonym weiter */ }
+            // Token-Prüfung und Benutzer-Existenz aus dem AuthCache; ungültig/widerrufen -> als anonym weiter
+            Optional<String> username = authCache.authenticate(token);
+            username.ifPresent(name -> {
+                var authToken = new UsernamePasswordAuthenticationToken(
+                        name, null, AuthorityUtils.NO_AUTHORITIES
+                );
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            });
+            outcome = username.isPresent() ? authenticated : rejected;
         }
+        // gemessen wird nur die Filter-Arbeit, nicht der Rest der Kette
+        outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         chain.doFilter(request, response);
     }
 }
@@ -1,6 +1,7 @@
 package at.yousong.yousong_api.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,6 +13,7 @@ import java.util.Date;
 public class JwtUtil {
 
     private final Algorithm algorithm;
+    private final JWTVerifier verifier;
     private final long expirationMs;
 
     public JwtUtil(
@@ -19,6 +21,8 @@ public class JwtUtil {
             @Value("${yousong.jwt.expiration}") long expirationMs
     ) {
         this.algorithm = Algorithm.HMAC256(secret);
+        // Verifier ist thread-safe und wird einmal gebaut statt pro Request
+        this.verifier = JWT.require(algorithm).withIssuer("YouSong").build();
         this.expirationMs = expirationMs;
     }
 
@@ -33,8 +37,11 @@ public class JwtUtil {
                 .sign(algorithm);
     }
 
+    public DecodedJWT verify(String token) {
+        return verifier.verify(token);
+    }
+
     public String validateAndExtractUsername(String token) {
-        DecodedJWT jwt = JWT.require(algorithm).withIssuer("YouSong").build().verify(token);
-        return jwt.getSubject();
+        return verify(token).getSubject();
     }
 }
@@ -0,0 +1,78 @@
+package at.yousong.yousong_api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Begrenzt Login-Fehlversuche pro Username und pro IP sowie Registrierungen pro IP in einem festen Zeitfenster.
+ * Geprüft wird vor dem Hashing – gedrosselte Anfragen kosten also keine BCrypt-Zeit.
+ */
+@Component
+public class LoginThrottle {
+
+    private record Window(long startNanos, AtomicInteger count) {}
+
+    private final Cache<String, Window> windows;
+    private final Duration window;
+    private final int maxFailuresPerUser;
+    private final int maxFailuresPerIp;
+    private final int maxSignupsPerIp;
+
+    public LoginThrottle(@Value("${yousong.auth.throttle-window:PT15M}") Duration window,
+                         @Value("${yousong.auth.max-failures-per-user:5}") int maxFailuresPerUser,
+                         @Value("${yousong.auth.max-failures-per-ip:20}") int maxFailuresPerIp,
+                         @Value("${yousong.auth.max-signups-per-ip:10}") int maxSignupsPerIp) {
+        this.window = window;
+        this.maxFailuresPerUser = maxFailuresPerUser;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.maxSignupsPerIp = maxSignupsPerIp;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfter(Expiry.creating((String key, Window w) -> window))
+                .build();
+    }
+
+    // 🔹 Login
+    public void checkLogin(String username, String ip) {
+        check(userKey(username), maxFailuresPerUser);
+        check("ip:" + ip, maxFailuresPerIp);
+    }
+
+    public void loginFailed(String username, String ip) {
+        count(userKey(username));
+        count("ip:" + ip);
+    }
+
+    public void loginSucceeded(String username) {
+        windows.invalidate(userKey(username));
+    }
+
+    // 🔹 Registrierung
+    public void checkSignup(String ip) {
+        check("signup:" + ip, maxSignupsPerIp);
+        count("signup:" + ip);
+    }
+
+    private void check(String key, int limit) {
+        Window w = windows.getIfPresent(key);
+        if (w == null || w.count().get() < limit) return;
+        long elapsed = System.nanoTime() - w.startNanos();
+        long retryAfter = Math.max(1, window.minusNanos(elapsed).toSeconds());
+        throw new TooManyAttemptsException(retryAfter);
+    }
+
+    private void count(String key) {
+        windows.get(key, k -> new Window(System.nanoTime(), new AtomicInteger())).count().incrementAndGet();
+    }
+
+    private static String userKey(String username) {
+        return "user:" + (username == null ? "" : username.toLowerCase(Locale.ROOT));
+    }
+}
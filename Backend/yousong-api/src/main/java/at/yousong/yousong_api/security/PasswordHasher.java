@@ -0,0 +1,126 @@
+package at.yousong.yousong_api.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Eigener, begrenzter Thread-Pool für BCrypt, damit Login-/Registrierungs-Spitzen nicht die Tomcat-Threads
+ * für Katalog und Audio blockieren. Ist die Queue voll, wird sofort mit {@link AuthBusyException} (503) abgelehnt.
+ * Bleibt auch mit {@code spring.threads.virtual.enabled=true} ein Pool aus Plattform-Threads: BCrypt ist rein
+ * CPU-gebunden, virtuelle Threads würden hier nur die Begrenzung aushebeln.
+ */
+@Component
+public class PasswordHasher implements MeterBinder {
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    // Vergleichswert für unbekannte Benutzer: gleiche Kosten wie echte Hashes
+    private final String dummyHash;
+    private final long retryAfterSeconds;
+
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final LongAdder rejected = new LongAdder();
+
+    public PasswordHasher(BCryptPasswordEncoder encoder,
+                          @Value("${yousong.auth.hash-threads:0}") int threads,
+                          @Value("${yousong.auth.hash-queue:64}") int queueSize,
+                          @Value("${yousong.auth.retry-after-seconds:2}") long retryAfterSeconds) {
+        this.encoder = encoder;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.dummyHash = encoder.encode("yousong-dummy-password");
+        // 0 = halbe Kernzahl: der Rest der CPU bleibt für lesende Requests
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    // 🔹 Login für unbekannten Benutzer: gleich teuer und gleich begrenzt wie ein echter Vergleich, immer false
+    public CompletableFuture<Boolean> matchesNothing(String rawPassword) {
+        return submit(() -> {
+            encoder.matches(rawPassword, dummyHash);
+            return false;
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(() -> timed(task), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new AuthBusyException(retryAfterSeconds);
+        }
+    }
+
+    private <T> T timed(Supplier<T> task) {
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            long nanos = System.nanoTime() - start;
+            hashes.increment();
+            hashNanos.add(nanos);
+            maxHashNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long count = hashes.sum();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("poolSize", executor.getMaximumPoolSize());
+        result.put("active", executor.getActiveCount());
+        result.put("queueDepth", executor.getQueue().size());
+        result.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        result.put("hashes", count);
+        result.put("rejected", rejected.sum());
+        result.put("avgHashMs", count == 0 ? 0.0 : hashNanos.sum() / 1e6 / count);
+        result.put("maxHashMs", maxHashNanos.get() / 1e6);
+        return result;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionTimer.builder("yousong.auth.hash", this, h -> h.hashes.sum(), h -> h.hashNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("BCrypt hashes").register(registry);
+        FunctionCounter.builder("yousong.auth.hash.rejected", this, h -> h.rejected.sum())
+                .description("Hash requests rejected because the queue was full").register(registry);
+        Gauge.builder("yousong.auth.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(registry);
+        Gauge.builder("yousong.auth.hash.queued", executor, e -> e.getQueue().size()).register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
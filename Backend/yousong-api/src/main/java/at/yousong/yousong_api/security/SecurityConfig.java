@@ -27,6 +27,7 @@ public class SecurityConfig {
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
+                .logout(logout -> logout.disable()) // POST /logout übernimmt der AuthController (Token-Sperre)
                 .cors(Customizer.withDefaults())
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
@@ -36,15 +37,23 @@ public class SecurityConfig {
 
                         .requestMatchers(HttpMethod.GET, "/api/songs/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/artists/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/genres/**").permitAll()
 
                         .requestMatchers(HttpMethod.POST, "/api/songs/**").authenticated()
                         .requestMatchers(HttpMethod.PUT, "/api/songs/**").authenticated()
                         .requestMatchers(HttpMethod.DELETE, "/api/songs/**").authenticated()
 
+                        .requestMatchers("/api/uploads/**").authenticated()
+
                         .requestMatchers(HttpMethod.POST,   "/api/artists/**").authenticated()
                         .requestMatchers(HttpMethod.PUT,    "/api/artists/**").authenticated()
                         .requestMatchers(HttpMethod.DELETE, "/api/artists/**").authenticated()
 
+                        // Betrieb: nur Health/Readiness öffentlich; Metriken, Cache- und Auth-Statistiken nur mit Login
+                        .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").authenticated()
+                        .requestMatchers("/api/cache/**").authenticated()
+                        .requestMatchers("/api/auth/stats").authenticated()
 
                         .anyRequest().permitAll()
                 )
@@ -61,9 +70,9 @@ public class SecurityConfig {
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration cfg = new CorsConfiguration();
         cfg.setAllowedOrigins(List.of("*"));
-        cfg.setAllowedMethods(List.of("GET","POST","PUT","DELETE","OPTIONS"));
+        cfg.setAllowedMethods(List.of("GET","POST","PUT","PATCH","DELETE","OPTIONS"));
         cfg.setAllowedHeaders(List.of("*"));
-        cfg.setExposedHeaders(List.of("Authorization", "Content-Type"));
+        cfg.setExposedHeaders(List.of("Authorization", "Content-Type", "Content-Range", "Accept-Ranges", "ETag", "Upload-Offset", "Retry-After"));
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", cfg);
         return source;
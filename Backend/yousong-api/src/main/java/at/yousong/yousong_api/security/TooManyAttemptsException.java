@@ -0,0 +1,11 @@
+package at.yousong.yousong_api.security;
+
+/** Zu viele Versuche pro Username/IP im aktuellen Zeitfenster → 429 mit Retry-After. */
+public class TooManyAttemptsException extends RuntimeException {
+    private final long retryAfterSeconds;
+    public TooManyAttemptsException(long retryAfterSeconds) {
+        super("Too many attempts, please retry later.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
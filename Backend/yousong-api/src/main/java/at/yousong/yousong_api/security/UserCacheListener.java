@@ -0,0 +1,40 @@
+package at.yousong.yousong_api.security;
+
+import at.yousong.yousong_api.user.Benutzer;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** JPA-Entity-Listener für {@link Benutzer}: hält den Existenz-Cache in {@link AuthCache} aktuell. */
+@Component
+public class UserCacheListener {
+
+    // ObjectProvider: AuthCache braucht das BenutzerRepository, das wiederum erst mit der EntityManagerFactory entsteht
+    private final ObjectProvider<AuthCache> authCache;
+
+    public UserCacheListener(ObjectProvider<AuthCache> authCache) {
+        this.authCache = authCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Benutzer benutzer) {
+        String username = benutzer.getUsername();
+        // nach dem Commit, sonst könnte ein paralleler Request den alten Stand erneut cachen
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            authCache.getObject().evictUser(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                authCache.getObject().evictUser(username);
+            }
+        });
+    }
+}
@@ -0,0 +1,272 @@
+package at.yousong.yousong_api.seed;
+
+import at.yousong.yousong_api.artist.Artist;
+import at.yousong.yousong_api.artist.ArtistRepository;
+import at.yousong.yousong_api.audio.BlobStore;
+import at.yousong.yousong_api.song.Song;
+import at.yousong.yousong_api.song.SongRepository;
+import at.yousong.yousong_api.user.Benutzer;
+import at.yousong.yousong_api.user.BenutzerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Demo-Daten (Benutzer {@code hugo}, Artists, Songs mit abspielbarem Audio aus {@code classpath:music/}).
+ * <ul>
+ *   <li>läuft nach dem Start im Hintergrund (Task-Executor); bis er fertig ist, meldet
+ *       {@link SeedingHealthIndicator} die Readiness als {@code OUT_OF_SERVICE}</li>
+ *   <li>BCrypt-Hash und das Hashen/Ablegen der MP3s im {@link BlobStore} laufen parallel,
+ *       Benutzer, Artists und Songs werden danach in einer Transaktion gebündelt gespeichert</li>
+ *   <li>idempotent: vorhandene Daten bleiben, nur Fehlendes wird angelegt. Demo-Songs aus älteren
+ *       Ständen ohne Audio bekommen ihre Datei nachträglich.</li>
+ * </ul>
+ * {@code yousong.seed.async=false} seedet synchron vor dem Ende des Starts (Tests).
+ */
+@Component
+public class DemoDataSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(DemoDataSeeder.class);
+
+    static final String USERNAME = "hugo";
+    private static final String PASSWORD = "password";
+    private static final String AUDIO_DIR = "music/";
+    private static final String AUDIO_TYPE = "audio/mpeg";
+
+    private static final String SANDBREAKER = "sandbreaker-379630.mp3";
+    private static final String RETRO_LOUNGE = "retro-lounge-389644.mp3";
+    private static final String RUNNING_NIGHT = "running-night-393139.mp3";
+    private static final String VLOG_BEAT = "vlog-beat-background-349853.mp3";
+
+    record SeedArtist(String name, String description) {}
+    record SeedSong(String title, List<String> genres, int length, String artist, String audio) {}
+    private record Repair(Song song, String audio) {}
+    private record Plan(boolean user, boolean catalog, Set<String> audio) {
+        boolean isEmpty() { return !user && !catalog && audio.isEmpty(); }
+    }
+
+    static final List<SeedArtist> ARTISTS = List.of(
+            new SeedArtist("Ed Sheeran", "UK singer-songwriter"),
+            new SeedArtist("Queen", "Legendary British rock band"),
+            new SeedArtist("Taylor Swift", "US singer-songwriter and producer"),
+            new SeedArtist("The Weeknd", "Canadian singer, songwriter and producer"),
+            new SeedArtist("Dua Lipa", "English and Albanian singer-songwriter"),
+            new SeedArtist("Imagine Dragons", "American pop rock band"),
+            new SeedArtist("Billie Eilish", "American singer and songwriter"),
+            new SeedArtist("Adele", "English singer and songwriter"),
+            new SeedArtist("Coldplay", "British rock band"),
+            new SeedArtist("Eminem", "American rapper and producer"));
+
+    static final List<SeedSong> SONGS = List.of(
+            new SeedSong("Shape of You",        List.of("Pop"),                         233, "Ed Sheeran",      SANDBREAKER),
+            new SeedSong("Perfect",             List.of("Pop"),                         263, "Ed Sheeran",      RETRO_LOUNGE),
+            new SeedSong("Bohemian Rhapsody",   List.of("Rock"),                        354, "Queen",           RUNNING_NIGHT),
+            new SeedSong("Love Story",          List.of("Country Pop", "Pop"),          235, "Taylor Swift",    VLOG_BEAT),
+            new SeedSong("Bad Habits",          List.of("Pop"),                         231, "Ed Sheeran",      RUNNING_NIGHT),
+            new SeedSong("Photograph",          List.of("Pop"),                         258, "Ed Sheeran",      RETRO_LOUNGE),
+            new SeedSong("Blank Space",         List.of("Pop"),                         231, "Taylor Swift",    VLOG_BEAT),
+            new SeedSong("Cruel Summer",        List.of("Synth-pop", "Pop"),            178, "Taylor Swift",    SANDBREAKER),
+            new SeedSong("Blinding Lights",     List.of("Synthwave", "Pop"),            200, "The Weeknd",      RUNNING_NIGHT),
+            new SeedSong("Save Your Tears",     List.of("Pop"),                         215, "The Weeknd",      VLOG_BEAT),
+            new SeedSong("Levitating",          List.of("Disco", "Pop"),                203, "Dua Lipa",        RETRO_LOUNGE),
+            new SeedSong("Don't Start Now",     List.of("Disco", "Pop"),                183, "Dua Lipa",        VLOG_BEAT),
+            new SeedSong("Believer",            List.of("Alternative Rock", "Pop Rock"), 204, "Imagine Dragons", SANDBREAKER),
+            new SeedSong("Thunder",             List.of("Pop Rock"),                    187, "Imagine Dragons", RUNNING_NIGHT),
+            new SeedSong("bad guy",             List.of("Electropop", "Pop"),           194, "Billie Eilish",   VLOG_BEAT),
+            new SeedSong("everything i wanted", List.of("Pop"),                         245, "Billie Eilish",   RETRO_LOUNGE),
+            new SeedSong("Hello",               List.of("Soul", "Pop"),                 295, "Adele",           RETRO_LOUNGE),
+            new SeedSong("Rolling in the Deep", List.of("Soul", "Pop"),                 228, "Adele",           SANDBREAKER),
+            new SeedSong("Viva La Vida",        List.of("Baroque Pop", "Pop"),          242, "Coldplay",        SANDBREAKER),
+            new SeedSong("Fix You",             List.of("Alternative Rock"),            294, "Coldplay",        RETRO_LOUNGE),
+            new SeedSong("Lose Yourself",       List.of("Hip Hop", "Rap"),              326, "Eminem",          RUNNING_NIGHT),
+            new SeedSong("The Real Slim Shady", List.of("Hip Hop", "Rap"),              284, "Eminem",          VLOG_BEAT));
+
+    private final SongRepository songRepository;
+    private final ArtistRepository artistRepository;
+    private final BenutzerRepository benutzerRepository;
+    private final BCryptPasswordEncoder encoder;
+    private final BlobStore blobStore;
+    private final TransactionTemplate tx;
+    private final Executor executor;
+    private final boolean enabled;
+    private final boolean async;
+
+    private volatile boolean done;
+    private volatile String failure;
+
+    public DemoDataSeeder(SongRepository songRepository, ArtistRepository artistRepository,
+                          BenutzerRepository benutzerRepository, BCryptPasswordEncoder encoder, BlobStore blobStore,
+                          TransactionTemplate tx,
+                          @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor,
+                          @Value("${yousong.seed.enabled:true}") boolean enabled,
+                          @Value("${yousong.seed.async:true}") boolean async) {
+        this.songRepository = songRepository;
+        this.artistRepository = artistRepository;
+        this.benutzerRepository = benutzerRepository;
+        this.encoder = encoder;
+        this.blobStore = blobStore;
+        this.tx = tx;
+        this.executor = executor;
+        this.enabled = enabled;
+        this.async = async;
+    }
+
+    public boolean isDone() { return done; }
+    public String getFailure() { return failure; }
+
+    // 🔹 Erst nach dem Start: Tomcat nimmt schon Requests an, während die Demo-Daten entstehen
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        if (!enabled) {
+            done = true;
+            return;
+        }
+        if (async) executor.execute(this::seedAndReport);
+        else seedAndReport();
+    }
+
+    private void seedAndReport() {
+        try {
+            seed();
+        } catch (RuntimeException e) {
+            failure = e.getMessage();
+            log.error("Demo data could not be seeded", e);
+        } finally {
+            done = true;
+        }
+    }
+
+    public void seed() {
+        long start = System.nanoTime();
+        Plan plan = tx.execute(status -> plan());
+        if (plan.isEmpty()) return;
+
+        // 🔹 Unabhängige, CPU-lastige Schritte parallel: BCrypt und SHA-256 der MP3s
+        CompletableFuture<String> passwordHash = plan.user()
+                ? CompletableFuture.supplyAsync(() -> encoder.encode(PASSWORD), executor)
+                : CompletableFuture.completedFuture(null);
+        Map<String, CompletableFuture<BlobStore.StoredBlob>> pending = new HashMap<>();
+        for (String file : plan.audio())
+            pending.put(file, CompletableFuture.supplyAsync(() -> storeBundled(file), executor));
+
+        Map<String, BlobStore.StoredBlob> blobs = new HashMap<>();
+        pending.forEach((file, blob) -> blobs.put(file, blob.join()));
+        String hash = passwordHash.join();
+
+        int songs = Objects.requireNonNull(tx.execute(status -> write(plan, hash, blobs)));
+        log.info("Seeded demo data in {} ms: user {}, {} songs, {} audio files",
+                (System.nanoTime() - start) / 1_000_000, plan.user() ? "created" : "kept", songs, blobs.size());
+    }
+
+    private Plan plan() {
+        boolean user = !benutzerRepository.existsByUsernameIgnoreCase(USERNAME);
+        if (songRepository.count() == 0) {
+            Set<String> audio = new HashSet<>();
+            SONGS.forEach(s -> audio.add(s.audio()));
+            return new Plan(user, true, audio);
+        }
+        Set<String> audio = new HashSet<>();
+        missingAudio().forEach(r -> audio.add(r.audio()));
+        return new Plan(user, false, audio);
+    }
+
+    private int write(Plan plan, String passwordHash, Map<String, BlobStore.StoredBlob> blobs) {
+        Benutzer owner = passwordHash != null
+                ? benutzerRepository.save(new Benutzer(null, USERNAME, passwordHash))
+                : benutzerRepository.findByUsername(USERNAME).orElse(null);
+        Map<String, Integer> references = new HashMap<>();
+
+        if (!plan.catalog()) {
+            List<Repair> repairs = missingAudio();
+            repairs.forEach(r -> setAudio(r.song(), blobs.get(r.audio()), references));
+            references.forEach(blobStore::retain);
+            applyMeasuredLength(repairs.stream().map(Repair::song).toList(), references.keySet());
+            return repairs.size();
+        }
+
+        Map<String, Artist> artists = artists();
+        List<Song> songs = new ArrayList<>(SONGS.size());
+        for (SeedSong seed : SONGS) {
+            Song song = new Song(null, seed.title(), seed.genres(), seed.length(), artists.get(key(seed.artist())), null, owner);
+            setAudio(song, blobs.get(seed.audio()), references);
+            songs.add(song);
+        }
+        // Song-IDs kommen gepoolt aus der Sequenz → Hibernate schickt die Inserts als JDBC-Batch
+        songRepository.saveAll(songs);
+        references.forEach(blobStore::retain);
+        applyMeasuredLength(songs, references.keySet());
+        return songs.size();
+    }
+
+    // 🔹 Dateien, die AudioIngestion schon analysiert hat: gemessene Dauer statt der Katalogangabe
+    //    (die übrigen aktualisiert die Ingestion selbst, sobald sie fertig ist)
+    private void applyMeasuredLength(List<Song> songs, Set<String> hashes) {
+        Map<String, Integer> lengths = new HashMap<>();
+        hashes.forEach(hash -> blobStore.measuredLength(hash).ifPresent(length -> lengths.put(hash, length)));
+        songs.forEach(song -> {
+            Integer length = lengths.get(song.getAudioHash());
+            if (length != null) song.setLength(length);
+        });
+    }
+
+    // 🔹 Vorhandene Artists in einer Abfrage, fehlende in einem Batch
+    private Map<String, Artist> artists() {
+        Map<String, Artist> artists = new HashMap<>();
+        artistRepository.findByLowerNameIn(ARTISTS.stream().map(a -> key(a.name())).toList())
+                .forEach(a -> artists.put(key(a.getName()), a));
+        List<Artist> missing = ARTISTS.stream()
+                .filter(a -> !artists.containsKey(key(a.name())))
+                .map(a -> new Artist(null, a.name(), a.description()))
+                .toList();
+        artistRepository.saveAll(missing).forEach(a -> artists.put(key(a.getName()), a));
+        return artists;
+    }
+
+    // 🔹 Demo-Songs (Titel + Artist) ohne Audio, z. B. aus Ständen, in denen nur der Dateiname gespeichert wurde
+    private List<Repair> missingAudio() {
+        Map<String, SeedSong> byTitle = new HashMap<>();
+        SONGS.forEach(s -> byTitle.put(s.title(), s));
+        List<Repair> repairs = new ArrayList<>();
+        for (Song song : songRepository.findWithArtistByTitleIn(byTitle.keySet())) {
+            SeedSong seed = byTitle.get(song.getTitle());
+            if (song.getAudioHash() == null && seed.artist().equalsIgnoreCase(song.getArtist().getName()))
+                repairs.add(new Repair(song, seed.audio()));
+        }
+        return repairs;
+    }
+
+    private static void setAudio(Song song, BlobStore.StoredBlob blob, Map<String, Integer> references) {
+        song.setAudioHash(blob.hash());
+        song.setAudioContentType(blob.contentType());
+        song.setAudioSize(blob.size());
+        references.merge(blob.hash(), 1, Integer::sum);
+    }
+
+    // 🔹 Inhaltsadressiert: beim erneuten Seeden landet dieselbe Datei wieder beim selben Hash
+    private BlobStore.StoredBlob storeBundled(String file) {
+        try (InputStream in = new ClassPathResource(AUDIO_DIR + file).getInputStream()) {
+            return blobStore.store(in, AUDIO_TYPE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Bundled audio " + file + " missing", e);
+        }
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,27 @@
+package at.yousong.yousong_api.seed;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Teil der Readiness-Gruppe ({@code /actuator/health/readiness}): {@code OUT_OF_SERVICE}, solange
+ * {@link DemoDataSeeder} noch läuft. Ein fehlgeschlagenes Seeding hält die Instanz nicht dauerhaft
+ * aus dem Verkehr – es bleibt {@code UP} mit dem Fehler als Detail.
+ */
+@Component
+public class SeedingHealthIndicator implements HealthIndicator {
+
+    private final DemoDataSeeder seeder;
+
+    public SeedingHealthIndicator(DemoDataSeeder seeder) {
+        this.seeder = seeder;
+    }
+
+    @Override
+    public Health health() {
+        if (!seeder.isDone()) return Health.outOfService().withDetail("seeding", "running").build();
+        if (seeder.getFailure() != null) return Health.up().withDetail("seeding", "failed: " + seeder.getFailure()).build();
+        return Health.up().build();
+    }
+}
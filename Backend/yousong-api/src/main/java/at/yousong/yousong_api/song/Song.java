@@ -1,34 +1,65 @@
 package at.yousong.yousong_api.song;
 
 import at.yousong.yousong_api.artist.Artist;
+import at.yousong.yousong_api.cache.CacheInvalidationListener;
+import at.yousong.yousong_api.db.IdSequences;
+import at.yousong.yousong_api.genre.GenreCountListener;
+import at.yousong.yousong_api.song.search.SearchIndexListener;
 import at.yousong.yousong_api.user.Benutzer;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners({GenreCountListener.class, SearchIndexListener.class, CacheInvalidationListener.class})
+// Schema und Indizes legt Flyway an (db/migration), die Annotationen spiegeln es nur.
+// Katalogfilter (FilteredCatalog): je Filter ein Index, der mit der ID endet – Sortierung und Seiten ohne Extra-Sortierschritt
+@Table(indexes = {
+        @Index(name = "idx_song_modified_at", columnList = "modified_at"),
+        @Index(name = "idx_song_audio_hash", columnList = "audio_hash"),
+        @Index(name = "idx_song_artist_length", columnList = "artist_id, length"),
+        @Index(name = "idx_song_owner", columnList = "owner_id, id"),
+        @Index(name = "idx_song_length", columnList = "length, id"),
+        @Index(name = "idx_song_title", columnList = "title, id")
+})
 public class Song {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "song_seq")
+    @SequenceGenerator(name = "song_seq", sequenceName = IdSequences.SONG, allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank(message = "Title must not be blank.")
     @Column(nullable = false, length = 200)
     private String title;
 
+    // Genres als IDs ins Wörterbuch (GenreDictionary), in der eingegebenen Reihenfolge
     @ElementCollection
     @CollectionTable(
-            name = "song_genres",
-            joinColumns = @JoinColumn(name = "song_id", foreignKey = @ForeignKey(name = "fk_song_genres_song"))
+            name = "song_genre",
+            joinColumns = @JoinColumn(name = "song_id", foreignKey = @ForeignKey(name = "fk_song_genre_song")),
+            // (genre_id, song_id): Genre-Filter und -Facetten lesen nur den Index
+            indexes = @Index(name = "idx_song_genre_genre_song", columnList = "genre_id, song_id")
     )
-    @Column(name = "genre", nullable = false, length = 80)
-    private List<String> genres = new ArrayList<>();
+    @OrderColumn(name = "position")
+    @Column(name = "genre_id", nullable = false)
+    @JsonIgnore
+    private List<Integer> genreIds = new ArrayList<>();
+
+    // Genre-Namen im Request (null = unverändert); gespeichert werden nur die IDs
+    @Transient
+    private List<String> genres;
+
+    // Genre-IDs vor setGenreIds, für die Zähler in GenreCountListener
+    @Transient
+    private List<Integer> previousGenreIds;
 
     @Min(value = 1, message = "Length must be at least 1 second.")
     private int length;
@@ -38,13 +69,36 @@ public class Song {
     @NotNull(message = "Artist must be provided.")
     private Artist artist;
 
-    @Lob
-    @Column(columnDefinition = "LONGTEXT")
+    // Legacy-Eingabe (base64 Data-URI) im Request; gespeichert wird nur die BlobStore-Referenz
+    @Transient
     private String musicData;
 
+    // Referenz in den BlobStore (SHA-256)
+    @Column(name = "audio_hash", length = 64)
+    @JsonIgnore
+    private String audioHash;
+
+    @Column(name = "audio_content_type", length = 100)
+    @JsonIgnore
+    private String audioContentType;
+
+    @Column(name = "audio_size")
+    @JsonIgnore
+    private Long audioSize;
+
+    // Referenz auf einen fertigen Upload (/api/uploads), nur im Request
+    @Transient
+    private String audioId;
+
     @Version
     private Long version;
 
+    // Letzte Änderung (beim Anlegen und bei jedem Update gesetzt) für inkrementelle Exporte (?since=)
+    @UpdateTimestamp
+    @Column(name = "modified_at")
+    @JsonIgnore
+    private Instant modifiedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     @JsonIgnore
@@ -70,6 +124,20 @@ public class Song {
     public List<String> getGenres() { return genres; }
     public void setGenres(List<String> genres) { this.genres = genres; }
 
+    public List<Integer> getGenreIds() { return genreIds; }
+    public void setGenreIds(List<Integer> genreIds) {
+        if (previousGenreIds == null) previousGenreIds = List.copyOf(this.genreIds);
+        this.genreIds.clear();
+        this.genreIds.addAll(genreIds);
+    }
+
+    /** Stand vor dem ersten {@link #setGenreIds} seit dem letzten Aufruf ({@code null} = unverändert). */
+    public List<Integer> takePreviousGenreIds() {
+        List<Integer> previous = previousGenreIds;
+        previousGenreIds = null;
+        return previous;
+    }
+
     public int getLength() { return length; }
     public void setLength(int length) { this.length = length; }
 
@@ -79,9 +147,23 @@ public class Song {
     public String getMusicData() { return musicData; }
     public void setMusicData(String musicData) { this.musicData = musicData; }
 
+    public String getAudioHash() { return audioHash; }
+    public void setAudioHash(String audioHash) { this.audioHash = audioHash; }
+
+    public String getAudioContentType() { return audioContentType; }
+    public void setAudioContentType(String audioContentType) { this.audioContentType = audioContentType; }
+
+    public Long getAudioSize() { return audioSize; }
+    public void setAudioSize(Long audioSize) { this.audioSize = audioSize; }
+
+    public String getAudioId() { return audioId; }
+    public void setAudioId(String audioId) { this.audioId = audioId; }
+
     public Long getVersion() { return version; }
     public void setVersion(Long version) { this.version = version; }
 
+    public Instant getModifiedAt() { return modifiedAt; }
+
     public Benutzer getOwner() { return owner; }
     public void setOwner(Benutzer owner) { this.owner = owner; }
 }
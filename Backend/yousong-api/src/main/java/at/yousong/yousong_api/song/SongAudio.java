@@ -0,0 +1,46 @@
+package at.yousong.yousong_api.song;
+
+import jakarta.persistence.*;
+
+/**
+ * Legacy-Audio (base64 Data-URI) in eigener Tabelle, damit ein {@link Song} nie einen LOB mitlädt.
+ * Neue Uploads landen im BlobStore; diese Zeilen werden beim Start dorthin migriert.
+ */
+@Entity
+@Table(name = "song_audio")
+public class SongAudio {
+
+    @Id
+    @Column(name = "song_id")
+    private Long songId;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @MapsId
+    @JoinColumn(name = "song_id", foreignKey = @ForeignKey(name = "fk_song_audio_song"))
+    private Song song;
+
+    // H2 legt LONGTEXT als unbegrenztes VARCHAR an (auch in bestehenden Datenbanken) – ohne @Lob passt das
+    // Mapping dazu und besteht die Schema-Validierung; gelesen wird ohnehin per Stream (LegacyAudioReader)
+    @Column(columnDefinition = "LONGTEXT")
+    private String musicData;
+
+    // Aus dem Data-URI-Header beim Verschieben nach song_audio; null = kein gültiges Audio
+    @Column(length = 100)
+    private String contentType;
+
+    public SongAudio() {}
+
+    public SongAudio(Song song, String musicData, String contentType) {
+        this.song = song;
+        this.musicData = musicData;
+        this.contentType = contentType;
+    }
+
+    public Long getSongId() { return songId; }
+    public Song getSong() { return song; }
+
+    public String getMusicData() { return musicData; }
+    public void setMusicData(String musicData) { this.musicData = musicData; }
+
+    public String getContentType() { return contentType; }
+}
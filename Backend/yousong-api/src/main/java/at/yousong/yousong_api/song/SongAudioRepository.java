@@ -0,0 +1,21 @@
+package at.yousong.yousong_api.song;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SongAudioRepository extends JpaRepository<SongAudio, Long> {
+
+    // 🔹 Zeilen, deren Audio noch als Data-URI vorliegt
+    @Query("select a.songId from SongAudio a where a.musicData like 'data:audio%'")
+    List<Long> findLegacyAudioIds();
+
+    @Modifying
+    @Query("delete from SongAudio a where a.songId = :songId")
+    int deleteBySongId(@Param("songId") Long songId);
+}
@@ -2,22 +2,50 @@ package at.yousong.yousong_api.song;
 
 import at.yousong.yousong_api.artist.Artist;
 import at.yousong.yousong_api.artist.ArtistRepository;
+import at.yousong.yousong_api.audio.AudioBlob;
+import at.yousong.yousong_api.audio.AudioByteCache;
+import at.yousong.yousong_api.audio.AudioResponder;
+import at.yousong.yousong_api.audio.BlobStore;
+import at.yousong.yousong_api.audio.DataUri;
+import at.yousong.yousong_api.audio.InvalidAudioException;
+import at.yousong.yousong_api.audio.LegacyAudioReader;
+import at.yousong.yousong_api.audio.SegmentedAudio;
+import at.yousong.yousong_api.cache.ETags;
+import at.yousong.yousong_api.cache.ReadCache;
+import at.yousong.yousong_api.genre.GenreDictionary;
+import at.yousong.yousong_api.metrics.YousongMetrics;
 import at.yousong.yousong_api.song.dto.ArtistRefDto;
+import at.yousong.yousong_api.song.dto.AudioRefDto;
+import at.yousong.yousong_api.song.dto.CursorSliceDto;
+import at.yousong.yousong_api.song.dto.FacetedPage;
 import at.yousong.yousong_api.song.dto.SongDetailDto;
+import at.yousong.yousong_api.song.dto.SongListDto;
+import at.yousong.yousong_api.song.filter.CatalogFilter;
+import at.yousong.yousong_api.song.filter.CatalogQuery;
+import at.yousong.yousong_api.song.filter.FilteredCatalog;
+import at.yousong.yousong_api.song.search.SongSearchIndex;
 import at.yousong.yousong_api.user.Benutzer;
 import at.yousong.yousong_api.user.BenutzerRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.springframework.data.domain.*;
 import org.springframework.http.*;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.util.*;
-import java.util.Base64;
 
 @RestController
 @RequestMapping("/api/songs")
@@ -25,85 +53,332 @@ import java.util.Base64;
 @Validated
 public class SongController {
 
+    private static final int BATCH_SIZE = 1_000;
+
     private final SongRepository songRepository;
     private final ArtistRepository artistRepository;
     private final BenutzerRepository benutzerRepository;
+    private final BlobStore blobStore;
+    private final AudioResponder audioResponder;
+    private final SegmentedAudio segmentedAudio;
+    private final AudioByteCache audioCache;
+    private final LegacyAudioReader legacyAudioReader;
+    private final SongAudioRepository songAudioRepository;
+    private final SongSearchIndex searchIndex;
+    private final GenreDictionary genres;
+    private final FilteredCatalog filteredCatalog;
+    private final ReadCache readCache;
+    private final YousongMetrics metrics;
 
-    public SongController(SongRepository songRepository, ArtistRepository artistRepository, BenutzerRepository benutzerRepository) {
+    public SongController(SongRepository songRepository, ArtistRepository artistRepository, BenutzerRepository benutzerRepository,
+                          BlobStore blobStore, AudioResponder audioResponder, SegmentedAudio segmentedAudio,
+                          AudioByteCache audioCache, LegacyAudioReader legacyAudioReader,
+                          SongAudioRepository songAudioRepository, SongSearchIndex searchIndex, GenreDictionary genres,
+                          FilteredCatalog filteredCatalog, ReadCache readCache, YousongMetrics metrics) {
         this.songRepository = songRepository;
         this.artistRepository = artistRepository;
         this.benutzerRepository = benutzerRepository;
+        this.blobStore = blobStore;
+        this.audioResponder = audioResponder;
+        this.segmentedAudio = segmentedAudio;
+        this.audioCache = audioCache;
+        this.legacyAudioReader = legacyAudioReader;
+        this.songAudioRepository = songAudioRepository;
+        this.searchIndex = searchIndex;
+        this.genres = genres;
+        this.filteredCatalog = filteredCatalog;
+        this.readCache = readCache;
+        this.metrics = metrics;
     }
 
-    // 🔹 Alle Songs mit Paging
+    // 🔹 Alle Songs mit Paging (Listen: schwaches ETag, If-None-Match → 304 ohne Laden)
     @GetMapping
-    public ResponseEntity<Page<SongProjection>> getAllSongs(
+    public ResponseEntity<Page<SongListDto>> getAllSongs(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "5") int size) {
+            @RequestParam(defaultValue = "5") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
+        String etag = readCache.listETag();
+        if (ETags.notModified(ifNoneMatch, etag)) return ETags.notModifiedResponse(etag);
         Pageable pageable = PageRequest.of(page, size, Sort.by("id").ascending());
-        return ResponseEntity.ok(songRepository.findAllProjectedBy(pageable));
+        return ETags.okResponse(etag).body(readCache.catalogPage(pageKey(page, size, null), false,
+                () -> withGenres(songRepository.findAllRows(pageable))));
+    }
+
+    // 🔹 Alle Songs per Keyset-Paging: ?after=<cursor> (leer = Anfang), Seek statt OFFSET, kein count
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorSliceDto<SongListDto>> getAllSongsAfter(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "5") @Min(1) @Max(100) int size,
+            @RequestParam(defaultValue = "false") boolean total,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        long afterId = SongCursor.decode(after);
+        String etag = readCache.listETag();
+        if (ETags.notModified(ifNoneMatch, etag)) return ETags.notModifiedResponse(etag);
+        return ETags.okResponse(etag).body(readCache.catalogSlice(sliceKey(afterId, size, null, total), false,
+                () -> slice(songRepository.findRowsAfter(afterId, Limit.of(size + 1)), size, total ? approximateTotal() : null)));
     }
 
-    // 🔹 Katalog mit optionaler Suche (komplett Repository-basiert)
+    // 🔹 Katalog mit optionaler Suche (Suchindex, bis zu dessen Aufbau per Repository);
+    //    mit Filtern (genre, artist, minLength/maxLength, owner=me), Sortierung oder facets=true per FilteredCatalog
     @GetMapping("/catalog")
-    public ResponseEntity<Page<SongProjection>> catalog(
+    public ResponseEntity<Page<SongListDto>> catalog(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size,
-            @RequestParam(required = false) String q) {
+            @RequestParam(required = false) String q,
+            CatalogFilter filter,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        String query = (q != null && q.trim().length() >= 2) ? q.trim() : null;
+        CatalogQuery filtered = filtered(filter, query);
+        String etag = readCache.listETag();
+        if (ETags.notModified(ifNoneMatch, etag)) return ETags.notModifiedResponse(etag);
+        if (filtered != null)
+            return ETags.okResponse(etag).body(readCache.catalogPage(
+                    pageKey(page, size, null) + ":" + filter.wantsFacets() + ":" + filtered.cacheKey(), true,
+                    () -> loadFilteredPage(filtered, PageRequest.of(page, size), filter.wantsFacets())));
+        return ETags.okResponse(etag).body(readCache.catalogPage(pageKey(page, size, query), query != null,
+                () -> loadCatalogPage(page, size, query)));
+    }
 
+    // 🔹 Filter auflösen; null = ungefilterter Katalog (bisheriger Weg über Suchindex bzw. Keyset auf der ID)
+    private CatalogQuery filtered(CatalogFilter filter, String query) {
+        if (filter == null || filter.isEmpty()) return null;
+        Long ownerId = null;
+        if (filter.ownedByCurrentUser()) {
+            Benutzer current = getCurrentUser();
+            if (current == null) throw new AuthenticationCredentialsNotFoundException("Please login to filter your own songs.");
+            ownerId = current.getId();
+        }
+        return filter.toQuery(query, ownerId);
+    }
+
+    private Page<SongListDto> loadFilteredPage(CatalogQuery query, Pageable pageable, boolean facets) {
+        Page<SongListDto> page = withGenres(filteredCatalog.page(query, pageable));
+        return new FacetedPage<>(page, facets ? filteredCatalog.facets(query) : null);
+    }
+
+    private Page<SongListDto> loadCatalogPage(int page, int size, String query) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("id").ascending());
+        if (query == null || !searchIndex.isReady())
+            return withGenres(songRepository.catalogRows(query, genreIdsMatching(query), pageable));
+
+        List<Long> ids = searchIndex.matchingIds(query);
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + size, ids.size());
+        return new PageImpl<>(withGenres(hydrate(ids.subList(from, to))), pageable, ids.size());
+    }
+
+    // 🔹 Katalog per Keyset-Paging (gleiche Treffer wie /catalog, Latenz unabhängig von der Seitentiefe)
+    @GetMapping(value = "/catalog", params = "after")
+    public ResponseEntity<CursorSliceDto<SongListDto>> catalogAfter(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "5") @Min(1) @Max(100) int size,
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "false") boolean total,
+            CatalogFilter filter,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        long afterId = SongCursor.decode(after);
         String query = (q != null && q.trim().length() >= 2) ? q.trim() : null;
-        return ResponseEntity.ok(songRepository.catalogNoGenres(query, pageable));
+        CatalogQuery filtered = filtered(filter, query);
+        if (filtered != null) {
+            String etag = readCache.listETag();
+            if (ETags.notModified(ifNoneMatch, etag)) return ETags.notModifiedResponse(etag);
+            return ETags.okResponse(etag).body(readCache.catalogSlice(
+                    sliceKey(afterId, size, null, total) + ":" + filter.wantsFacets() + ":" + filtered.cacheKey(), true,
+                    () -> loadFilteredSlice(filtered, afterId, size, total, filter.wantsFacets())));
+        }
+        if (query == null)
+            return getAllSongsAfter(after, size, total, ifNoneMatch);
+        String etag = readCache.listETag();
+        if (ETags.notModified(ifNoneMatch, etag)) return ETags.notModifiedResponse(etag);
+        return ETags.okResponse(etag).body(readCache.catalogSlice(sliceKey(afterId, size, query, total), true,
+                () -> loadCatalogSlice(afterId, size, query, total)));
     }
 
-    // 🔹 Direkte Suche ohne Paging (rein über Repository)
+    private CursorSliceDto<SongListDto> loadCatalogSlice(long afterId, int size, String query, boolean total) {
+        if (!searchIndex.isReady())
+            return slice(songRepository.catalogRowsAfter(query, genreIdsMatching(query), afterId, Limit.of(size + 1)), size, null);
+
+        List<Long> ids = searchIndex.matchingIds(query);
+        int pos = Collections.binarySearch(ids, afterId);
+        int from = pos >= 0 ? pos + 1 : -pos - 1;
+        List<Long> window = ids.subList(from, Math.min(from + size + 1, ids.size()));
+        return slice(hydrate(window), size, total ? (long) ids.size() : null);
+    }
+
+    // 🔹 Gefilterte Seite per Keyset; Gesamtzahl auf Wunsch exakt (count mit denselben Bedingungen)
+    private CursorSliceDto<SongListDto> loadFilteredSlice(CatalogQuery query, long afterId, int size, boolean total,
+                                                          boolean facets) {
+        CursorSliceDto<SongListDto> slice = slice(filteredCatalog.after(query, afterId, size + 1), size,
+                total ? filteredCatalog.count(query) : null);
+        if (facets) slice.facets = filteredCatalog.facets(query);
+        return slice;
+    }
+
+    // 🔹 Cache-Schlüssel: Suche ist unabhängig von Groß-/Kleinschreibung
+    private static String pageKey(int page, int size, String query) {
+        return "page:" + page + ":" + size + ":" + (query == null ? "" : query.toLowerCase(Locale.ROOT));
+    }
+
+    private static String sliceKey(long afterId, int size, String query, boolean total) {
+        return "after:" + afterId + ":" + size + ":" + total + ":" + (query == null ? "" : query.toLowerCase(Locale.ROOT));
+    }
+
+    // 🔹 size + 1 Zeilen geladen: die zusätzliche Zeile zeigt nur an, ob es weitergeht
+    private CursorSliceDto<SongListDto> slice(List<SongRow> rows, int size, Long approximateTotal) {
+        if (rows.size() <= size) return new CursorSliceDto<>(withGenres(rows), null, approximateTotal);
+        List<SongRow> content = rows.subList(0, size);
+        return new CursorSliceDto<>(withGenres(content), SongCursor.encode(content.get(size - 1).id()), approximateTotal);
+    }
+
+    // 🔹 Gesamtzahl aus dem Suchindex (ohne Abfrage); vor dessen Aufbau per count über den Primärschlüssel
+    private Long approximateTotal() {
+        return searchIndex.isReady() ? searchIndex.songCount() : songRepository.count();
+    }
+
+    // 🔹 Direkte Suche ohne Paging, nach Relevanz sortiert
     @GetMapping("/search")
-    public ResponseEntity<List<SongProjection>> searchSongs(
+    public ResponseEntity<List<SongListDto>> searchSongs(
             @RequestParam
             @NotBlank(message = "Query must not be blank.")
             @Size(min = 2, max = 200, message = "Query must be between 2 and 200 characters.")
             String query) {
-        return ResponseEntity.ok(songRepository.searchProjected(query));
+        if (!searchIndex.isReady())
+            return ResponseEntity.ok(withGenres(songRepository.searchRows(query, genreIdsMatching(query))));
+        return ResponseEntity.ok(withGenres(hydrate(searchIndex.search(query))));
+    }
+
+    // 🔹 Genre-Treffer aus dem Wörterbuch im Speicher; die Abfrage vergleicht dann nur IDs
+    private List<Integer> genreIdsMatching(String query) {
+        return query == null ? GenreDictionary.NONE : GenreDictionary.orNone(genres.matchingIds(query));
+    }
+
+    // 🔹 ID-Liste aus dem Index in Blöcken laden und in deren Reihenfolge zurückgeben
+    private List<SongRow> hydrate(List<Long> ids) {
+        Map<Long, SongRow> byId = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+            List<Long> chunk = ids.subList(i, Math.min(i + BATCH_SIZE, ids.size()));
+            songRepository.findRowsByIdIn(chunk).forEach(r -> byId.put(r.id(), r));
+        }
+        List<SongRow> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            SongRow r = byId.get(id);
+            if (r != null) result.add(r);
+        }
+        return result;
+    }
+
+    // 🔹 Genres für alle Zeilen gebündelt per IN nachladen (eine Abfrage je 1000 Songs statt einer pro Song),
+    //    Namen aus dem GenreDictionary
+    private List<SongListDto> withGenres(List<SongRow> rows) {
+        Map<Long, List<String>> names = new HashMap<>(rows.size() * 2);
+        for (int i = 0; i < rows.size(); i += BATCH_SIZE) {
+            List<Long> chunk = rows.subList(i, Math.min(i + BATCH_SIZE, rows.size())).stream().map(SongRow::id).toList();
+            songRepository.findGenresBySongIdIn(chunk)
+                    .forEach(g -> names.computeIfAbsent(g.songId(), k -> new ArrayList<>(2)).add(genres.name(g.genreId())));
+        }
+        return rows.stream()
+                .map(r -> new SongListDto(r.id(), r.title(), r.length(), new ArtistRefDto(r.artistId(), r.artistName()),
+                        names.getOrDefault(r.id(), List.of())))
+                .toList();
+    }
+
+    private Page<SongListDto> withGenres(Page<SongRow> page) {
+        return new PageImpl<>(withGenres(page.getContent()), page.getPageable(), page.getTotalElements());
     }
 
-    // 🔹 Song-Detailansicht
+    // 🔹 Song-Detailansicht (Audio nur als Referenz, musicData nur auf ausdrücklichen Wunsch)
+    //    Starkes ETag aus ID + Version; bei If-None-Match zuerst nur die Version abfragen
     @GetMapping("/{id}")
-    public ResponseEntity<SongDetailDto> getSongById(@PathVariable @Min(1) Long id) {
+    public ResponseEntity<SongDetailDto> getSongById(@PathVariable @Min(1) Long id,
+                                                     @RequestParam(defaultValue = "false") boolean includeMusicData,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<String> current = songRepository.findVersionById(id).map(SongVersion::etag);
+            if (current.isPresent() && ETags.notModified(ifNoneMatch, current.get()))
+                return ETags.notModifiedResponse(current.get());
+        }
+        if (!includeMusicData)
+            return readCache.songDetail(id, () -> songRepository.findById(id).map(this::toDto))
+                    .map(dto -> ETags.okResponse(versionOf(dto).etag()).body(dto))
+                    .orElse(ResponseEntity.notFound().build());
         return songRepository.findById(id)
-                .map(this::toDto)
-                .map(ResponseEntity::ok)
+                .map(song -> {
+                    SongDetailDto dto = toDto(song);
+                    dto.musicData = musicDataOf(song);
+                    return dto;
+                })
+                .map(dto -> ETags.okResponse(versionOf(dto).etag()).body(dto))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     // 🔹 Song-Audio abrufen
     @GetMapping("/{id}/music")
-    public ResponseEntity<byte[]> getSongMusic(@PathVariable Long id) {
-        return songRepository.findById(id)
-                .filter(song -> song.getMusicData() != null && song.getMusicData().startsWith("data:audio"))
-                .map(song -> {
-                    try {
-                        String base64Data = song.getMusicData().split(",")[1];
-                        byte[] audioBytes = Base64.getDecoder().decode(base64Data);
-                        String contentType = song.getMusicData().substring(5, song.getMusicData().indexOf(";"));
-
-                        return ResponseEntity.ok()
-                                .header(HttpHeaders.CONTENT_TYPE, contentType)
-                                .header(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*")
-                                .body(audioBytes);
-                    } catch (Exception e) {
-                        return ResponseEntity.internalServerError()
-                                .header(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*")
-                                .body(new byte[0]);
-                    }
-                })
-                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .header(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*")
-                        .body(new byte[0]));
+    public ResponseEntity<?> getSongMusic(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Optional<SongMusicProjection> found = songRepository.findMusicById(id);
+        if (found.isPresent() && found.get().getAudioHash() != null) {
+            SongMusicProjection music = found.get();
+            return audioResponder.serve(request, response, music.getAudioHash(), music.getAudioContentType(), music.getAudioSize());
+        }
+
+        // Legacy: noch nicht migrierte Zeilen mit Data-URI, als Stream dekodiert; ETag aus ID + Version,
+        // bei passendem If-None-Match wird der LOB nicht angefasst
+        if (found.isPresent()) {
+            String etag = ETags.strong("legacy-" + id + "-" + Objects.requireNonNullElse(found.get().getVersion(), 0L));
+            if (ETags.notModified(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag))
+                return ETags.notModifiedResponse(etag);
+            response.setHeader(HttpHeaders.ETAG, etag);
+        }
+        Optional<String> legacyType = found.flatMap(music -> legacyAudioReader.contentType(id));
+        if (legacyType.isEmpty())
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .header(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*")
+                    .build();
+
+        response.setContentType(legacyType.get());
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        if (!audioCache.isEnabled()) {
+            legacyAudioReader.copyTo(id, response.getOutputStream());
+            return null;
+        }
+        // Einmal dekodiert, danach aus dem Off-Heap-Cache; eine neue Version ist ein neuer Schlüssel
+        long version = Objects.requireNonNullElse(found.get().getVersion(), 0L);
+        ByteBuffer audio = audioCache.get(new AudioByteCache.Key(id, version), key -> legacyAudioReader.readDirect(id));
+        response.setContentLengthLong(audio.remaining());
+        metrics.audioServed("legacy", audio.remaining());
+        AudioByteCache.write(audio, response);
+        return null;
+    }
+
+    // 🔹 Segmentierte Wiedergabe (HLS): Playlist, Segmente unter segments/<hash>/<sekunden>/<n>.mp3
+    @GetMapping("/{id}/playlist.m3u8")
+    public ResponseEntity<?> getSongPlaylist(@PathVariable Long id, HttpServletRequest request) {
+        return songRepository.findMusicById(id)
+                .filter(music -> music.getAudioHash() != null && SegmentedAudio.supports(music.getAudioContentType()))
+                .<ResponseEntity<?>>map(music -> segmentedAudio.playlist(request, music.getAudioHash()))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("message", "No segmented audio for song " + id + ".")));
+    }
+
+    @GetMapping("/{id}/segments/{hash}/{seconds}/{index}.mp3")
+    public ResponseEntity<?> getSongSegment(@PathVariable Long id, @PathVariable String hash, @PathVariable int seconds,
+                                            @PathVariable int index, HttpServletRequest request,
+                                            HttpServletResponse response) throws IOException {
+        // Nur die aktuelle Datei des Songs; nach einem Audio-Wechsel lädt der Player die Playlist neu
+        Optional<SongMusicProjection> music = songRepository.findMusicById(id)
+                .filter(m -> hash.equals(m.getAudioHash()) && SegmentedAudio.supports(m.getAudioContentType()));
+        if (music.isEmpty()) return ResponseEntity.notFound().build();
+        long version = Objects.requireNonNullElse(music.get().getVersion(), 0L);
+        return segmentedAudio.segment(request, response, new AudioByteCache.Key(id, version), hash, seconds, index);
     }
 
     // 🔹 Song erstellen
     @PostMapping
+    @Transactional
     public ResponseEntity<?> createSong(@Valid @RequestBody Song newSong) {
         Benutzer current = getCurrentUser();
         if (current == null)
@@ -118,6 +393,8 @@ public class SongController {
 
         newSong.setArtist(artist);
         newSong.setOwner(current);
+        if (newSong.getAudioId() != null) attachAudio(newSong, newSong.getAudioId());
+        else applyAudio(newSong, newSong.getMusicData());
 
         Song saved = songRepository.save(newSong);
         return ResponseEntity.status(HttpStatus.CREATED).body(toDto(saved));
@@ -125,21 +402,31 @@ public class SongController {
 
     // 🔹 Song aktualisieren
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateSong(@PathVariable @Min(1) Long id, @Valid @RequestBody Song updatedSong) {
+    @Transactional
+    public ResponseEntity<?> updateSong(@PathVariable @Min(1) Long id, @Valid @RequestBody Song updatedSong,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Benutzer current = getCurrentUser();
         if (current == null)
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Please login to update a song.");
 
-        if (updatedSong.getVersion() == null)
-            return ResponseEntity.badRequest().body(Map.of("message", "Version is required."));
+        if (ifMatch == null && updatedSong.getVersion() == null)
+            return ResponseEntity.badRequest().body(Map.of("message", "If-Match header or version is required."));
 
         return songRepository.findById(id).map(existing -> {
             if (!Objects.equals(existing.getOwner().getId(), current.getId()))
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You can only edit your own songs.");
 
-            if (!Objects.equals(existing.getVersion(), updatedSong.getVersion()))
+            // If-Match: ETag aus dem GET (Standard-Precondition → 412); ohne Header die Version im Body (→ 409)
+            if (ifMatch != null && !versionOf(existing).matchedBy(ifMatch)) {
+                metrics.updateConflict("if-match");
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                        .body("Dieser Song wurde inzwischen geändert. Bitte lade die Seite neu.");
+            }
+            if (ifMatch == null && !Objects.equals(existing.getVersion(), updatedSong.getVersion())) {
+                metrics.updateConflict("version-check");
                 return ResponseEntity.status(HttpStatus.CONFLICT)
                         .body("Dieser Song wurde inzwischen geändert. Bitte lade die Seite neu.");
+            }
 
             Long artistId = Optional.ofNullable(updatedSong.getArtist()).map(Artist::getId).orElse(null);
             if (artistId == null)
@@ -150,16 +437,25 @@ public class SongController {
 
             existing.setTitle(updatedSong.getTitle());
             existing.setLength(updatedSong.getLength());
-            existing.setMusicData(updatedSong.getMusicData());
             existing.setArtist(artist);
+            // Genres nur ersetzen, wenn sie mitgeschickt wurden (Zähler passt GenreCountListener an)
+            if (updatedSong.getGenres() != null) existing.setGenreIds(genres.resolve(updatedSong.getGenres()));
+            // Audio nur ersetzen, wenn eine neue Datei mitgeschickt wurde
+            if (updatedSong.getAudioId() != null) {
+                attachAudio(existing, updatedSong.getAudioId());
+            } else if (updatedSong.getMusicData() != null && !updatedSong.getMusicData().isBlank()) {
+                applyAudio(existing, updatedSong.getMusicData());
+            }
 
             Song saved = songRepository.saveAndFlush(existing);
-            return ResponseEntity.ok(toDto(saved));
+            SongDetailDto dto = toDto(saved);
+            return ResponseEntity.ok().eTag(versionOf(dto).etag()).body(dto);
         }).orElse(ResponseEntity.notFound().build());
     }
 
     // 🔹 Song löschen
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<?> deleteSong(@PathVariable @Min(1) Long id) {
         Benutzer current = getCurrentUser();
         if (current == null)
@@ -169,24 +465,84 @@ public class SongController {
             if (!Objects.equals(song.getOwner().getId(), current.getId()))
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You can only delete your own songs.");
 
+            blobStore.release(song.getAudioHash());
+            songAudioRepository.deleteBySongId(song.getId());
             songRepository.delete(song);
             return ResponseEntity.noContent().build();
         }).orElse(ResponseEntity.notFound().build());
     }
 
+    // 🔹 Data-URI aus dem Request (Kompatibilität) in den BlobStore legen
+    private void applyAudio(Song song, String musicData) {
+        if (musicData == null || musicData.isBlank()) return;
+        DataUri uri = DataUri.parse(musicData);
+        BlobStore.StoredBlob blob = blobStore.store(uri.openStream(), uri.contentType());
+        metrics.audioUploaded("data-uri", blob.size());
+        setAudio(song, blob);
+    }
+
+    // 🔹 Fertigen Upload (/api/uploads) am Song referenzieren
+    private void attachAudio(Song song, String audioId) {
+        BlobStore.StoredBlob blob = blobStore.find(audioId)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown audioId " + audioId));
+        // Noch in Analyse ist ok; als kaputt erkannte Dateien nicht
+        if (blob.status() == AudioBlob.Status.FAILED)
+            throw new InvalidAudioException("Audio is not a valid MP3: "
+                    + blobStore.describe(audioId).map(AudioBlob::getError).orElse("unknown error"));
+        setAudio(song, blob);
+    }
+
+    private void setAudio(Song song, BlobStore.StoredBlob blob) {
+        String previous = song.getAudioHash();
+        if (blob.hash().equals(previous)) return;
+
+        blobStore.retain(blob.hash());
+        blobStore.release(previous);
+        // Schon analysiert → gemessene Dauer; sonst setzt sie AudioIngestion nach der Analyse
+        blobStore.measuredLength(blob.hash()).ifPresent(song::setLength);
+        song.setAudioHash(blob.hash());
+        song.setAudioContentType(blob.contentType());
+        song.setAudioSize(blob.size());
+        // Neues Audio ersetzt ein evtl. noch nicht migriertes Legacy-Audio
+        if (song.getId() != null) songAudioRepository.deleteBySongId(song.getId());
+    }
+
+    // 🔹 Audio als Data-URI für alte Clients – liest die ganze Datei, daher nur per Opt-in
+    private String musicDataOf(Song song) {
+        if (song.getAudioHash() != null) {
+            try {
+                byte[] bytes = Files.readAllBytes(blobStore.pathOf(song.getAudioHash()));
+                return "data:" + song.getAudioContentType() + ";base64," + Base64.getEncoder().encodeToString(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return songAudioRepository.findById(song.getId()).map(SongAudio::getMusicData).orElse(null);
+    }
+
     // 🔹 Mapper Song → DTO
     private SongDetailDto toDto(Song s) {
-        Artist a = s.getArtist();
-        ArtistRefDto aDto = new ArtistRefDto(a.getId(), a.getName());
-        return new SongDetailDto(
-                s.getId(),
-                s.getTitle(),
-                s.getGenres(),
-                s.getLength(),
-                s.getVersion(),
-                aDto,
-                s.getMusicData()
-        );
+        AudioRefDto audio = s.getAudioHash() != null
+                ? blobStore.describe(s.getAudioHash())
+                        .map(blob -> AudioRefDto.of(musicUrl(s), blob))
+                        .orElseGet(() -> new AudioRefDto(musicUrl(s), s.getAudioHash(), s.getAudioContentType(), s.getAudioSize()))
+                : legacyAudioReader.contentType(s.getId())
+                        .map(type -> new AudioRefDto(musicUrl(s), null, type, null))
+                        .orElse(null);
+        return SongDetailDto.of(s, genres.names(s.getGenreIds()), audio);
+    }
+
+    private static SongVersion versionOf(SongDetailDto dto) {
+        return new SongVersion(dto.id, dto.version, dto.artist == null ? null : dto.artist.name,
+                dto.audio == null ? null : dto.audio.status);
+    }
+
+    private static SongVersion versionOf(Song s) {
+        return new SongVersion(s.getId(), s.getVersion(), s.getArtist().getName(), (String) null);
+    }
+
+    private static String musicUrl(Song s) {
+        return "/api/songs/" + s.getId() + "/music";
     }
 
     // 🔹 Aktueller Benutzer aus SecurityContext
@@ -0,0 +1,30 @@
+package at.yousong.yousong_api.song;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/** Opaker Cursor für Keyset-Paging: kodiert die ID des letzten gelieferten Songs. Leer = Anfang. */
+final class SongCursor {
+
+    private static final String PREFIX = "s:";
+
+    private SongCursor() {}
+
+    static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return 0L;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.US_ASCII);
+            if (!raw.startsWith(PREFIX)) throw new IllegalArgumentException();
+            long id = Long.parseLong(raw.substring(PREFIX.length()));
+            if (id < 0) throw new IllegalArgumentException();
+            return id;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package at.yousong.yousong_api.song;
+
+import java.time.Instant;
+
+/** Flache Zeile für den Export: wie {@link SongRow}, zusätzlich Version und Änderungszeitpunkt. */
+public record SongExportRow(Long id, String title, int length, Long artistId, String artistName, Long version, Instant modifiedAt) {}
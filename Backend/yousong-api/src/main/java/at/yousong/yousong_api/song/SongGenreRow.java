@@ -0,0 +1,4 @@
+package at.yousong.yousong_api.song;
+
+/** Ein Eintrag aus song_genre (Genre als ID ins Wörterbuch), für das gebündelte Nachladen per {@code IN}. */
+public record SongGenreRow(Long songId, Integer genreId) {}
@@ -1,5 +1,8 @@
 package at.yousong.yousong_api.song;
 
 public interface SongMusicProjection {
-    String getMusicData();
+    String getAudioHash();
+    String getAudioContentType();
+    Long getAudioSize();
+    Long getVersion();
 }
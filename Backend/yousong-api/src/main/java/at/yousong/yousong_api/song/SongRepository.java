@@ -1,41 +1,131 @@
 package at.yousong.yousong_api.song;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SongRepository extends JpaRepository<Song, Long> {
 
+    // 🔹 Listen liefern flache Zeilen (Song + Artist-Referenz in einem Join); Genres lädt findGenresBySongIdIn
+    //    gebündelt nach. Genre-Treffer löst der Aufrufer vorher im GenreDictionary zu IDs auf (:genreIds,
+    //    nie leer) – das exists-Subselect vergleicht dann nur noch IDs statt LIKE auf jeder Genre-Zeile.
+    //    left join (artist_id ist not null, also dieselben Zeilen): H2 dreht die Join-Reihenfolge dann nicht um –
+    //    sonst liest es alle Artists und sortiert die Songs jeder Seite, statt dem Primärschlüssel zu folgen
+    String ROW = "select new at.yousong.yousong_api.song.SongRow(s.id, s.title, s.length, a.id, a.name) from Song s left join s.artist a";
+
     // 🔹 Paging für alle Songs
-    Page<SongProjection> findAllProjectedBy(Pageable pageable);
+    @Query(value = ROW, countQuery = "select count(s) from Song s")
+    Page<SongRow> findAllRows(Pageable pageable);
 
     // 🔹 Direkte Suche (ohne Paging)
-    @Query("""
-            select s from Song s
-            left join s.genres g
-            where lower(s.title) like lower(concat('%', :q, '%'))
-               or lower(s.artist.name) like lower(concat('%', :q, '%'))
-               or lower(g) like lower(concat('%', :q, '%'))
-            group by s
+    @Query(ROW + """
+
+            where lower(s.title) like lower(concat('%', :q, '%')) or
+                   lower(a.name) like lower(concat('%', :q, '%')) or
+                   exists (select 1 from s.genreIds g where g in :genreIds)
+            order by s.id
             """)
-    List<SongProjection> searchProjected(@Param("q") String query);
+    List<SongRow> searchRows(@Param("q") String query, @Param("genreIds") Collection<Integer> genreIds);
 
     // 🔹 Katalog mit optionaler Suchphrase und Paging
-    @Query("""
-            select s from Song s
-            left join s.genres g
+    @Query(value = ROW + """
+
+            where (:q is null or
+                   lower(s.title) like lower(concat('%', :q, '%')) or
+                   lower(a.name) like lower(concat('%', :q, '%')) or
+                   exists (select 1 from s.genreIds g where g in :genreIds))
+            """,
+            countQuery = """
+            select count(s) from Song s join s.artist a
             where (:q is null or
                    lower(s.title) like lower(concat('%', :q, '%')) or
-                   lower(s.artist.name) like lower(concat('%', :q, '%')) or
-                   lower(g) like lower(concat('%', :q, '%')))
-            group by s
+                   lower(a.name) like lower(concat('%', :q, '%')) or
+                   exists (select 1 from s.genreIds g where g in :genreIds))
+            """)
+    Page<SongRow> catalogRows(@Param("q") String q, @Param("genreIds") Collection<Integer> genreIds, Pageable pageable);
+
+    // 🔹 Keyset-Paging: Seek über den Primärschlüssel statt OFFSET, ohne count-Abfrage
+    @Query(ROW + " where s.id > :after order by s.id")
+    List<SongRow> findRowsAfter(@Param("after") long after, Limit limit);
+
+    // 🔹 Keyset-Katalog mit Suchphrase (nur solange der SongSearchIndex noch nicht bereit ist)
+    @Query(ROW + """
+
+            where s.id > :after and (
+                   lower(s.title) like lower(concat('%', :q, '%')) or
+                   lower(a.name) like lower(concat('%', :q, '%')) or
+                   exists (select 1 from s.genreIds g where g in :genreIds))
+            order by s.id
             """)
-    Page<SongProjection> catalogNoGenres(@Param("q") String q, Pageable pageable);
+    List<SongRow> catalogRowsAfter(@Param("q") String q, @Param("genreIds") Collection<Integer> genreIds,
+                                   @Param("after") long after, Limit limit);
+
+    // 🔹 Treffer aus dem SongSearchIndex in einer Abfrage laden (Reihenfolge stellt der Aufrufer her)
+    @Query(ROW + " where s.id in :ids")
+    List<SongRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 🔹 Genre-IDs zu mehreren Songs in einer Abfrage (Namen kommen aus dem GenreDictionary)
+    @Query("select new at.yousong.yousong_api.song.SongGenreRow(s.id, g) from Song s join s.genreIds g where s.id in :ids order by s.id, index(g)")
+    List<SongGenreRow> findGenresBySongIdIn(@Param("ids") Collection<Long> ids);
+
+    // 🔹 Exakte Dauer aus der Audio-Ingestion überschreibt die eingegebene Länge; Version nur hoch, wo sie abweicht –
+    //    passende Songs bleiben unverändert (der Audio-Status steckt ohnehin im ETag, siehe SongVersion)
+    @Modifying
+    @Query("update Song s set s.length = :length, s.version = s.version + 1, s.modifiedAt = :now where s.audioHash = :hash and s.length <> :length")
+    int applyAudioLength(@Param("hash") String hash, @Param("length") int length, @Param("now") Instant now);
+
+    // 🔹 Nur Version hoch (Audio als kaputt erkannt oder nicht analysierbar)
+    @Modifying
+    @Query("update Song s set s.version = s.version + 1, s.modifiedAt = :now where s.audioHash = :hash")
+    int touchByAudioHash(@Param("hash") String hash, @Param("now") Instant now);
+
+    // 🔹 Songs samt Artist über den Titel (Seeding: vorhandene Demo-Songs wiederfinden)
+    @Query("select s from Song s join fetch s.artist where s.title in :titles")
+    List<Song> findWithArtistByTitleIn(@Param("titles") Collection<String> titles);
+
+    // 🔹 Nur die Audio-Referenz laden (ohne LOB)
+    @Query("select s.audioHash as audioHash, s.audioContentType as audioContentType, s.audioSize as audioSize, s.version as version from Song s where s.id = :id")
+    Optional<SongMusicProjection> findMusicById(@Param("id") Long id);
+
+    // 🔹 Nur die Felder des ETags (bedingte GETs ohne Detail-Mapping und ohne LOB)
+    @Query("select new at.yousong.yousong_api.song.SongVersion(s.id, s.version, a.name, b.status) from Song s join s.artist a left join AudioBlob b on b.hash = s.audioHash where s.id = :id")
+    Optional<SongVersion> findVersionById(@Param("id") Long id);
+
+    // 🔹 Export: vorwärts gelesen mit Fetch-Size, DTO-Zeilen statt Entities (kein wachsender Persistence-Context);
+    //    since = nur Songs, die danach angelegt oder geändert wurden
+    default Stream<SongExportRow> streamForExport(Instant since) {
+        return since == null ? streamAllForExport() : streamChangedForExport(since);
+    }
+
+    String EXPORT_ROW = "select new at.yousong.yousong_api.song.SongExportRow(s.id, s.title, s.length, a.id, a.name, s.version, s.modifiedAt) from Song s left join s.artist a";
+
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_ROW + " order by s.id")
+    Stream<SongExportRow> streamAllForExport();
 
+    // Eigene Abfrage statt ":since is null or …" – mit dem OR nutzt H2 idx_song_modified_at nicht
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_ROW + " where s.modifiedAt > :since order by s.id")
+    Stream<SongExportRow> streamChangedForExport(@Param("since") Instant since);
 }
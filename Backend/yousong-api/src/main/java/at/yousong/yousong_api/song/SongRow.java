@@ -0,0 +1,4 @@
+package at.yousong.yousong_api.song;
+
+/** Flache Zeile für Listen/Katalog: Song + Artist-Referenz aus einem Join, ohne Entity und ohne Proxy. */
+public record SongRow(Long id, String title, int length, Long artistId, String artistName) {}
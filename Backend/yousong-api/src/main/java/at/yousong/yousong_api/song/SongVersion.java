@@ -0,0 +1,34 @@
+package at.yousong.yousong_api.song;
+
+import at.yousong.yousong_api.audio.AudioBlob;
+import at.yousong.yousong_api.cache.ETags;
+import at.yousong.yousong_api.song.dto.AudioRefDto;
+import org.springframework.http.ETag;
+
+/**
+ * Was das starke ETag der Song-Detailansicht bestimmt: ID + {@code @Version}. Artists haben keine Version,
+ * deshalb geht der Artist-Name (als Hash) mit ein – ein Umbenennen ändert die Detailansicht ebenfalls.
+ * Genauso der Status der Audio-Ingestion, der sich ohne neue Song-Version ändern kann.
+ */
+public record SongVersion(Long id, Long version, String artistName, String audioStatus) {
+
+    public SongVersion(Long id, Long version, String artistName, AudioBlob.Status audioStatus) {
+        this(id, version, artistName, AudioRefDto.status(audioStatus));
+    }
+
+    public String etag() {
+        return ETags.strong(audioStatus == null ? editable() : editable() + "." + audioStatus);
+    }
+
+    // 🔹 If-Match: der Audio-Status ist nicht editierbar – processing → ready ist kein Konflikt beim Speichern
+    public boolean matchedBy(String ifMatch) {
+        String editable = editable();
+        return ETag.parse(ifMatch).stream().anyMatch(tag -> tag.isWildcard()
+                || !tag.weak() && (tag.tag().equals(editable) || tag.tag().startsWith(editable + ".")));
+    }
+
+    private String editable() {
+        long v = version == null ? 0 : version;
+        return id + "-" + v + "-" + Integer.toHexString(artistName == null ? 0 : artistName.hashCode());
+    }
+}
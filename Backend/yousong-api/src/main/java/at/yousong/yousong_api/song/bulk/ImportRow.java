@@ -0,0 +1,6 @@
+package at.yousong.yousong_api.song.bulk;
+
+import java.util.List;
+
+/** Eine Eingabezeile des Bulk-Imports; {@code line} ist die Zeilennummer für Fehlermeldungen. */
+public record ImportRow(long line, String title, String artist, int length, List<String> genres) {}
@@ -0,0 +1,130 @@
+package at.yousong.yousong_api.song.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Zerlegt eine Eingabezeile in eine {@link ImportRow}. Ungültige Zeilen werfen {@link IllegalArgumentException}
+ * mit der Meldung für den Import-Report.
+ * <ul>
+ *   <li>NDJSON: {@code {"title":"…","artist":"…","length":180,"genres":["Pop"]}} –
+ *       {@code artist} auch als Objekt mit {@code name}, {@code genres} auch als String mit {@code |}</li>
+ *   <li>CSV: Kopfzeile mit {@code title,artist,length,genres} (Reihenfolge beliebig, weitere Spalten werden ignoriert),
+ *       Genres mit {@code |} getrennt, Felder optional in {@code "…"}. Zeilenumbrüche innerhalb von Feldern gibt es nicht.</li>
+ * </ul>
+ */
+public interface RowParser {
+
+    String NDJSON = "application/x-ndjson";
+    String CSV = "text/csv";
+
+    /** @return die Zeile oder {@code null}, wenn sie keinen Song enthält (CSV-Kopfzeile) */
+    ImportRow parse(long line, String text);
+
+    static RowParser forContentType(String contentType, ObjectMapper objectMapper) {
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(CSV)) return new Csv();
+        return new Ndjson(objectMapper);
+    }
+
+    private static List<String> splitGenres(String genres) {
+        if (genres == null || genres.isBlank()) return List.of();
+        return Arrays.stream(genres.split("\\|")).map(String::trim).filter(g -> !g.isEmpty()).toList();
+    }
+
+    private static int parseLength(String length) {
+        try {
+            return Integer.parseInt(length.trim());
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new IllegalArgumentException("Length must be a number.");
+        }
+    }
+
+    final class Ndjson implements RowParser {
+
+        private final ObjectMapper objectMapper;
+
+        Ndjson(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public ImportRow parse(long line, String text) {
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+            }
+            if (!node.isObject()) throw new IllegalArgumentException("Expected a JSON object.");
+
+            JsonNode artist = node.path("artist");
+            String artistName = artist.isObject() ? artist.path("name").asText(null) : artist.asText(null);
+            JsonNode length = node.path("length");
+            if (!length.canConvertToInt()) throw new IllegalArgumentException("Length must be a number.");
+
+            JsonNode genres = node.path("genres");
+            List<String> genreList = new ArrayList<>();
+            if (genres.isArray()) genres.forEach(g -> { if (!g.asText().isBlank()) genreList.add(g.asText().trim()); });
+            else genreList.addAll(splitGenres(genres.asText(null)));
+
+            return new ImportRow(line, node.path("title").asText(null), artistName, length.asInt(), genreList);
+        }
+    }
+
+    final class Csv implements RowParser {
+
+        private Map<String, Integer> columns;
+
+        @Override
+        public ImportRow parse(long line, String text) {
+            List<String> fields = fields(text);
+            if (columns == null) {
+                columns = new HashMap<>();
+                for (int i = 0; i < fields.size(); i++) columns.put(fields.get(i).trim().toLowerCase(Locale.ROOT), i);
+                for (String required : List.of("title", "artist", "length"))
+                    if (!columns.containsKey(required)) throw new IllegalArgumentException("CSV header is missing column '" + required + "'.");
+                return null;
+            }
+            return new ImportRow(line, field(fields, "title"), field(fields, "artist"),
+                    parseLength(field(fields, "length")), splitGenres(field(fields, "genres")));
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            return index == null || index >= fields.size() ? null : fields.get(index);
+        }
+
+        // 🔹 RFC 4180 innerhalb einer Zeile: "…" umschließt Kommas, "" ist ein Anführungszeichen
+        static List<String> fields(String text) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') { current.append('"'); i++; }
+                    else if (c == '"') quoted = false;
+                    else current.append(c);
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            if (quoted) throw new IllegalArgumentException("Unterminated quote.");
+            fields.add(current.toString());
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package at.yousong.yousong_api.song.bulk;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@code GET /api/songs/export?format=ndjson|csv&since=2026-01-01T00:00:00Z} – ganzer Katalog oder nur
+ * seit {@code since} geänderte Songs, gestreamt über {@link SongExporter}. Mit {@code Accept-Encoding: gzip}
+ * wird beim Schreiben komprimiert.
+ */
+@RestController
+@RequestMapping("/api/songs/export")
+@CrossOrigin(origins = "*")
+public class SongExportController {
+
+    private final SongExporter exporter;
+
+    public SongExportController(SongExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean csv = switch (format.toLowerCase(Locale.ROOT)) {
+            case "ndjson" -> false;
+            case "csv" -> true;
+            default -> throw new IllegalArgumentException("Format must be 'ndjson' or 'csv'.");
+        };
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            if (!gzip) {
+                exporter.export(out, csv, since);
+                return;
+            }
+            // 🔹 syncFlush: jedes Fenster geht komprimiert sofort raus statt erst am Ende
+            GZIPOutputStream zipped = new GZIPOutputStream(out, 64 * 1024, true);
+            exporter.export(zipped, csv, since);
+            zipped.finish();
+        };
+
+        var response = ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.parseMediaType(RowParser.NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"songs." + (csv ? "csv" : "ndjson") + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return response.body(body);
+    }
+}
@@ -0,0 +1,105 @@
+package at.yousong.yousong_api.song.bulk;
+
+import at.yousong.yousong_api.genre.GenreDictionary;
+import at.yousong.yousong_api.song.SongExportRow;
+import at.yousong.yousong_api.song.SongRepository;
+import at.yousong.yousong_api.song.dto.ArtistRefDto;
+import at.yousong.yousong_api.song.dto.SongExportDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Exportiert den ganzen Katalog (oder alles seit {@code since}) als NDJSON oder CSV mit konstantem Speicherbedarf:
+ * Zeilen kommen vorwärts aus {@link SongRepository#streamForExport}, werden in Fenstern von {@value #WINDOW}
+ * gesammelt, um die Genres gebündelt nachzuladen, und danach geschrieben und geflusht.
+ * Das Format passt zum Bulk-Import ({@link RowParser}): ein Export lässt sich direkt wieder importieren.
+ */
+@Component
+public class SongExporter {
+
+    static final int WINDOW = 1_000;
+    static final String CSV_HEADER = "id,title,artist,length,genres,version,modified_at";
+
+    private final SongRepository songRepository;
+    private final GenreDictionary genreDictionary;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectMapper objectMapper;
+
+    public SongExporter(SongRepository songRepository, GenreDictionary genreDictionary,
+                        PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.songRepository = songRepository;
+        this.genreDictionary = genreDictionary;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /** Schreibt alle Songs nach {@code out}; {@code csv = false} → NDJSON. Liefert die Anzahl der Zeilen. */
+    public long export(OutputStream out, boolean csv, Instant since) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (csv) writer.write(CSV_HEADER + "\n");
+        try {
+            Long count = readOnlyTx.execute(status -> {
+                long written = 0;
+                List<SongExportRow> window = new ArrayList<>(WINDOW);
+                // Stream nur innerhalb der Transaktion gültig, danach sofort schließen (Cursor freigeben)
+                try (Stream<SongExportRow> rows = songRepository.streamForExport(since)) {
+                    Iterator<SongExportRow> it = rows.iterator();
+                    while (it.hasNext()) {
+                        window.add(it.next());
+                        if (window.size() == WINDOW || !it.hasNext()) {
+                            written += writeWindow(writer, window, csv);
+                            window.clear();
+                        }
+                    }
+                }
+                return written;
+            });
+            writer.flush();
+            return count;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long writeWindow(Writer writer, List<SongExportRow> window, boolean csv) {
+        Map<Long, List<String>> genres = new HashMap<>(window.size() * 2);
+        songRepository.findGenresBySongIdIn(window.stream().map(SongExportRow::id).toList())
+                .forEach(g -> genres.computeIfAbsent(g.songId(), k -> new ArrayList<>(2)).add(genreDictionary.name(g.genreId())));
+        try {
+            for (SongExportRow r : window) {
+                SongExportDto dto = new SongExportDto(r.id(), r.title(), r.length(), new ArtistRefDto(r.artistId(), r.artistName()),
+                        genres.getOrDefault(r.id(), List.of()), r.version(), r.modifiedAt());
+                writer.write(csv ? csvLine(dto) : objectMapper.writeValueAsString(dto));
+                writer.write('\n');
+            }
+            // pro Fenster an den Client weitergeben (bei gzip per Sync-Flush)
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return window.size();
+    }
+
+    private static String csvLine(SongExportDto dto) {
+        return String.join(",", String.valueOf(dto.id), csv(dto.title), csv(dto.artist.name), String.valueOf(dto.length),
+                csv(String.join("|", dto.genres)), String.valueOf(dto.version),
+                dto.modifiedAt == null ? "" : dto.modifiedAt.toString());
+    }
+
+    // 🔹 RFC 4180: Felder mit Komma oder Anführungszeichen in "…", "" für ein Anführungszeichen
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0)
+            return value;
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
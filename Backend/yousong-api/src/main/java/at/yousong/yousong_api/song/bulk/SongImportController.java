@@ -0,0 +1,53 @@
+package at.yousong.yousong_api.song.bulk;
+
+import at.yousong.yousong_api.user.Benutzer;
+import at.yousong.yousong_api.user.BenutzerRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@code POST /api/songs/import} – Songs als NDJSON ({@code application/x-ndjson}) oder CSV ({@code text/csv}).
+ * Der Body wird gestreamt verarbeitet; Antwort ist ein Report mit Anzahl und Fehlern je Zeile.
+ * Importierte Songs gehören dem angemeldeten Benutzer.
+ */
+@RestController
+@RequestMapping("/api/songs/import")
+@CrossOrigin(origins = "*")
+public class SongImportController {
+
+    private final SongImporter importer;
+    private final BenutzerRepository benutzerRepository;
+
+    public SongImportController(SongImporter importer, BenutzerRepository benutzerRepository) {
+        this.importer = importer;
+        this.benutzerRepository = benutzerRepository;
+    }
+
+    @PostMapping(consumes = {RowParser.NDJSON, RowParser.CSV})
+    public ResponseEntity<?> importSongs(HttpServletRequest request) throws IOException {
+        Benutzer current = getCurrentUser();
+        if (current == null)
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Please login to import songs.");
+
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            return ResponseEntity.ok(importer.importSongs(in, request.getContentType(), current.getId()));
+        }
+    }
+
+    // 🔹 Aktueller Benutzer aus SecurityContext
+    private Benutzer getCurrentUser() {
+        var auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) return null;
+        String username = auth.getName();
+        if (username == null || "anonymousUser".equals(username)) return null;
+        return benutzerRepository.findByUsername(username).orElse(null);
+    }
+}
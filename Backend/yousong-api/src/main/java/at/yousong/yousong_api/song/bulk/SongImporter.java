@@ -0,0 +1,212 @@
+package at.yousong.yousong_api.song.bulk;
+
+import at.yousong.yousong_api.cache.ReadCache;
+import at.yousong.yousong_api.db.IdSequences;
+import at.yousong.yousong_api.genre.GenreDictionary;
+import at.yousong.yousong_api.metrics.YousongMetrics;
+import at.yousong.yousong_api.song.dto.ImportReportDto;
+import at.yousong.yousong_api.song.search.SongSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Bulk-Import von Songs per JDBC-Batch statt einem {@code POST /api/songs} pro Song.
+ * <ul>
+ *   <li>liest zeilenweise (NDJSON oder CSV, siehe {@link RowParser}) – der Speicherbedarf hängt nur von der Chunk-Größe ab</li>
+ *   <li>Artists werden über den Namen (ohne Groß-/Kleinschreibung) gebündelt aufgelöst, fehlende in einem Batch angelegt</li>
+ *   <li>IDs kommen aus {@link IdSequences} (ein Sequenzaufruf je 50 Zeilen), Songs und {@code song_genre} per Batch-Insert;
+ *       Genres über das {@link GenreDictionary}, dessen Song-Zähler pro Chunk einmal angepasst werden</li>
+ *   <li>jeder Chunk ist eine eigene Transaktion; ungültige Zeilen und zurückgerollte Chunks landen mit Zeilennummer im Report</li>
+ * </ul>
+ * Die Inserts laufen an den Entity-Listenern vorbei: nach jedem Chunk wird der Read-Cache geleert
+ * und der Suchindex um genau die importierten Songs ergänzt (kein Neuaufbau des ganzen Index).
+ */
+@Component
+public class SongImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(SongImporter.class);
+    private static final int IN_LIST = 1_000;
+
+    private record ChunkResult(Map<String, Long> artists, int artistsCreated, long[] songIds) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final TransactionTemplate tx;
+    private final IdSequences sequences;
+    private final GenreDictionary genreDictionary;
+    private final ReadCache readCache;
+    private final SongSearchIndex searchIndex;
+    private final YousongMetrics metrics;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public SongImporter(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbc, TransactionTemplate tx,
+                        IdSequences sequences, GenreDictionary genreDictionary, ReadCache readCache,
+                        SongSearchIndex searchIndex, YousongMetrics metrics,
+                        ObjectMapper objectMapper,
+                        @Value("${yousong.import.chunk-size:1000}") int chunkSize,
+                        @Value("${yousong.import.max-errors:1000}") int maxErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbc = namedJdbc;
+        this.tx = tx;
+        this.sequences = sequences;
+        this.genreDictionary = genreDictionary;
+        this.readCache = readCache;
+        this.searchIndex = searchIndex;
+        this.metrics = metrics;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    public ImportReportDto importSongs(BufferedReader in, String contentType, long ownerId) throws IOException {
+        long start = System.nanoTime();
+        ImportReportDto report = new ImportReportDto();
+        RowParser parser = RowParser.forContentType(contentType, objectMapper);
+        // Artist-Name (klein) → ID, über alle Chunks; nur committete Artists
+        Map<String, Long> artistIds = new HashMap<>();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        String text;
+        long line = 0;
+        while ((text = in.readLine()) != null) {
+            line++;
+            if (text.isBlank()) continue;
+            try {
+                ImportRow row = parser.parse(line, text);
+                if (row == null) continue;
+                validate(row);
+                chunk.add(row);
+            } catch (IllegalArgumentException e) {
+                fail(report, line, e.getMessage());
+                continue;
+            }
+            if (chunk.size() == chunkSize) {
+                writeChunk(chunk, ownerId, artistIds, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) writeChunk(chunk, ownerId, artistIds, report);
+
+        report.millis = (System.nanoTime() - start) / 1_000_000;
+        metrics.importRows("imported", report.imported);
+        metrics.importRows("failed", report.failed);
+        log.info("Imported {} songs ({} failed, {} new artists) in {} ms",
+                report.imported, report.failed, report.artistsCreated, report.millis);
+        return report;
+    }
+
+    // 🔹 Gleiche Regeln wie die Bean-Validation auf Song/Artist
+    private static void validate(ImportRow row) {
+        if (row.title() == null || row.title().isBlank()) throw new IllegalArgumentException("Title must not be blank.");
+        if (row.title().length() > 200) throw new IllegalArgumentException("Title must be at most 200 characters.");
+        if (row.artist() == null || row.artist().isBlank()) throw new IllegalArgumentException("Artist is required.");
+        if (row.artist().trim().length() > 200) throw new IllegalArgumentException("Name must be at most 200 characters.");
+        if (row.length() < 1) throw new IllegalArgumentException("Length must be at least 1 second.");
+        for (String genre : row.genres())
+            if (genre.length() > GenreDictionary.MAX_LENGTH)
+                throw new IllegalArgumentException("Genre must be at most " + GenreDictionary.MAX_LENGTH + " characters.");
+    }
+
+    private void writeChunk(List<ImportRow> rows, long ownerId, Map<String, Long> artistIds, ImportReportDto report) {
+        try {
+            ChunkResult result = tx.execute(status -> insertChunk(rows, ownerId, artistIds));
+            artistIds.putAll(result.artists());
+            report.imported += rows.size();
+            report.artistsCreated += result.artistsCreated();
+            report.chunks++;
+            readCache.clear();
+            searchIndex.refreshSongs(Arrays.stream(result.songIds()).boxed().toList());
+        } catch (DataAccessException | TransactionException e) {
+            String message = "Chunk rolled back: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            for (ImportRow row : rows) fail(report, row.line(), message);
+        }
+    }
+
+    private ChunkResult insertChunk(List<ImportRow> rows, long ownerId, Map<String, Long> known) {
+        Map<String, Long> resolved = new HashMap<>();
+        int created = resolveArtists(rows, known, resolved);
+
+        long[] songIds = sequences.allocate(IdSequences.SONG, rows.size());
+        List<Object[]> songArgs = new ArrayList<>(rows.size());
+        List<Object[]> genreArgs = new ArrayList<>(rows.size() * 2);
+        // Genre-Schlüssel → ID (einmal je Chunk nachgeschlagen) und Song-Zähler je Genre
+        Map<String, Integer> genreIds = new HashMap<>();
+        Map<Integer, Integer> genreCounts = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRow row = rows.get(i);
+            String key = key(row.artist());
+            Long artistId = known.containsKey(key) ? known.get(key) : resolved.get(key);
+            songArgs.add(new Object[]{songIds[i], row.title().trim(), row.length(), artistId, ownerId});
+            Set<Integer> songGenres = new LinkedHashSet<>();
+            for (String genre : row.genres())
+                songGenres.add(genreIds.computeIfAbsent(GenreDictionary.normalize(genre), k -> genreDictionary.resolve(genre)));
+            int position = 0;
+            for (Integer genreId : songGenres) {
+                genreArgs.add(new Object[]{songIds[i], position++, genreId});
+                genreCounts.merge(genreId, 1, Integer::sum);
+            }
+        }
+        jdbcTemplate.batchUpdate("""
+                insert into song (id, title, length, artist_id, owner_id, version, modified_at)
+                values (?, ?, ?, ?, ?, 0, current_timestamp)""", songArgs);
+        if (!genreArgs.isEmpty())
+            jdbcTemplate.batchUpdate("insert into song_genre (song_id, position, genre_id) values (?, ?, ?)", genreArgs);
+        genreDictionary.adjustCounts(genreCounts);
+        return new ChunkResult(resolved, created, songIds);
+    }
+
+    // 🔹 Unbekannte Namen gebündelt per IN nachschlagen, den Rest in einem Batch anlegen
+    private int resolveArtists(List<ImportRow> rows, Map<String, Long> known, Map<String, Long> resolved) {
+        Map<String, String> missing = new LinkedHashMap<>();
+        for (ImportRow row : rows) {
+            String key = key(row.artist());
+            if (!known.containsKey(key)) missing.putIfAbsent(key, row.artist().trim());
+        }
+        if (missing.isEmpty()) return 0;
+
+        List<String> keys = new ArrayList<>(missing.keySet());
+        for (int i = 0; i < keys.size(); i += IN_LIST) {
+            namedJdbc.query("select id, name from artist where name_key in (:names)",
+                    Map.of("names", keys.subList(i, Math.min(i + IN_LIST, keys.size()))),
+                    (RowCallbackHandler) rs -> resolved.put(key(rs.getString(2)), rs.getLong(1)));
+        }
+        missing.keySet().removeAll(resolved.keySet());
+        if (missing.isEmpty()) return 0;
+
+        long[] ids = sequences.allocate(IdSequences.ARTIST, missing.size());
+        List<Object[]> args = new ArrayList<>(missing.size());
+        int i = 0;
+        for (Map.Entry<String, String> artist : missing.entrySet()) {
+            resolved.put(artist.getKey(), ids[i]);
+            args.add(new Object[]{ids[i++], artist.getValue()});
+        }
+        jdbcTemplate.batchUpdate("insert into artist (id, name) values (?, ?)", args);
+        return args.size();
+    }
+
+    private void fail(ImportReportDto report, long line, String message) {
+        report.failed++;
+        if (report.errors.size() < maxErrors) report.errors.add(new ImportReportDto.RowError(line, message));
+        else report.errorsTruncated = true;
+    }
+
+    private static String key(String artist) {
+        return artist.trim().toLowerCase(Locale.ROOT);
+    }
+}
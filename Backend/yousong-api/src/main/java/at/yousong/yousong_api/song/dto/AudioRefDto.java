@@ -0,0 +1,36 @@
+package at.yousong.yousong_api.song.dto;
+
+import at.yousong.yousong_api.audio.AudioBlob;
+
+import java.util.Locale;
+
+public class AudioRefDto {
+    public String url;
+    public String hash;
+    public String contentType;
+    public Long size;
+    // 🔹 Ergebnis der Audio-Ingestion (null bei Legacy-Audio): processing, ready, failed, skipped
+    public String status;
+    public Long durationMillis;
+    public Integer bitrateKbps;
+    public Integer sampleRate;
+    public String error;
+
+    public AudioRefDto(String url, String hash, String contentType, Long size) {
+        this.url = url; this.hash = hash; this.contentType = contentType; this.size = size;
+    }
+
+    public static AudioRefDto of(String url, AudioBlob blob) {
+        AudioRefDto dto = new AudioRefDto(url, blob.getHash(), blob.getContentType(), blob.getSize());
+        dto.status = status(blob.getStatus());
+        dto.durationMillis = blob.getDurationMillis();
+        dto.bitrateKbps = blob.getBitrateKbps();
+        dto.sampleRate = blob.getSampleRate();
+        dto.error = blob.getError();
+        return dto;
+    }
+
+    public static String status(AudioBlob.Status status) {
+        return status == null ? null : status.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,22 @@
+package at.yousong.yousong_api.song.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+public class CursorSliceDto<T> {
+    public List<T> content;
+    public int size;
+    public boolean hasNext;
+    public String nextCursor;
+    // Nur auf Wunsch (?total=true) und ohne eigene count-Abfrage, kann kurzzeitig hinterherhinken
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Long approximateTotal;
+    // Nur mit ?facets=true
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public FacetsDto facets;
+    public CursorSliceDto(List<T> content, String nextCursor, Long approximateTotal) {
+        this.content = content; this.size = content.size(); this.hasNext = nextCursor != null;
+        this.nextCursor = nextCursor; this.approximateTotal = approximateTotal;
+    }
+}
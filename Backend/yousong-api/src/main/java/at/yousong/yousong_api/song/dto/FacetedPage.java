@@ -0,0 +1,21 @@
+package at.yousong.yousong_api.song.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+/** Katalogseite wie bisher, bei {@code facets=true} zusätzlich mit Facetten-Zählern. */
+public class FacetedPage<T> extends PageImpl<T> {
+
+    private final FacetsDto facets;
+
+    public FacetedPage(Page<T> page, FacetsDto facets) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.facets = facets;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public FacetsDto getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,33 @@
+package at.yousong.yousong_api.song.dto;
+
+import java.util.List;
+
+/** Facetten-Zähler zur aktuellen Treffermenge (alle Seiten, nicht nur die geladene). */
+public class FacetsDto {
+    public List<Count> genres;
+    public List<Count> artists;
+    public List<LengthBucket> lengths;
+
+    public FacetsDto(List<Count> genres, List<Count> artists, List<LengthBucket> lengths) {
+        this.genres = genres; this.artists = artists; this.lengths = lengths;
+    }
+
+    public static class Count {
+        public long id;
+        public String name;
+        public long count;
+        public Count(long id, String name, long count) {
+            this.id = id; this.name = name; this.count = count;
+        }
+    }
+
+    // Bereich in Sekunden, beide Grenzen inklusive (passt direkt zu minLength/maxLength); maxLength null = offen
+    public static class LengthBucket {
+        public int minLength;
+        public Integer maxLength;
+        public long count;
+        public LengthBucket(int minLength, Integer maxLength, long count) {
+            this.minLength = minLength; this.maxLength = maxLength; this.count = count;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package at.yousong.yousong_api.song.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportReportDto {
+    public long imported;
+    public long failed;
+    public int artistsCreated;
+    public int chunks;
+    public long millis;
+    // Höchstens yousong.import.max-errors Einträge; errorsTruncated = es gab mehr
+    public List<RowError> errors = new ArrayList<>();
+    public boolean errorsTruncated;
+
+    public static class RowError {
+        public long line;
+        public String message;
+        public RowError(long line, String message) {
+            this.line = line; this.message = message;
+        }
+    }
+}
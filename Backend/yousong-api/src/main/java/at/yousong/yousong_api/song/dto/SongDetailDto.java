@@ -1,5 +1,9 @@
 package at.yousong.yousong_api.song.dto;
 
+import at.yousong.yousong_api.artist.Artist;
+import at.yousong.yousong_api.song.Song;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
 public class SongDetailDto {
@@ -9,9 +13,20 @@ public class SongDetailDto {
     public int length;
     public Long version;
     public ArtistRefDto artist;
+    public AudioRefDto audio;
+
+    // Nur mit ?includeMusicData=true (Kompatibilität für alte Clients)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public String musicData;
 
-    public SongDetailDto(Long id, String title, List<String> genres, int length, Long version, ArtistRefDto artist, String musicData) {
-        this.id = id; this.title = title; this.genres = genres; this.length = length; this.version = version; this.artist = artist; this.musicData = musicData;
+    public SongDetailDto(Long id, String title, List<String> genres, int length, Long version, ArtistRefDto artist, AudioRefDto audio) {
+        this.id = id; this.title = title; this.genres = genres; this.length = length; this.version = version; this.artist = artist; this.audio = audio;
+    }
+
+    // 🔹 Mapper Song → DTO (Genre-Namen und Audio-Referenz bestimmt der Aufrufer)
+    public static SongDetailDto of(Song s, List<String> genres, AudioRefDto audio) {
+        Artist a = s.getArtist();
+        return new SongDetailDto(s.getId(), s.getTitle(), genres, s.getLength(), s.getVersion(),
+                new ArtistRefDto(a.getId(), a.getName()), audio);
     }
 }
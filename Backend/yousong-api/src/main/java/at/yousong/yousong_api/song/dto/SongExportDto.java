@@ -0,0 +1,18 @@
+package at.yousong.yousong_api.song.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public class SongExportDto {
+    public Long id;
+    public String title;
+    public int length;
+    public ArtistRefDto artist;
+    public List<String> genres;
+    public Long version;
+    public Instant modifiedAt;
+    public SongExportDto(Long id, String title, int length, ArtistRefDto artist, List<String> genres, Long version, Instant modifiedAt) {
+        this.id = id; this.title = title; this.length = length; this.artist = artist; this.genres = genres;
+        this.version = version; this.modifiedAt = modifiedAt;
+    }
+}
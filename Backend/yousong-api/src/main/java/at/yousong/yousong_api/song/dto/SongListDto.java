@@ -0,0 +1,14 @@
+package at.yousong.yousong_api.song.dto;
+
+import java.util.List;
+
+public class SongListDto {
+    public Long id;
+    public String title;
+    public int length;
+    public ArtistRefDto artist;
+    public List<String> genres;
+    public SongListDto(Long id, String title, int length, ArtistRefDto artist, List<String> genres) {
+        this.id = id; this.title = title; this.length = length; this.artist = artist; this.genres = genres;
+    }
+}
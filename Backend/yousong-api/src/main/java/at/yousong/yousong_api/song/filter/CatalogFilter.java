@@ -0,0 +1,54 @@
+package at.yousong.yousong_api.song.filter;
+
+import java.util.List;
+
+/**
+ * Strukturierte Filter für {@code /api/songs/catalog} als Query-Parameter:
+ * {@code genre} und {@code artist} (IDs, wiederholt oder kommagetrennt), {@code minLength}/{@code maxLength}
+ * (Sekunden), {@code owner=me}, {@code sort} ({@link CatalogSort}) und {@code facets=true} für Facetten-Zähler.
+ */
+public record CatalogFilter(List<Integer> genre, List<Long> artist, Integer minLength, Integer maxLength,
+                            String owner, String sort, Boolean facets) {
+
+    public static final CatalogFilter NONE = new CatalogFilter(null, null, null, null, null, null, null);
+    static final int MAX_IDS = 50;
+
+    /** Ohne Filter, Sortierung und Facetten: der bisherige Katalog (Suchindex, Keyset über die ID). */
+    public boolean isEmpty() {
+        return isEmpty(genre) && isEmpty(artist) && minLength == null && maxLength == null && owner == null
+                && CatalogSort.parse(sort) == CatalogSort.ID && !wantsFacets();
+    }
+
+    public boolean wantsFacets() {
+        return Boolean.TRUE.equals(facets);
+    }
+
+    public boolean ownedByCurrentUser() {
+        if (owner == null || owner.isBlank()) return false;
+        if (!"me".equalsIgnoreCase(owner.trim())) throw new IllegalArgumentException("Owner filter supports only owner=me.");
+        return true;
+    }
+
+    // 🔹 Prüfen und mit Suchtext und Besitzer-ID zum CatalogQuery auflösen
+    public CatalogQuery toQuery(String text, Long ownerId) {
+        if (size(genre) > MAX_IDS || size(artist) > MAX_IDS)
+            throw new IllegalArgumentException("At most " + MAX_IDS + " genre and artist ids per filter.");
+        if ((minLength != null && minLength < 0) || (maxLength != null && maxLength < 0))
+            throw new IllegalArgumentException("Length filter must not be negative.");
+        if (minLength != null && maxLength != null && minLength > maxLength)
+            throw new IllegalArgumentException("minLength must not be greater than maxLength.");
+        return new CatalogQuery(text, ids(genre), ids(artist), minLength, maxLength, ownerId, CatalogSort.parse(sort));
+    }
+
+    private static <T extends Comparable<T>> List<T> ids(List<T> ids) {
+        return ids == null ? List.of() : ids.stream().filter(java.util.Objects::nonNull).distinct().sorted().toList();
+    }
+
+    private static boolean isEmpty(List<?> list) {
+        return list == null || list.isEmpty();
+    }
+
+    private static int size(List<?> list) {
+        return list == null ? 0 : list.size();
+    }
+}
@@ -0,0 +1,18 @@
+package at.yousong.yousong_api.song.filter;
+
+import java.util.List;
+
+/**
+ * Aufgelöster Katalogfilter: Suchtext, Genre- und Artist-IDs (jeweils "eine davon"), Längenbereich in Sekunden
+ * (inklusive), Besitzer. Leere Listen und {@code null} bedeuten "kein Filter".
+ */
+public record CatalogQuery(String text, List<Integer> genreIds, List<Long> artistIds, Integer minLength, Integer maxLength,
+                           Long ownerId, CatalogSort sort) {
+
+    // 🔹 Cache-Schlüssel: enthält die Besitzer-ID, "owner=me" ist pro Benutzer eine andere Seite
+    public String cacheKey() {
+        return "q=" + (text == null ? "" : text.toLowerCase(java.util.Locale.ROOT))
+                + ";g=" + genreIds + ";a=" + artistIds + ";len=" + minLength + "-" + maxLength
+                + ";o=" + ownerId + ";s=" + sort;
+    }
+}
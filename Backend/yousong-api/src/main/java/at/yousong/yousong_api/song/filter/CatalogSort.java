@@ -0,0 +1,31 @@
+package at.yousong.yousong_api.song.filter;
+
+import java.util.Locale;
+
+/** Sortierungen des Katalogs; jede endet auf der ID, damit Seiten stabil bleiben (Indizes siehe {@code Song}). */
+public enum CatalogSort {
+    ID("s.id"),
+    TITLE("s.title, s.id"),
+    LENGTH("s.length, s.id"),
+    // IDs kommen aufsteigend aus der Sequenz → höchste ID = zuletzt angelegt
+    NEWEST("s.id desc");
+
+    private final String orderBy;
+
+    CatalogSort(String orderBy) {
+        this.orderBy = orderBy;
+    }
+
+    public String orderBy() {
+        return orderBy;
+    }
+
+    public static CatalogSort parse(String sort) {
+        if (sort == null || sort.isBlank()) return ID;
+        try {
+            return valueOf(sort.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Sort must be one of id, title, length, newest.");
+        }
+    }
+}
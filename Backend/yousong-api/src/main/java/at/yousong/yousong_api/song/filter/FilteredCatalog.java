@@ -0,0 +1,206 @@
+package at.yousong.yousong_api.song.filter;
+
+import at.yousong.yousong_api.genre.GenreDictionary;
+import at.yousong.yousong_api.genre.GenreRepository;
+import at.yousong.yousong_api.song.SongRow;
+import at.yousong.yousong_api.song.dto.FacetsDto;
+import at.yousong.yousong_api.song.search.SongSearchIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Gefilterter Katalog per SQL: Bedingungen werden nur für gesetzte Filter angehängt, jede passt zu einem
+ * zusammengesetzten Index (siehe {@code Song}):
+ * <ul>
+ *   <li>Genre: {@code exists} über {@code song_genre (genre_id, song_id)}</li>
+ *   <li>Artist + Länge: {@code song (artist_id, length)}, Besitzer: {@code song (owner_id, id)},
+ *       Längenbereich allein: {@code song (length, id)}</li>
+ *   <li>Suchtext: alle Treffer-IDs aus dem Suchindex als ein Array-Parameter (Primärschlüssel), nur solange der
+ *       Index noch aufgebaut wird {@code like} mit maskierten Platzhaltern</li>
+ * </ul>
+ * Facetten: drei {@code group by} über dieselbe Bedingung (Genres, Artists, Längenbereiche), unabhängig von der
+ * Treffermenge also immer drei Abfragen. Ohne jeden Filter kommen die Genre-Zähler aus {@code genre.song_count}.
+ */
+@Component
+public class FilteredCatalog {
+
+    /** Grenzen der Längen-Facette in Sekunden: unter 2 min, 2–3 min, 3–5 min, ab 5 min. */
+    static final int[] LENGTH_BOUNDS = {120, 180, 300};
+
+    // left join wie SongRepository.ROW: Song zuerst, Artist per Primärschlüssel (H2 behält die Reihenfolge bei)
+    private static final String FROM = " from song s left join artist a on a.id = s.artist_id";
+    private static final RowMapper<SongRow> ROW = (rs, n) ->
+            new SongRow(rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getLong(4), rs.getString(5));
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final GenreDictionary genres;
+    private final GenreRepository genreRepository;
+    private final SongSearchIndex searchIndex;
+    private final int facetLimit;
+
+    public FilteredCatalog(NamedParameterJdbcTemplate jdbc, GenreDictionary genres, GenreRepository genreRepository,
+                           SongSearchIndex searchIndex,
+                           @Value("${yousong.catalog.facet-limit:20}") int facetLimit) {
+        this.jdbc = jdbc;
+        this.genres = genres;
+        this.genreRepository = genreRepository;
+        this.searchIndex = searchIndex;
+        this.facetLimit = facetLimit;
+    }
+
+    // 🔹 Seite per LIMIT/OFFSET; count nur, wenn die Gesamtzahl nicht schon aus der Seite folgt
+    public Page<SongRow> page(CatalogQuery query, Pageable pageable) {
+        Where where = where(query);
+        MapSqlParameterSource params = where.params()
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset());
+        List<SongRow> rows = jdbc.query(select(where) + " order by " + query.sort().orderBy()
+                + " limit :limit offset :offset", params, ROW);
+        return PageableExecutionUtils.getPage(rows, pageable, () -> count(where));
+    }
+
+    // 🔹 Keyset: nächste Zeilen nach der ID (nur Sortierung nach ID, der Cursor kennt nur sie)
+    public List<SongRow> after(CatalogQuery query, long afterId, int limit) {
+        if (query.sort() != CatalogSort.ID)
+            throw new IllegalArgumentException("Cursor paging supports only sort=id; use page-based paging for other sorts.");
+        Where where = where(query).and("s.id > :after", "after", afterId);
+        return jdbc.query(select(where) + " order by s.id limit :limit", where.params().addValue("limit", limit), ROW);
+    }
+
+    public long count(CatalogQuery query) {
+        return count(where(query));
+    }
+
+    public FacetsDto facets(CatalogQuery query) {
+        Where where = where(query);
+        return new FacetsDto(genreFacet(where), artistFacet(where), lengthFacet(where));
+    }
+
+    private List<FacetsDto.Count> genreFacet(Where where) {
+        if (where.isEmpty())
+            return genreRepository.findInUse().stream().limit(facetLimit)
+                    .map(g -> new FacetsDto.Count(g.getId(), g.getName(), g.getSongCount()))
+                    .toList();
+        return jdbc.query("select sg.genre_id, count(*) c from song_genre sg join song s on s.id = sg.song_id"
+                        + where.joins() + where.sql() + " group by sg.genre_id order by c desc, sg.genre_id limit :facetLimit",
+                where.params().addValue("facetLimit", facetLimit),
+                (rs, n) -> new FacetsDto.Count(rs.getInt(1), genres.name(rs.getInt(1)), rs.getLong(2)));
+    }
+
+    private List<FacetsDto.Count> artistFacet(Where where) {
+        return jdbc.query("select a.id, a.name, count(*) c" + FROM + where.sql()
+                        + " group by a.id, a.name order by c desc, a.id limit :facetLimit",
+                where.params().addValue("facetLimit", facetLimit),
+                (rs, n) -> new FacetsDto.Count(rs.getLong(1), rs.getString(2), rs.getLong(3)));
+    }
+
+    // 🔹 Alle Bereiche, auch leere – die Oberfläche zeigt immer dieselben Stufen
+    private List<FacetsDto.LengthBucket> lengthFacet(Where where) {
+        StringBuilder bucket = new StringBuilder("case");
+        for (int i = 0; i < LENGTH_BOUNDS.length; i++)
+            bucket.append(" when s.length < ").append(LENGTH_BOUNDS[i]).append(" then ").append(i);
+        bucket.append(" else ").append(LENGTH_BOUNDS.length).append(" end");
+
+        long[] counts = new long[LENGTH_BOUNDS.length + 1];
+        jdbc.query("select " + bucket + " b, count(*) from song s" + where.joins() + where.sql() + " group by b",
+                where.params(), rs -> {
+                    counts[rs.getInt(1)] = rs.getLong(2);
+                });
+        List<FacetsDto.LengthBucket> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            int min = i == 0 ? 0 : LENGTH_BOUNDS[i - 1];
+            Integer max = i < LENGTH_BOUNDS.length ? LENGTH_BOUNDS[i] - 1 : null;
+            buckets.add(new FacetsDto.LengthBucket(min, max, counts[i]));
+        }
+        return buckets;
+    }
+
+    private long count(Where where) {
+        Long count = jdbc.queryForObject("select count(*) from song s" + where.joins() + where.sql(), where.params(), Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private static String select(Where where) {
+        return "select s.id, s.title, s.length, a.id, a.name" + FROM + where.sql();
+    }
+
+    // 🔹 WHERE aus den gesetzten Filtern; Artist-Join nur, wenn der Suchtext per like auch Artist-Namen prüft
+    //    (Suchindex noch nicht bereit)
+    private Where where(CatalogQuery query) {
+        Where where = new Where();
+        if (!query.genreIds().isEmpty())
+            where.and("exists (select 1 from song_genre fg where fg.song_id = s.id and fg.genre_id in (:genreIds))",
+                    "genreIds", query.genreIds());
+        if (!query.artistIds().isEmpty())
+            where.and("s.artist_id in (:artistIds)", "artistIds", query.artistIds());
+        if (query.minLength() != null)
+            where.and("s.length >= :minLength", "minLength", query.minLength());
+        if (query.maxLength() != null)
+            where.and("s.length <= :maxLength", "maxLength", query.maxLength());
+        if (query.ownerId() != null)
+            where.and("s.owner_id = :ownerId", "ownerId", query.ownerId());
+        if (query.text() != null) text(where, query.text());
+        return where;
+    }
+
+    private void text(Where where, String text) {
+        if (searchIndex.isReady()) {
+            // Ein Array-Parameter statt IN-Liste: gleiche Treffermenge wie die Suche, unabhängig von ihrer Größe
+            Long[] ids = searchIndex.matchingIds(text).toArray(Long[]::new);
+            where.and("s.id = any(:textIds)", "textIds", new SqlParameterValue(Types.ARRAY, ids));
+            return;
+        }
+        // wie SongRepository.catalogRows: Titel oder Artist enthält den Text, oder ein passendes Genre.
+        // % und _ aus der Eingabe sind normale Zeichen, wie im Suchindex
+        where.and("(lower(s.title) like :like escape '\\' or lower(a.name) like :like escape '\\'"
+                        + " or exists (select 1 from song_genre tg where tg.song_id = s.id and tg.genre_id in (:textGenreIds)))",
+                "like", "%" + escapeLike(text.toLowerCase(Locale.ROOT)) + "%");
+        where.params.addValue("textGenreIds", GenreDictionary.orNone(genres.matchingIds(text)));
+        where.joinArtist = true;
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static final class Where {
+        private final List<String> conditions = new ArrayList<>();
+        private final MapSqlParameterSource params = new MapSqlParameterSource();
+        private boolean joinArtist;
+
+        Where and(String condition, String name, Object value) {
+            conditions.add(condition);
+            params.addValue(name, value);
+            return this;
+        }
+
+        boolean isEmpty() {
+            return conditions.isEmpty();
+        }
+
+        String sql() {
+            return conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+        }
+
+        String joins() {
+            return joinArtist ? " left join artist a on a.id = s.artist_id" : "";
+        }
+
+        // Kopie: page/facets hängen eigene Parameter an
+        MapSqlParameterSource params() {
+            return new MapSqlParameterSource(params.getValues());
+        }
+    }
+}
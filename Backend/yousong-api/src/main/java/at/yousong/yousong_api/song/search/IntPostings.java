@@ -0,0 +1,49 @@
+package at.yousong.yousong_api.song.search;
+
+import java.util.Arrays;
+
+/** Sortierte, duplikatfreie int-Liste (Posting-Liste über Index-Slots). Neue Songs bekommen meist den nächsten Slot, add() ist daher meist ein Append. */
+final class IntPostings {
+
+    private int[] ids = new int[4];
+    private int size;
+
+    int size() { return size; }
+
+    int get(int i) { return ids[i]; }
+
+    boolean add(int id) {
+        if (size > 0 && ids[size - 1] >= id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) return false;
+            insertAt(-pos - 1, id);
+            return true;
+        }
+        if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+        ids[size++] = id;
+        return true;
+    }
+
+    boolean remove(int id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) return false;
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    boolean contains(int id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    private void insertAt(int pos, int id) {
+        if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+        System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+        ids[pos] = id;
+        size++;
+    }
+}
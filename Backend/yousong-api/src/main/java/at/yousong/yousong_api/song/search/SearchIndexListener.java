@@ -0,0 +1,61 @@
+package at.yousong.yousong_api.song.search;
+
+import at.yousong.yousong_api.artist.Artist;
+import at.yousong.yousong_api.song.Song;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA-Entity-Listener für {@link Song} und {@link Artist}: hält den {@link SongSearchIndex} aktuell.
+ * Änderungen werden erst nach dem Commit übernommen, damit ein Rollback den Index nicht verfälscht.
+ */
+@Component
+public class SearchIndexListener {
+
+    private final SongSearchIndex index;
+
+    public SearchIndexListener(SongSearchIndex index) {
+        this.index = index;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Object entity) {
+        if (entity instanceof Song song) {
+            long id = song.getId();
+            afterCommit(() -> index.refreshSong(id));
+        } else if (entity instanceof Artist artist) {
+            long id = artist.getId();
+            String name = artist.getName();
+            afterCommit(() -> index.upsertArtist(id, name));
+        }
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        if (entity instanceof Song song) {
+            long id = song.getId();
+            afterCommit(() -> index.removeSong(id));
+        } else if (entity instanceof Artist artist) {
+            long id = artist.getId();
+            afterCommit(() -> index.removeArtist(id));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,394 @@
+package at.yousong.yousong_api.song.search;
+
+import at.yousong.yousong_api.genre.GenreDictionary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Component;
+
+import java.sql.Types;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-Memory-Suchindex über Titel, Artist-Name und Genres als Ersatz für {@code lower(x) like '%q%'}.
+ * <ul>
+ *   <li>Titel: invertierter Index über alle Bi- und Trigramme; Kandidaten werden per Schnittmenge gefunden
+ *       und anschließend mit {@code contains} verifiziert (gleiche Treffer wie LIKE)</li>
+ *   <li>Artists: wenige, kurze Strings – werden direkt geprüft und über ihre Song-Listen vereinigt</li>
+ *   <li>Genres: passende IDs liefert das {@link GenreDictionary}, deren Song-Listen werden vereinigt</li>
+ * </ul>
+ * Wird nach dem Start einmal im Hintergrund (Task-Executor, im Virtual-Thread-Modus ein virtueller Thread)
+ * aus der DB aufgebaut und danach von {@link SearchIndexListener} nach jedem Commit
+ * aktualisiert. Solange {@link #isReady()} false ist, sucht der Controller weiter per Repository.
+ * Intern zählen dichte int-Slots statt der Song-IDs: Posting-Listen und BitSets bleiben kompakt,
+ * und IDs jenseits von {@code Integer.MAX_VALUE} funktionieren wie alle anderen.
+ * Ein Neuaufbau liest in einen frischen {@link Snapshot} ohne Lock und tauscht ihn am Ende aus – Suchen laufen
+ * solange auf dem alten Stand weiter, und scheitert der Aufbau, bleibt der alte Stand erhalten.
+ */
+@Component
+public class SongSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SongSearchIndex.class);
+    private static final int FETCH_SIZE = 5_000;
+
+    private record Doc(long id, String title, long artistId, int[] genres) {}
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock rebuilding = new ReentrantLock();
+    // Aktueller Stand (unter lock); während eines Neuaufbaus die dabei geänderten IDs, sonst null
+    private Snapshot current = new Snapshot();
+    private Set<Long> touchedSongs;
+    private Set<Long> touchedArtists;
+    private volatile boolean ready;
+    private volatile boolean building;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GenreDictionary genreDictionary;
+    private final Executor executor;
+
+    @Autowired
+    public SongSearchIndex(JdbcTemplate jdbcTemplate, GenreDictionary genreDictionary,
+                           @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.genreDictionary = genreDictionary;
+        this.executor = executor;
+    }
+
+    SongSearchIndex(JdbcTemplate jdbcTemplate, GenreDictionary genreDictionary) {
+        this(jdbcTemplate, genreDictionary, Runnable::run);
+    }
+
+    public boolean isReady() { return ready; }
+
+    public int songCount() {
+        lock.readLock().lock();
+        try {
+            return current.slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 🔹 Start nicht blockieren: bis der Index steht, sucht der Controller per Repository
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        executor.execute(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Search index could not be built, searching via repository", e);
+            }
+        });
+    }
+
+    // 🔹 Kompletter Neuaufbau ohne Lock; Änderungen, die währenddessen committet werden, werden vor dem Tausch
+    //    noch einmal aus der DB gelesen (der Scan kann sie gesehen haben oder auch nicht)
+    public void rebuild() {
+        rebuilding.lock();
+        try {
+            long start = System.nanoTime();
+            lock.writeLock().lock();
+            try {
+                touchedSongs = new HashSet<>();
+                touchedArtists = new HashSet<>();
+                building = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Snapshot fresh;
+            try {
+                fresh = scan();
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    touchedSongs = null;
+                    touchedArtists = null;
+                    building = false;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (!touchedSongs.isEmpty()) reload(fresh, touchedSongs);
+                for (long artistId : touchedArtists) reloadArtist(fresh, artistId);
+                current = fresh;
+                touchedSongs = null;
+                touchedArtists = null;
+                building = false;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Search index built: {} songs, {} title grams in {} ms",
+                    fresh.slots.size(), fresh.titleGrams.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            rebuilding.unlock();
+        }
+    }
+
+    private Snapshot scan() {
+        Snapshot fresh = new Snapshot();
+        // eigenes Template mit Fetch-Size, damit große Kataloge gestreamt statt komplett geladen werden
+        JdbcTemplate jdbc = new JdbcTemplate(jdbcTemplate.getDataSource());
+        jdbc.setFetchSize(FETCH_SIZE);
+        jdbc.query("select id, name from artist", (RowCallbackHandler) rs ->
+                fresh.artistNames.put(rs.getLong(1), normalize(rs.getString(2))));
+
+        Map<Long, List<Integer>> genres = new HashMap<>();
+        jdbc.query("select song_id, genre_id from song_genre", (RowCallbackHandler) rs ->
+                genres.computeIfAbsent(rs.getLong(1), k -> new ArrayList<>(2)).add(rs.getInt(2)));
+
+        // nach ID: Slots steigen dann mit der ID, neue Songs werden angehängt
+        jdbc.query("select id, title, artist_id from song order by id", (RowCallbackHandler) rs -> {
+            long id = rs.getLong(1);
+            fresh.putSong(id, rs.getString(2), rs.getLong(3), genres.getOrDefault(id, List.of()));
+        });
+        return fresh;
+    }
+
+    // 🔹 Inkrementelle Updates (nach Commit); während eines Neuaufbaus werden die IDs zusätzlich vorgemerkt.
+    /** Liest den committeten Stand des Songs neu ein – unter dem Write-Lock, damit parallele Updates sich nicht überholen. */
+    public void refreshSong(long id) {
+        refreshSongs(List.of(id));
+    }
+
+    /** Wie {@link #refreshSong}, für viele Songs mit je einer Abfrage (Bulk-Import); Artist-Namen kommen mit. */
+    public void refreshSongs(Collection<Long> ids) {
+        if (ids.isEmpty() || !accepting()) return;
+        lock.writeLock().lock();
+        try {
+            if (touchedSongs != null) touchedSongs.addAll(ids);
+            reload(current, ids);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeSong(long id) {
+        if (!accepting()) return;
+        lock.writeLock().lock();
+        try {
+            if (touchedSongs != null) touchedSongs.add(id);
+            current.removeSong(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsertArtist(long id, String name) {
+        if (!accepting()) return;
+        lock.writeLock().lock();
+        try {
+            if (touchedArtists != null) touchedArtists.add(id);
+            current.artistNames.put(id, normalize(name));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeArtist(long id) {
+        if (!accepting()) return;
+        lock.writeLock().lock();
+        try {
+            if (touchedArtists != null) touchedArtists.add(id);
+            current.artistNames.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Alle Treffer aufsteigend nach ID (für Paging im Katalog). */
+    public List<Long> matchingIds(String query) {
+        String q = normalize(query);
+        List<Integer> genreIds = genreDictionary.matchingIds(query);
+        lock.readLock().lock();
+        try {
+            Snapshot index = current;
+            BitSet hits = new BitSet();
+            index.titleMatches(q).forEach(hits::set);
+            index.artistMatches(q, hits);
+            index.genreMatches(genreIds, hits);
+            return hits.stream().mapToLong(slot -> index.docs.get(slot).id()).sorted().boxed().toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Alle Treffer nach Relevanz: Titel-Anfang > Wortanfang im Titel > Titel enthält > Artist > Genre. */
+    public List<Long> search(String query) {
+        String q = normalize(query);
+        List<Integer> genreIds = genreDictionary.matchingIds(query);
+        lock.readLock().lock();
+        try {
+            Snapshot index = current;
+            Map<Integer, Integer> scores = new HashMap<>();
+            for (int slot : index.titleMatches(q)) {
+                String title = index.docs.get(slot).title();
+                int score = title.startsWith(q) ? 8 : title.contains(" " + q) ? 6 : 4;
+                scores.merge(slot, score, Integer::sum);
+            }
+            BitSet artistHits = new BitSet();
+            index.artistMatches(q, artistHits);
+            artistHits.stream().forEach(slot -> scores.merge(slot, 2, Integer::sum));
+            BitSet genreHits = new BitSet();
+            index.genreMatches(genreIds, genreHits);
+            genreHits.stream().forEach(slot -> scores.merge(slot, 1, Integer::sum));
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                            .thenComparingLong(e -> index.docs.get(e.getKey()).id()))
+                    .map(e -> index.docs.get(e.getKey()).id())
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean accepting() {
+        return ready || building;
+    }
+
+    // 🔹 Committeten Stand der Songs (samt Artist-Namen) in einen Snapshot übernehmen; gelöschte fallen heraus
+    private void reload(Snapshot index, Collection<Long> ids) {
+        SqlParameterValue idArray = new SqlParameterValue(Types.ARRAY, ids.toArray(Long[]::new));
+        Map<Long, List<Integer>> genres = new HashMap<>();
+        jdbcTemplate.query("select song_id, genre_id from song_genre where song_id = any(?) order by song_id, position",
+                (RowCallbackHandler) rs -> genres.computeIfAbsent(rs.getLong(1), k -> new ArrayList<>(2)).add(rs.getInt(2)),
+                idArray);
+        for (long id : ids) index.removeSong(id);
+        jdbcTemplate.query("select s.id, s.title, s.artist_id, a.name from song s join artist a on a.id = s.artist_id where s.id = any(?)",
+                (RowCallbackHandler) rs -> {
+                    long id = rs.getLong(1);
+                    index.putSong(id, rs.getString(2), rs.getLong(3), genres.getOrDefault(id, List.of()));
+                    index.artistNames.put(rs.getLong(3), normalize(rs.getString(4)));
+                }, idArray);
+    }
+
+    private void reloadArtist(Snapshot index, long id) {
+        List<String> names = jdbcTemplate.queryForList("select name from artist where id = ?", String.class, id);
+        if (names.isEmpty()) index.artistNames.remove(id);
+        else index.artistNames.put(id, normalize(names.get(0)));
+    }
+
+    /** Posting-Listen und Dokumente eines Index-Stands; nur unter dem Lock bzw. vor dem Veröffentlichen ändern. */
+    private static final class Snapshot {
+        // Slot → Song (null = frei), Song-ID → Slot; freie Slots werden wiederverwendet
+        private final List<Doc> docs = new ArrayList<>();
+        private final Map<Long, Integer> slots = new HashMap<>();
+        private final Deque<Integer> freeSlots = new ArrayDeque<>();
+        // Posting-Listen enthalten Slots
+        private final Map<String, IntPostings> titleGrams = new HashMap<>();
+        private final Map<Long, String> artistNames = new HashMap<>();
+        private final Map<Long, IntPostings> songsByArtist = new HashMap<>();
+        private final Map<Integer, IntPostings> songsByGenre = new HashMap<>();
+
+        private List<Integer> titleMatches(String q) {
+            List<Integer> result = new ArrayList<>();
+            if (q.length() < 2) {
+                for (int slot = 0; slot < docs.size(); slot++) {
+                    Doc doc = docs.get(slot);
+                    if (doc != null && doc.title().contains(q)) result.add(slot);
+                }
+                return result;
+            }
+            List<IntPostings> lists = new ArrayList<>();
+            for (String gram : grams(q, q.length() == 2 ? 2 : 3)) {
+                IntPostings postings = titleGrams.get(gram);
+                if (postings == null) return result;
+                lists.add(postings);
+            }
+            lists.sort(Comparator.comparingInt(IntPostings::size));
+            IntPostings smallest = lists.get(0);
+            candidates:
+            for (int i = 0; i < smallest.size(); i++) {
+                int slot = smallest.get(i);
+                for (int l = 1; l < lists.size(); l++) {
+                    if (!lists.get(l).contains(slot)) continue candidates;
+                }
+                if (docs.get(slot).title().contains(q)) result.add(slot);
+            }
+            return result;
+        }
+
+        private void artistMatches(String q, BitSet hits) {
+            artistNames.forEach((artistId, name) -> {
+                IntPostings songs = songsByArtist.get(artistId);
+                if (songs != null && name.contains(q))
+                    for (int i = 0; i < songs.size(); i++) hits.set(songs.get(i));
+            });
+        }
+
+        private void genreMatches(List<Integer> genreIds, BitSet hits) {
+            for (Integer genreId : genreIds) {
+                IntPostings songs = songsByGenre.get(genreId);
+                if (songs != null)
+                    for (int i = 0; i < songs.size(); i++) hits.set(songs.get(i));
+            }
+        }
+
+        private void putSong(long id, String title, long artistId, Collection<Integer> genres) {
+            String normalizedTitle = normalize(title);
+            int[] genreIds = genres.stream().mapToInt(Integer::intValue).distinct().toArray();
+            Doc doc = new Doc(id, normalizedTitle, artistId, genreIds);
+            int slot;
+            if (freeSlots.isEmpty()) {
+                slot = docs.size();
+                docs.add(doc);
+            } else {
+                slot = freeSlots.pop();
+                docs.set(slot, doc);
+            }
+            slots.put(id, slot);
+            for (int n = 2; n <= 3; n++)
+                for (String gram : grams(normalizedTitle, n))
+                    titleGrams.computeIfAbsent(gram, k -> new IntPostings()).add(slot);
+            songsByArtist.computeIfAbsent(artistId, k -> new IntPostings()).add(slot);
+            for (int genre : genreIds)
+                songsByGenre.computeIfAbsent(genre, k -> new IntPostings()).add(slot);
+        }
+
+        private void removeSong(long id) {
+            Integer slot = slots.remove(id);
+            if (slot == null) return;
+            Doc doc = docs.set(slot, null);
+            for (int n = 2; n <= 3; n++)
+                for (String gram : grams(doc.title(), n))
+                    removePosting(titleGrams, gram, slot);
+            removePosting(songsByArtist, doc.artistId(), slot);
+            for (int genre : doc.genres())
+                removePosting(songsByGenre, genre, slot);
+            freeSlots.push(slot);
+        }
+
+        private static <K> void removePosting(Map<K, IntPostings> index, K key, int id) {
+            IntPostings postings = index.get(key);
+            if (postings != null && postings.remove(id) && postings.size() == 0) index.remove(key);
+        }
+    }
+
+    private static Set<String> grams(String s, int n) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + n <= s.length(); i++) grams.add(s.substring(i, i + n));
+        return grams;
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,10 +1,12 @@
 package at.yousong.yousong_api.user;
 
+import at.yousong.yousong_api.security.UserCacheListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 @Entity
+@EntityListeners(UserCacheListener.class)
 @Table(name = "benutzer", uniqueConstraints = @UniqueConstraint(columnNames = "username"))
 public class Benutzer {
 
@@ -7,4 +7,5 @@ import java.util.Optional;
 public interface BenutzerRepository extends JpaRepository<Benutzer, Long> {
     Optional<Benutzer> findByUsername(String username);
     boolean existsByUsernameIgnoreCase(String username);
+    boolean existsByUsername(String username);
 }
@@ -1,14 +1,21 @@
 package at.yousong.yousong_api.user;
 
+import at.yousong.yousong_api.security.LoginThrottle;
+import at.yousong.yousong_api.security.PasswordHasher;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @RestController
 @RequestMapping("/api/users")
@@ -16,11 +23,16 @@ import java.util.Map;
 public class UserController {
 
     private final BenutzerRepository benutzerRepository;
-    private final BCryptPasswordEncoder encoder;
+    private final PasswordHasher passwordHasher;
+    private final LoginThrottle loginThrottle;
+    private final Executor executor;
 
-    public UserController(BenutzerRepository benutzerRepository, BCryptPasswordEncoder encoder) {
+    public UserController(BenutzerRepository benutzerRepository, PasswordHasher passwordHasher, LoginThrottle loginThrottle,
+                          @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor) {
         this.benutzerRepository = benutzerRepository;
-        this.encoder = encoder;
+        this.passwordHasher = passwordHasher;
+        this.loginThrottle = loginThrottle;
+        this.executor = executor;
     }
 
     public static class CreateUserRequest {
@@ -31,14 +43,26 @@ public class UserController {
     }
 
     @PostMapping
-    public ResponseEntity<?> createUser(@Valid @RequestBody CreateUserRequest req) {
+    public CompletableFuture<ResponseEntity<?>> createUser(@Valid @RequestBody CreateUserRequest req, HttpServletRequest request) {
+        loginThrottle.checkSignup(request.getRemoteAddr());
         if (benutzerRepository.existsByUsernameIgnoreCase(req.username)) {
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(Map.of("message", "Username already exists"));
+            return CompletableFuture.completedFuture(usernameTaken());
         }
-        String hash = encoder.encode(req.password);
-        Benutzer saved = benutzerRepository.save(new Benutzer(null, req.username, hash));
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(Map.of("id", saved.getId(), "username", saved.getUsername()));
+        // Hash im PasswordHasher-Pool statt auf dem Tomcat-Thread; gespeichert wird im Task-Executor,
+        // damit Wartezeiten auf die DB keine Hash-Threads blockieren
+        return passwordHasher.encode(req.password).thenApplyAsync(hash -> {
+            try {
+                Benutzer saved = benutzerRepository.save(new Benutzer(null, req.username, hash));
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .body(Map.of("id", saved.getId(), "username", saved.getUsername()));
+            } catch (DataIntegrityViolationException e) {
+                // Gleichzeitige Registrierung mit demselben Namen war schneller (Unique-Constraint)
+                return usernameTaken();
+            }
+        }, executor);
+    }
+
+    private static ResponseEntity<?> usernameTaken() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Username already exists"));
     }
 }
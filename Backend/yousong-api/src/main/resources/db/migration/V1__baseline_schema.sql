@@ -0,0 +1,99 @@
+-- Schema-Stand vor Flyway, bisher von Hibernate per ddl-auto=update angelegt.
+-- Idempotent geschrieben: bestehende Datenbanken (auch aus der Zeit vor Sequenzen, Blob-Store und
+-- Genre-Wörterbuch) bekommen nur, was fehlt. Alte Strukturen überführen die späteren Migrationen
+-- (V5: song.music_data → song_audio, V6: song_genres → genre/song_genre); die Data-URIs aus song_audio
+-- übernimmt danach AudioMigration beim Start in den Blob-Store.
+
+-- 🔹 IDs für Song und Artist (Pooled-Allocation, siehe IdSequences)
+create sequence if not exists artist_seq start with 1 increment by 50;
+create sequence if not exists song_seq start with 1 increment by 50;
+
+create table if not exists benutzer (
+    id       bigint generated by default as identity primary key,
+    password varchar(255) not null,
+    username varchar(100) not null,
+    constraint uk_benutzer_username unique (username)
+);
+
+create table if not exists artist (
+    id          bigint not null primary key,
+    description varchar(500),
+    name        varchar(200) not null,
+    constraint uk_artist_name unique (name)
+);
+
+create table if not exists song (
+    id                 bigint not null primary key,
+    audio_content_type varchar(100),
+    audio_hash         varchar(64),
+    audio_size         bigint,
+    length             integer not null check (length >= 1),
+    modified_at        timestamp(6) with time zone,
+    title              varchar(200) not null,
+    version            bigint,
+    artist_id          bigint not null,
+    owner_id           bigint,
+    constraint fk_song_artist foreign key (artist_id) references artist (id),
+    constraint fk_song_owner foreign key (owner_id) references benutzer (id)
+);
+-- Blob-Store-Referenz und Änderungszeitpunkt kamen nach der ersten Version dazu
+alter table song add column if not exists audio_content_type varchar(100);
+alter table song add column if not exists audio_hash varchar(64);
+alter table song add column if not exists audio_size bigint;
+alter table song add column if not exists modified_at timestamp(6) with time zone;
+
+-- 🔹 Export seit Zeitpunkt, Katalogfilter (FilteredCatalog): jeder Index endet mit der ID
+create index if not exists idx_song_modified_at on song (modified_at);
+create index if not exists idx_song_artist_length on song (artist_id, length);
+create index if not exists idx_song_owner on song (owner_id, id);
+create index if not exists idx_song_length on song (length, id);
+create index if not exists idx_song_title on song (title, id);
+
+-- Noch nicht migriertes Legacy-Audio (Data-URI), eine Zeile pro Song
+create table if not exists song_audio (
+    song_id    bigint not null primary key,
+    music_data longtext,
+    constraint fk_song_audio_song foreign key (song_id) references song (id)
+);
+
+-- 🔹 Blob-Store: eine Zeile pro Datei (SHA-256), Analyse-Ergebnis der Ingestion
+create table if not exists audio_blob (
+    hash            varchar(64) not null primary key,
+    content_type    varchar(100) not null,
+    created_at      timestamp(6) with time zone not null,
+    ref_count       integer not null,
+    size            bigint not null,
+    status          enum ('FAILED', 'PROCESSING', 'READY', 'SKIPPED'),
+    bitrate_kbps    integer,
+    duration_millis bigint,
+    error           varchar(200),
+    frame_count     integer,
+    sample_rate     integer
+);
+alter table audio_blob add column if not exists status enum ('FAILED', 'PROCESSING', 'READY', 'SKIPPED');
+alter table audio_blob add column if not exists bitrate_kbps integer;
+alter table audio_blob add column if not exists duration_millis bigint;
+alter table audio_blob add column if not exists error varchar(200);
+alter table audio_blob add column if not exists frame_count integer;
+alter table audio_blob add column if not exists sample_rate integer;
+
+-- 🔹 Genre-Wörterbuch mit vorberechneter Song-Anzahl, Zuordnung mit Reihenfolge
+create table if not exists genre (
+    id              integer generated by default as identity primary key,
+    name            varchar(80) not null,
+    normalized_name varchar(80) not null,
+    song_count      integer not null,
+    constraint uk_genre_normalized_name unique (normalized_name)
+);
+
+create table if not exists song_genre (
+    song_id  bigint not null,
+    genre_id integer not null,
+    position integer not null,
+    primary key (song_id, position),
+    constraint fk_song_genre_song foreign key (song_id) references song (id)
+);
+create index if not exists idx_song_genre_genre_song on song_genre (genre_id, song_id);
+-- Hibernate kennt genre_id nur als Integer – den Fremdschlüssel ins Wörterbuch legt deshalb dieses Skript an.
+-- Nach dem Index angelegt, damit H2 ihn mitbenutzt statt einen eigenen anzulegen
+alter table song_genre add constraint if not exists fk_song_genre_genre foreign key (genre_id) references genre (id);
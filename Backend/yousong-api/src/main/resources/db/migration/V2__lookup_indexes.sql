@@ -0,0 +1,15 @@
+-- Indizes für die Abfragen, die bisher die ganze Tabelle lasen (geprüft per EXPLAIN in QueryPlanTest).
+
+-- 🔹 Artist-Namen ohne Groß-/Kleinschreibung: H2 kennt keine Funktionsindizes, lower(name) = ? liest jede Zeile.
+--    Generierte Spalte mit Index; Abfragen vergleichen name_key mit dem klein geschriebenen Namen
+alter table artist add column if not exists name_key varchar(200) generated always as (lower(name));
+create index if not exists idx_artist_name_key on artist (name_key);
+
+-- 🔹 Audio-Länge/Version nach der Ingestion per Hash setzen (SongRepository.applyAudioLength, touchByAudioHash)
+create index if not exists idx_song_audio_hash on song (audio_hash);
+
+-- 🔹 idx_song_genre_genre (nur genre_id) ist durch idx_song_genre_genre_song (genre_id, song_id) abgedeckt.
+--    Der Fremdschlüssel ins Wörterbuch hängt ggf. an diesem Index → kurz entfernen, danach nutzt er den neuen
+alter table song_genre drop constraint if exists fk_song_genre_genre;
+drop index if exists idx_song_genre_genre;
+alter table song_genre add constraint fk_song_genre_genre foreign key (genre_id) references genre (id);
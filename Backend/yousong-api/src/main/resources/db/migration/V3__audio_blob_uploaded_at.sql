@@ -0,0 +1,5 @@
+-- 🔹 Zeitpunkt des letzten Uploads je Blob (auch bei Dedup auf einen vorhandenen Hash). Solange er jünger als die
+--    Upload-Frist ist, löscht BlobStore.release den Blob bei Referenzzähler 0 nicht: der Upload wird gleich angehängt
+alter table audio_blob add column if not exists uploaded_at timestamp(6) with time zone;
+update audio_blob set uploaded_at = created_at where uploaded_at is null;
+alter table audio_blob alter column uploaded_at set not null;
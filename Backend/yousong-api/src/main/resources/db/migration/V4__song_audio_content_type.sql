@@ -0,0 +1,9 @@
+-- 🔹 Content-Type des Legacy-Audios als eigene Spalte: Detail-Abfragen lesen ihn ohne substring() auf dem LOB.
+--    Befüllt wie DataUri.parse: "data:audio/…;base64,…", Typ zwischen "data:" und dem ersten ';'
+alter table song_audio add column if not exists content_type varchar(100);
+update song_audio
+set content_type = substring(music_data, 6, locate(';', substring(music_data, 1, 128)) - 6)
+where content_type is null
+  and music_data like 'data:audio%'
+  and locate(';', substring(music_data, 1, 128)) = locate(';base64,', substring(music_data, 1, 128))
+  and locate(';', substring(music_data, 1, 128)) between 7 and 105;
@@ -0,0 +1,19 @@
+-- 🔹 Schema vor SongAudio: der LOB lag direkt in song.music_data. Noch nicht migriertes Audio nach song_audio
+--    verschieben (Content-Type wie in V4), dann die Spalte entfernen. Die Spalte wird vorher angelegt, falls sie
+--    fehlt – so läuft das Skript auf jeder Datenbank gleich, neue verschieben einfach nichts.
+--    Die Data-URIs selbst übernimmt danach AudioMigration in den Blob-Store.
+alter table song add column if not exists music_data longtext;
+
+insert into song_audio (song_id, music_data)
+select s.id, s.music_data from song s
+where s.music_data is not null and s.audio_hash is null
+  and not exists (select 1 from song_audio a where a.song_id = s.id);
+
+update song_audio
+set content_type = substring(music_data, 6, locate(';', substring(music_data, 1, 128)) - 6)
+where content_type is null
+  and music_data like 'data:audio%'
+  and locate(';', substring(music_data, 1, 128)) = locate(';base64,', substring(music_data, 1, 128))
+  and locate(';', substring(music_data, 1, 128)) between 7 and 105;
+
+alter table song drop column music_data;
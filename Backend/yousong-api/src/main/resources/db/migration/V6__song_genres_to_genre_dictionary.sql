@@ -0,0 +1,32 @@
+-- 🔹 Alte Freitext-Genres (song_genres: eine Zeile mit dem Namen pro Song und Genre) ins Wörterbuch überführen:
+--    genre + song_genre mit IDs, Zähler neu berechnen, alte Tabelle entfernen. Die Tabelle wird vorher angelegt,
+--    falls sie fehlt – neue Datenbanken überführen dann einfach nichts.
+--    * Schreibweisen, die sich nur in Groß-/Kleinschreibung oder Leerraum unterscheiden, werden ein Genre
+--      (wie GenreDictionary.normalize); angezeigt wird die zuerst gespeicherte
+--    * Reihenfolge der Genres eines Songs bleibt erhalten, Duplikate fallen weg
+--    * Songs, die schon Einträge in song_genre haben, bleiben unberührt
+create table if not exists song_genres (
+    song_id bigint not null,
+    genre   varchar(80)
+);
+
+insert into genre (name, normalized_name, song_count)
+select name, normalized_name, 0 from (
+    select trim(regexp_replace(genre, '\s+', ' ')) as name,
+           lower(trim(regexp_replace(genre, '\s+', ' '))) as normalized_name,
+           row_number() over (partition by lower(trim(regexp_replace(genre, '\s+', ' '))) order by _rowid_) as n
+    from song_genres) t
+where n = 1 and normalized_name <> ''
+  and not exists (select 1 from genre g where g.normalized_name = t.normalized_name);
+
+insert into song_genre (song_id, position, genre_id)
+select song_id, row_number() over (partition by song_id order by first_row) - 1, genre_id from (
+    select o.song_id, g.id as genre_id, min(o._rowid_) as first_row
+    from song_genres o join genre g on g.normalized_name = lower(trim(regexp_replace(o.genre, '\s+', ' ')))
+    group by o.song_id, g.id) t
+where not exists (select 1 from song_genre n where n.song_id = t.song_id);
+
+-- wie GenreDictionary.recount
+update genre g set song_count = (select count(*) from song_genre sg where sg.genre_id = g.id);
+
+drop table song_genres;
@@ -0,0 +1,120 @@
+package at.yousong.yousong_api.audio;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Off-Heap-Audio-Cache: gleichzeitige Fehlschläge laden einmal, Budget in Bytes, Invalidierung pro Song;
+ * geschrieben wird durch die Response-Wrapper der Filter-Kette.
+ */
+class AudioByteCacheTest {
+
+    @Test
+    void concurrentMissesLoadOnce() throws Exception {
+        AudioByteCache cache = new AudioByteCache(true, DataSize.ofMegabytes(8));
+        AudioByteCache.Key key = new AudioByteCache.Key(1, 0);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<ByteBuffer>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 16; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return cache.get(key, k -> {
+                        loads.incrementAndGet();
+                        sleep();
+                        return ByteBuffer.allocateDirect(1024);
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<ByteBuffer> result : results) {
+                ByteBuffer bytes = result.get(10, TimeUnit.SECONDS);
+                assertTrue(bytes.isDirect());
+                assertTrue(bytes.isReadOnly());
+                assertEquals(1024, bytes.remaining());
+            }
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void staysWithinBudget() {
+        AudioByteCache cache = new AudioByteCache(true, DataSize.ofKilobytes(64));
+        for (long song = 0; song < 20; song++)
+            cache.get(new AudioByteCache.Key(song, 0), k -> ByteBuffer.allocateDirect(16 * 1024));
+        // Caffeine verdrängt asynchron im selben Executor → nach den Aufrufen innerhalb des Budgets
+        assertTrue(cache.weightedSize() <= 64 * 1024, "size " + cache.weightedSize());
+    }
+
+    @Test
+    void invalidatesPerSong() {
+        AudioByteCache cache = new AudioByteCache(true, DataSize.ofMegabytes(1));
+        AtomicInteger loads = new AtomicInteger();
+        AudioByteCache.Key v1 = new AudioByteCache.Key(42, 1);
+        cache.get(v1, k -> { loads.incrementAndGet(); return ByteBuffer.allocateDirect(8); });
+        cache.get(v1, k -> { loads.incrementAndGet(); return ByteBuffer.allocateDirect(8); });
+        assertEquals(1, loads.get());
+        cache.invalidate(42);
+        cache.get(v1, k -> { loads.incrementAndGet(); return ByteBuffer.allocateDirect(8); });
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        AudioByteCache cache = new AudioByteCache(true, DataSize.ofMegabytes(1));
+        AudioByteCache.Key key = new AudioByteCache.Key(7, 0);
+        assertThrows(IllegalStateException.class, () -> cache.get(key, k -> { throw new IllegalStateException("boom"); }));
+        assertEquals(3, cache.get(key, k -> ByteBuffer.wrap(new byte[]{1, 2, 3})).remaining());
+    }
+
+    @Test
+    void writesBufferWithoutConsumingTheCachedCopy() throws IOException {
+        AudioByteCache cache = new AudioByteCache(true, DataSize.ofMegabytes(1));
+        AudioByteCache.Key key = new AudioByteCache.Key(3, 0);
+        ByteBuffer loaded = ByteBuffer.allocateDirect(4).put(new byte[]{9, 8, 7, 6}).flip();
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            AudioByteCache.write(cache.get(key, k -> loaded), response);
+            assertArrayEquals(new byte[]{9, 8, 7, 6}, response.getContentAsByteArray());
+        }
+    }
+
+    @Test
+    void writesThroughResponseWrappersInChunks() throws IOException {
+        byte[] audio = new byte[AudioByteCache.WRITE_CHUNK * 2 + 5];
+        new Random(3).nextBytes(audio);
+        MockHttpServletResponse raw = new MockHttpServletResponse();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(raw);
+
+        AudioByteCache.write(ByteBuffer.allocateDirect(audio.length).put(audio).flip(), wrapper);
+
+        // Filter, die die Response einpacken, sehen jedes Byte; am Container vorbei geht nichts
+        assertEquals(0, raw.getContentAsByteArray().length);
+        assertArrayEquals(audio, wrapper.getContentAsByteArray());
+        wrapper.copyBodyToResponse();
+        assertArrayEquals(audio, raw.getContentAsByteArray());
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package at.yousong.yousong_api.audio;
+
+import at.yousong.yousong_api.song.SongRepository;
+import at.yousong.yousong_api.song.SongVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ingestion nach dem Upload: gültiges MP3 → READY mit Frame-Index und exakter Song-Dauer (neue Version),
+ * kaputtes MP3 → FAILED; offensichtlich falsche Uploads lehnt schon der Upload selbst ab. Stimmt die eingegebene
+ * Länge schon, bleibt die Version gleich – nur das ETag zeigt den neuen Audio-Status.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:audio-ingestion;DB_CLOSE_DELAY=-1",
+        "yousong.audio.storage-dir=${java.io.tmpdir}/yousong-test-audio",
+        "yousong.seed.async=false"
+})
+class AudioIngestionTest {
+
+    @Autowired BlobStore blobStore;
+    @Autowired UploadSessionStore uploads;
+    @Autowired TransactionTemplate tx;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired SongRepository songRepository;
+
+    @Test
+    void validMp3SetsExactSongLength() throws InterruptedException {
+        long versionBefore = jdbc.queryForObject("select version from song where title = 'Hello'", Long.class);
+
+        // Blob + Song im selben Commit, die Ingestion startet erst danach
+        String hash = tx.execute(status -> {
+            BlobStore.StoredBlob blob = blobStore.store(
+                    new ByteArrayInputStream(Mp3FrameParserTest.mp3(400, true)), "audio/mpeg");
+            blobStore.retain(blob.hash());
+            jdbc.update("update song set audio_hash = ?, length = 1 where title = 'Hello'", blob.hash());
+            return blob.hash();
+        });
+
+        AudioBlob blob = await(hash, AudioBlob.Status.READY);
+        assertEquals(400L * 1152 * 1000 / 44100, blob.getDurationMillis());
+        assertEquals(400, blob.getFrameCount());
+        assertEquals(44100, blob.getSampleRate());
+        assertEquals(1, blob.getRefCount());
+        assertTrue(Files.exists(blobStore.framesPathOf(hash)));
+
+        assertEquals(10, jdbc.queryForObject("select length from song where title = 'Hello'", Integer.class));
+        assertTrue(jdbc.queryForObject("select version from song where title = 'Hello'", Long.class) > versionBefore);
+    }
+
+    @Test
+    void matchingLengthKeepsVersion() throws InterruptedException {
+        long id = jdbc.queryForObject("select id from song where title = 'Thunder'", Long.class);
+
+        // 800 Frames = 20,9 s → 21 s, genau das hat der Benutzer schon eingetragen
+        // Stand vor dem Commit lesen, danach startet die Ingestion sofort
+        SongVersion before = tx.execute(status -> {
+            BlobStore.StoredBlob blob = blobStore.store(
+                    new ByteArrayInputStream(Mp3FrameParserTest.mp3(800, true)), "audio/mpeg");
+            blobStore.retain(blob.hash());
+            jdbc.update("update song set audio_hash = ?, length = 21 where id = ?", blob.hash(), id);
+            return songRepository.findVersionById(id).orElseThrow();
+        });
+        String hash = jdbc.queryForObject("select audio_hash from song where id = ?", String.class, id);
+
+        await(hash, AudioBlob.Status.READY);
+        SongVersion after = songRepository.findVersionById(id).orElseThrow();
+
+        assertEquals(before.version(), after.version());
+        assertEquals(21, jdbc.queryForObject("select length from song where id = ?", Integer.class, id));
+        // Detail-ETag wechselt (processing → ready), wer vorher zum Bearbeiten geladen hat, darf trotzdem speichern
+        assertNotEquals(before.etag(), after.etag());
+        assertTrue(after.matchedBy(before.etag()));
+    }
+
+    @Test
+    void brokenMp3IsMarkedFailed() throws InterruptedException {
+        byte[] broken = Mp3FrameParserTest.mp3(50, false);
+        broken[20 * Mp3FrameParserTest.FRAME_LENGTH] = 0x12;
+        String hash = blobStore.store(new ByteArrayInputStream(broken), "audio/mpeg").hash();
+
+        AudioBlob blob = await(hash, AudioBlob.Status.FAILED);
+        assertTrue(blob.getError().startsWith("Invalid MPEG frame header"), blob.getError());
+    }
+
+    @Test
+    void uploadWithoutMp3HeaderIsRejected() {
+        byte[] html = "<html>not audio</html>".getBytes();
+        assertThrows(InvalidAudioException.class,
+                () -> uploads.storeAll(new ByteArrayInputStream(html), "audio/mpeg"));
+    }
+
+    private AudioBlob await(String hash, AudioBlob.Status expected) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            AudioBlob blob = blobStore.describe(hash).orElseThrow();
+            if (blob.getStatus() == expected) return blob;
+            Thread.sleep(100);
+        }
+        return fail("Audio " + hash + " not " + expected + " after 10 s");
+    }
+}
@@ -0,0 +1,116 @@
+package at.yousong.yousong_api.audio;
+
+import at.yousong.yousong_api.cache.ETags;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@code GET /api/songs/{id}/music} über den ganzen MVC-Stack: Range, If-Range (aktuelles und veraltetes ETag),
+ * 416 und multipart/byteranges mit dem Audio-Typ in jedem Teil.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:audio-responder;DB_CLOSE_DELAY=-1",
+        "yousong.cache.enabled=false",
+        "yousong.audio.storage-dir=${java.io.tmpdir}/yousong-test-audio",
+        "yousong.seed.async=false",
+        "yousong.audio.ingest-enabled=false"
+})
+@AutoConfigureMockMvc
+class AudioResponderTest {
+
+    private static final long SONG_ID = 9_000_001;
+    private static final String URL = "/api/songs/" + SONG_ID + "/music";
+
+    @Autowired MockMvc mvc;
+    @Autowired BlobStore blobStore;
+    @Autowired JdbcTemplate jdbc;
+
+    private byte[] mp3;
+    private String etag;
+
+    @BeforeEach
+    void song() {
+        mp3 = Mp3FrameParserTest.mp3(20, true);
+        String hash = blobStore.store(new ByteArrayInputStream(mp3), "audio/mpeg").hash();
+        etag = ETags.strong(hash);
+        jdbc.update("merge into artist (id, name, description) key (id) values (?, 'Range Artist', null)", SONG_ID);
+        jdbc.update("""
+                merge into song (id, title, length, artist_id, version, modified_at, audio_hash, audio_content_type, audio_size)
+                key (id) values (?, 'Range Song', 10, ?, 0, current_timestamp, ?, 'audio/mpeg', ?)
+                """, SONG_ID, SONG_ID, hash, mp3.length);
+    }
+
+    @Test
+    void singleRange() throws Exception {
+        MvcResult result = mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=10-109"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-109/" + mp3.length))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "audio/mpeg"))
+                .andReturn();
+        assertArrayEquals(Arrays.copyOfRange(mp3, 10, 110), result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    void ifRangeWithCurrentETagServesRange() throws Exception {
+        mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-9").header(HttpHeaders.IF_RANGE, etag))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-9/" + mp3.length));
+    }
+
+    @Test
+    void ifRangeWithStaleETagServesWholeFile() throws Exception {
+        MvcResult result = mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-9").header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andReturn();
+        assertArrayEquals(mp3, result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    void unsatisfiableRange() throws Exception {
+        mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=" + mp3.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + mp3.length));
+    }
+
+    @Test
+    void multipleRangesCarryTheAudioType() throws Exception {
+        MvcResult result = mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-9,100-119"))
+                .andExpect(status().isPartialContent())
+                .andReturn();
+        String contentType = result.getResponse().getContentType();
+        assertTrue(contentType.startsWith("multipart/byteranges"), contentType);
+        String boundary = contentType.substring(contentType.indexOf("boundary=") + "boundary=".length());
+
+        String body = result.getResponse().getContentAsString(StandardCharsets.ISO_8859_1);
+        String[] parts = body.split("\r\n--" + boundary);
+        assertEquals(4, parts.length, body);
+        assertPart(parts[1], "bytes 0-9/" + mp3.length, Arrays.copyOfRange(mp3, 0, 10));
+        assertPart(parts[2], "bytes 100-119/" + mp3.length, Arrays.copyOfRange(mp3, 100, 120));
+        assertEquals("--", parts[3]);
+    }
+
+    private static void assertPart(String part, String contentRange, byte[] expected) {
+        int bodyStart = part.indexOf("\r\n\r\n") + 4;
+        String headers = part.substring(0, bodyStart);
+        assertTrue(headers.contains("Content-Type: audio/mpeg\r\n"), headers);
+        assertTrue(headers.contains("Content-Range: " + contentRange + "\r\n"), headers);
+        assertArrayEquals(expected, part.substring(bodyStart).getBytes(StandardCharsets.ISO_8859_1));
+    }
+}
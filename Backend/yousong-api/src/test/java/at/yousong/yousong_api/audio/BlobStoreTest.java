@@ -0,0 +1,215 @@
+package at.yousong.yousong_api.audio;
+
+import at.yousong.yousong_api.artist.Artist;
+import at.yousong.yousong_api.artist.ArtistRepository;
+import at.yousong.yousong_api.song.Song;
+import at.yousong.yousong_api.song.SongController;
+import at.yousong.yousong_api.song.SongRepository;
+import at.yousong.yousong_api.song.dto.SongDetailDto;
+import at.yousong.yousong_api.user.Benutzer;
+import at.yousong.yousong_api.user.BenutzerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayInputStream;
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Blob-Store: Dedup nach Inhalt, Referenzzähler über Anlegen/Ändern/Löschen von Songs, frische Uploads überleben
+ * ein release auf denselben Hash, und promote/release auf denselben Hash hinterlassen nie eine Zeile ohne Datei.
+ * Das Löschen der Datei nach dem Commit braucht keine zweite DB-Verbindung.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:blob-store;DB_CLOSE_DELAY=-1",
+        "yousong.cache.enabled=false",
+        "yousong.audio.storage-dir=${java.io.tmpdir}/yousong-test-audio",
+        "yousong.seed.async=false",
+        "yousong.audio.ingest-enabled=false",
+        "yousong.db.max-concurrency=4",
+        "yousong.db.acquire-timeout=PT1S"
+})
+class BlobStoreTest {
+
+    @Autowired BlobStore blobStore;
+    @Autowired SongController songController;
+    @Autowired SongRepository songRepository;
+    @Autowired ArtistRepository artistRepository;
+    @Autowired BenutzerRepository benutzerRepository;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired DataSource dataSource;
+
+    private final Random random = new Random();
+    private Artist artist;
+
+    @BeforeEach
+    void login() {
+        benutzerRepository.findByUsername("blob-owner")
+                .orElseGet(() -> benutzerRepository.save(new Benutzer(null, "blob-owner", "x")));
+        artist = artistRepository.save(new Artist(null, "Blob Artist " + System.nanoTime(), null));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("blob-owner", null, List.of()));
+    }
+
+    @AfterEach
+    void clearAuth() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void sameContentIsStoredOnce() {
+        byte[] content = content();
+        String first = store(content);
+        String second = store(content);
+
+        assertEquals(first, second);
+        assertEquals(1, jdbc.queryForObject("select count(*) from audio_blob where hash = ?", Integer.class, first));
+        assertTrue(Files.exists(blobStore.pathOf(first)));
+    }
+
+    @Test
+    void songsCountReferencesAndReleaseOnUpdateAndDelete() {
+        String a = store(content());
+        String b = store(content());
+        age(a);
+        age(b);
+
+        long first = create(a);
+        long second = create(a);
+        assertEquals(2, refCount(a));
+
+        Song change = new Song(null, "Blob Song", List.of("Blob"), 100, artist, null);
+        change.setVersion(songRepository.findById(first).orElseThrow().getVersion());
+        change.setAudioId(b);
+        songController.updateSong(first, change, null);
+        assertEquals(1, refCount(a));
+        assertEquals(1, refCount(b));
+
+        songController.deleteSong(second);
+        assertTrue(blobStore.find(a).isEmpty());
+        assertFalse(Files.exists(blobStore.pathOf(a)));
+
+        songController.deleteSong(first);
+        assertTrue(blobStore.find(b).isEmpty());
+        assertFalse(Files.exists(blobStore.pathOf(b)));
+    }
+
+    @Test
+    void deleteWorksWithOnlyOneFreeConnection() throws Exception {
+        String hash = store(content());
+        age(hash);
+        long song = create(hash);
+
+        // Alle Permits bis auf einen belegen: afterCommit darf keinen zweiten brauchen
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < 3; i++) held.add(dataSource.getConnection());
+            songController.deleteSong(song);
+        } finally {
+            for (Connection connection : held) connection.close();
+        }
+        assertTrue(blobStore.find(hash).isEmpty());
+        assertFalse(Files.exists(blobStore.pathOf(hash)));
+    }
+
+    @Test
+    void freshUploadSurvivesReleaseUntilPurged() {
+        byte[] content = content();
+        String hash = store(content);
+        age(hash);
+        long song = create(hash);
+
+        // Gleicher Inhalt wird erneut hochgeladen, währenddessen verliert der alte Song die Datei
+        assertEquals(hash, store(content));
+        songController.deleteSong(song);
+        assertEquals(0, refCount(hash));
+        assertTrue(Files.exists(blobStore.pathOf(hash)));
+
+        // Der neue Upload lässt sich weiterhin anhängen
+        long attached = create(hash);
+        assertEquals(1, refCount(hash));
+        songController.deleteSong(attached);
+
+        blobStore.purgeUnreferenced(Instant.now().minusSeconds(60));
+        assertTrue(blobStore.find(hash).isPresent());
+        blobStore.purgeUnreferenced(Instant.now().plusSeconds(1));
+        assertTrue(blobStore.find(hash).isEmpty());
+        assertFalse(Files.exists(blobStore.pathOf(hash)));
+    }
+
+    @Test
+    void concurrentPromoteAndReleaseKeepRowAndFileTogether() throws Exception {
+        byte[] content = content();
+        String hash = store(content);
+        for (int round = 0; round < 30; round++) {
+            blobStore.retain(hash);
+            age(hash);
+
+            CountDownLatch start = new CountDownLatch(1);
+            CompletableFuture<Void> release = CompletableFuture.runAsync(() -> {
+                await(start);
+                blobStore.release(hash);
+            });
+            CompletableFuture<String> upload = CompletableFuture.supplyAsync(() -> {
+                await(start);
+                return store(content);
+            });
+            start.countDown();
+            release.get();
+            assertEquals(hash, upload.get());
+
+            // Der Upload ist entweder nach dem Löschen neu angelegt worden oder hat die Zeile davor geschützt
+            assertTrue(blobStore.find(hash).isPresent(), "round " + round);
+            assertTrue(Files.exists(blobStore.pathOf(hash)), "round " + round);
+            assertEquals(0, refCount(hash));
+        }
+    }
+
+    private String store(byte[] content) {
+        return blobStore.store(new ByteArrayInputStream(content), "audio/ogg").hash();
+    }
+
+    private long create(String audioId) {
+        Song song = new Song(null, "Blob Song", List.of("Blob"), 100, artist, null);
+        song.setAudioId(audioId);
+        return ((SongDetailDto) songController.createSong(song).getBody()).id;
+    }
+
+    // Letzter Upload liegt weit zurück: release darf den Blob bei 0 Referenzen löschen
+    private void age(String hash) {
+        jdbc.update("update audio_blob set uploaded_at = dateadd('DAY', -2, uploaded_at) where hash = ?", hash);
+    }
+
+    private int refCount(String hash) {
+        return jdbc.queryForObject("select ref_count from audio_blob where hash = ?", Integer.class, hash);
+    }
+
+    private byte[] content() {
+        byte[] content = new byte[4096];
+        random.nextBytes(content);
+        return content;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package at.yousong.yousong_api.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Allokation pro Request: alter Pfad (split + substring + decode in ein Array) gegen
+ * den Stream-Dekoder über den CLOB-Reader. Die Asserts halten die gemessenen Werte fest, ohne etwas auszugeben.
+ */
+class DataUriAllocationTest {
+
+    private static final int TRACK_BYTES = 4 * 1024 * 1024;
+    private static final int ROUNDS = 5;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void streamingDecodeAllocatesConstantMemory() throws IOException {
+        byte[] audio = new byte[TRACK_BYTES];
+        new Random(42).nextBytes(audio);
+        String musicData = "data:audio/mpeg;base64," + Base64.getEncoder().encodeToString(audio);
+
+        assertArrayEquals(audio, DataUri.decode(new StringReader(musicData)).readAllBytes());
+
+        // Warm-up, damit JIT/Klassenladen nicht mitgemessen wird
+        for (int i = 0; i < ROUNDS; i++) {
+            splitDecode(musicData);
+            streamDecode(musicData);
+        }
+
+        long before = measure(() -> splitDecode(musicData));
+        long after = measure(() -> streamDecode(musicData));
+        assertTrue(before > 2L * TRACK_BYTES, "baseline should copy the track several times, was " + before);
+        assertTrue(after < 256 * 1024, "streaming decode should not depend on track size, was " + after);
+        assertTrue(after * 32 < before, "streaming should allocate a fraction of the baseline: " + after + " vs " + before);
+    }
+
+    // 🔹 Bisheriger Pfad aus SongController.getSongMusic
+    private static void splitDecode(String musicData) {
+        String base64Data = musicData.split(",")[1];
+        byte[] audioBytes = Base64.getDecoder().decode(base64Data);
+        String contentType = musicData.substring(5, musicData.indexOf(";"));
+        if (audioBytes.length == 0 || contentType.isEmpty()) throw new IllegalStateException();
+    }
+
+    private static void streamDecode(String musicData) {
+        try (InputStream in = DataUri.decode(new StringReader(musicData))) {
+            in.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long measure(Runnable request) {
+        long id = Thread.currentThread().threadId();
+        long start = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < ROUNDS; i++) request.run();
+        return (threads.getThreadAllocatedBytes(id) - start) / ROUNDS;
+    }
+}
@@ -0,0 +1,136 @@
+package at.yousong.yousong_api.audio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Frame-Parser mit synthetischen MPEG-1-Layer-III-Dateien (128 kbit/s, 44,1 kHz → 417 Byte pro Frame,
+ * 1152 Samples) und den Demo-MP3s aus dem Classpath.
+ */
+class Mp3FrameParserTest {
+
+    static final int FRAME_LENGTH = 417;
+
+    @Test
+    void countsFramesAndSkipsTags() throws IOException {
+        byte[] mp3 = mp3(100, true);
+
+        Mp3FrameParser.Mp3Info info = Mp3FrameParser.parse(new ByteArrayInputStream(mp3));
+
+        assertEquals(100, info.frames().frameCount());
+        assertEquals(100L * 1152 * 1000 / 44100, info.durationMillis());
+        assertEquals(44100, info.sampleRate());
+        assertEquals(2, info.channels());
+        assertEquals("MPEG-1 Layer III", info.format());
+        assertEquals(128, info.bitrateKbps(), 1);
+        // erster Frame direkt nach dem 20-Byte-ID3v2-Tag
+        assertEquals(20, info.frames().offsetOf(0));
+        assertEquals(20 + 100 * FRAME_LENGTH, info.frames().offsetOf(100));
+    }
+
+    @Test
+    void xingFrameIsNotAudio() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] xing = frame();
+        System.arraycopy("Xing".getBytes(StandardCharsets.US_ASCII), 0, xing, 4 + 32, 4);
+        out.write(xing);
+        for (int i = 0; i < 10; i++) out.write(frame());
+
+        Mp3FrameParser.Mp3Info info = Mp3FrameParser.parse(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(10, info.frames().frameCount());
+        assertEquals(FRAME_LENGTH, info.frames().offsetOf(0));
+    }
+
+    @Test
+    void truncatedLastFrameIsIgnored() throws IOException {
+        byte[] mp3 = mp3(10, false);
+        byte[] cut = Arrays.copyOf(mp3, mp3.length - 100);
+
+        assertEquals(9, Mp3FrameParser.parse(new ByteArrayInputStream(cut)).frames().frameCount());
+    }
+
+    @Test
+    void rejectsGarbage() {
+        byte[] random = new byte[64 * 1024];
+        new Random(42).nextBytes(random);
+        // keine 0xFF-Bytes → garantiert kein Frame-Sync
+        for (int i = 0; i < random.length; i++) if (random[i] == (byte) 0xff) random[i] = 0;
+        assertThrows(InvalidAudioException.class, () -> Mp3FrameParser.parse(new ByteArrayInputStream(random)));
+        assertFalse(Mp3FrameParser.looksLikeMp3(random, random.length));
+
+        byte[] broken = mp3(10, false);
+        broken[5 * FRAME_LENGTH] = 0x12; // Header von Frame 5 zerstört
+        InvalidAudioException e = assertThrows(InvalidAudioException.class,
+                () -> Mp3FrameParser.parse(new ByteArrayInputStream(broken)));
+        assertTrue(e.getMessage().contains("byte " + 5 * FRAME_LENGTH), e.getMessage());
+    }
+
+    @Test
+    void parsesBundledDemoMp3s() throws IOException {
+        for (String name : new String[]{"retro-lounge-389644.mp3", "sandbreaker-379630.mp3"}) {
+            try (InputStream in = getClass().getResourceAsStream("/music/" + name)) {
+                assertNotNull(in, name);
+                Mp3FrameParser.Mp3Info info = Mp3FrameParser.parse(in);
+                assertTrue(info.durationMillis() > 10_000 && info.durationMillis() < 15 * 60_000,
+                        name + ": " + info.durationMillis() + " ms");
+                assertTrue(info.bitrateKbps() >= 32 && info.bitrateKbps() <= 320, name + ": " + info.bitrateKbps());
+            }
+        }
+    }
+
+    @Test
+    void frameIndexRoundTripAndSeeking(@TempDir Path dir) throws IOException {
+        FrameIndex index = Mp3FrameParser.parse(new ByteArrayInputStream(mp3(100, true))).frames();
+        Path file = dir.resolve("x.frames");
+        index.write(file);
+
+        FrameIndex read = FrameIndex.read(file);
+        assertEquals(index.frameCount(), read.frameCount());
+        assertEquals(index.durationMillis(), read.durationMillis());
+        // 1 s = 44100 / 1152 = Frame 38
+        assertEquals(38, read.frameAt(1000));
+        assertEquals(20 + 38L * FRAME_LENGTH, read.offsetAt(1000));
+        assertEquals(99, read.frameAt(60_000));
+        assertEquals(0, read.frameAt(-5));
+    }
+
+    // 🔹 Testdaten
+
+    static byte[] mp3(int frames, boolean tags) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (tags) {
+            // ID3v2.4, 10 Byte Tag-Inhalt
+            out.writeBytes(new byte[]{'I', 'D', '3', 4, 0, 0, 0, 0, 0, 10});
+            out.writeBytes(new byte[10]);
+        }
+        for (int i = 0; i < frames; i++) out.writeBytes(frame());
+        if (tags) {
+            byte[] id3v1 = new byte[128];
+            id3v1[0] = 'T'; id3v1[1] = 'A'; id3v1[2] = 'G';
+            out.writeBytes(id3v1);
+        }
+        return out.toByteArray();
+    }
+
+    // MPEG-1 Layer III, kein CRC, 128 kbit/s, 44,1 kHz, ohne Padding, Stereo
+    static byte[] frame() {
+        byte[] frame = new byte[FRAME_LENGTH];
+        frame[0] = (byte) 0xff;
+        frame[1] = (byte) 0xfb;
+        frame[2] = (byte) 0x90;
+        frame[3] = 0x00;
+        return frame;
+    }
+}
@@ -0,0 +1,94 @@
+package at.yousong.yousong_api.audio;
+
+import at.yousong.yousong_api.metrics.YousongMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HLS-Auslieferung mit einer synthetischen Datei aus 400 Frames (≈ 10,4 s): 6-Sekunden-Segmente = 230 Frames,
+ * also zwei Segmente; jedes Segment ist ID3-Zeitstempel + exakter Byte-Bereich des Blobs.
+ */
+class SegmentedAudioTest {
+
+    static final String HASH = "ab".repeat(32);
+    static final AudioByteCache.Key SONG = new AudioByteCache.Key(1, 0);
+
+    @TempDir Path dir;
+    byte[] mp3;
+    SegmentedAudio segmented;
+
+    @BeforeEach
+    void store() throws IOException {
+        BlobStore blobStore = new BlobStore(null, null, dir.toString(), Duration.ofDays(1));
+        mp3 = Mp3FrameParserTest.mp3(400, true);
+        Files.createDirectories(blobStore.pathOf(HASH).getParent());
+        Files.write(blobStore.pathOf(HASH), mp3);
+        segmented = new SegmentedAudio(blobStore, new AudioByteCache(true, DataSize.ofMegabytes(1)),
+                new YousongMetrics(new SimpleMeterRegistry()), 6, DataSize.ofMegabytes(1));
+    }
+
+    @Test
+    void playlistListsFrameAlignedSegments() {
+        ResponseEntity<?> response = segmented.playlist(new MockHttpServletRequest("GET", "/"), HASH);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(SegmentedAudio.PLAYLIST_TYPE, response.getHeaders().getContentType());
+        String playlist = (String) response.getBody();
+        assertTrue(playlist.startsWith("#EXTM3U\n"), playlist);
+        assertTrue(playlist.contains("#EXT-X-TARGETDURATION:7\n"), playlist);
+        assertTrue(playlist.contains("#EXTINF:6.008,\nsegments/" + HASH + "/6/0.mp3\n"), playlist);
+        assertTrue(playlist.contains("#EXTINF:4.440,\nsegments/" + HASH + "/6/1.mp3\n"), playlist);
+        assertTrue(playlist.endsWith("#EXT-X-ENDLIST\n"), playlist);
+
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/");
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, response.getHeaders().getETag());
+        assertEquals(HttpStatus.NOT_MODIFIED, segmented.playlist(conditional, HASH).getStatusCode());
+    }
+
+    @Test
+    void segmentIsTimestampPlusByteRange() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertNull(segmented.segment(new MockHttpServletRequest("GET", "/"), response, SONG, HASH, 6, 1));
+
+        byte[] body = response.getContentAsByteArray();
+        int tag = SegmentedAudio.TIMESTAMP_TAG_LENGTH;
+        assertEquals(tag + 170 * Mp3FrameParserTest.FRAME_LENGTH, body.length);
+        assertEquals(body.length, response.getContentLengthLong());
+        assertTrue(response.getHeader(HttpHeaders.CACHE_CONTROL).contains("immutable"));
+        assertArrayEquals(new byte[]{'I', 'D', '3', 4}, Arrays.copyOf(body, 4));
+        // PTS: Segmentstart 230 Frames = 6008 ms → 90-kHz-Takt
+        long pts = 0;
+        for (int i = tag - 8; i < tag; i++) pts = pts << 8 | (body[i] & 0xff);
+        assertEquals(6008L * 90, pts);
+        // danach genau die Frames 230–399 aus der Datei
+        int start = 20 + 230 * Mp3FrameParserTest.FRAME_LENGTH;
+        assertArrayEquals(Arrays.copyOfRange(mp3, start, start + 170 * Mp3FrameParserTest.FRAME_LENGTH),
+                Arrays.copyOfRange(body, tag, body.length));
+        // Sidecar beim ersten Abruf angelegt
+        assertTrue(Files.exists(dir.resolve("ab/ab/" + HASH + ".frames")));
+    }
+
+    @Test
+    void unknownSegmentsAreNotFound() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertEquals(HttpStatus.NOT_FOUND, segmented.segment(request, response, SONG, HASH, 6, 2).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, segmented.segment(request, response, SONG, HASH, 1, 0).getStatusCode());
+    }
+}
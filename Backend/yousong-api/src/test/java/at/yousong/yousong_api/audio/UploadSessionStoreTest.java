@@ -0,0 +1,127 @@
+package at.yousong.yousong_api.audio;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fortsetzbare Uploads: falscher Offset, Abbruch mitten im Chunk mit Fortsetzen ab {@code status()},
+ * leerer Upload (fortsetzbar wie einmalig) und Größenlimit (hier 64 KB).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:upload-sessions;DB_CLOSE_DELAY=-1",
+        "yousong.cache.enabled=false",
+        "yousong.audio.storage-dir=${java.io.tmpdir}/yousong-test-audio",
+        "yousong.audio.max-size=64KB",
+        "yousong.seed.async=false",
+        "yousong.audio.ingest-enabled=false"
+})
+class UploadSessionStoreTest {
+
+    private static final String OWNER = "upload-owner";
+    private static final String TYPE = "audio/ogg";
+
+    @Autowired UploadSessionStore uploads;
+    @Autowired BlobStore blobStore;
+
+    private final Random random = new Random();
+
+    @Test
+    void wrongOffsetIsRejectedWithoutChangingTheSession() {
+        String id = uploads.open(OWNER, TYPE).uploadId();
+        uploads.append(OWNER, id, 0, new ByteArrayInputStream(content(100)));
+
+        assertThrows(IllegalStateException.class, () -> uploads.append(OWNER, id, 50, new ByteArrayInputStream(content(10))));
+        assertThrows(IllegalStateException.class, () -> uploads.append(OWNER, id, 0, new ByteArrayInputStream(content(10))));
+        assertEquals(100, uploads.status(OWNER, id).offset());
+    }
+
+    @Test
+    void brokenChunkKeepsArrivedBytesAndResumes() throws IOException {
+        byte[] content = content(10_000);
+        String id = uploads.open(OWNER, TYPE).uploadId();
+        uploads.append(OWNER, id, 0, new ByteArrayInputStream(content, 0, 2_000));
+
+        // Verbindung bricht nach 3000 weiteren Bytes ab
+        assertThrows(UncheckedIOException.class,
+                () -> uploads.append(OWNER, id, 2_000, breaksAfter(Arrays.copyOfRange(content, 2_000, 10_000), 3_000)));
+        long offset = uploads.status(OWNER, id).offset();
+        assertEquals(5_000, offset);
+
+        uploads.append(OWNER, id, offset, new ByteArrayInputStream(content, (int) offset, content.length - (int) offset));
+        BlobStore.StoredBlob blob = uploads.complete(OWNER, id);
+
+        assertEquals(HexFormat.of().formatHex(BlobStore.sha256().digest(content)), blob.hash());
+        assertEquals(content.length, blob.size());
+        assertArrayEquals(content, Files.readAllBytes(blobStore.pathOf(blob.hash())));
+    }
+
+    @Test
+    void emptyUploadCannotBeCompleted() {
+        String id = uploads.open(OWNER, TYPE).uploadId();
+        assertThrows(IllegalArgumentException.class, () -> uploads.complete(OWNER, id));
+
+        // Session bleibt bestehen, der Client kann noch Daten schicken
+        uploads.append(OWNER, id, 0, new ByteArrayInputStream(content(10)));
+        assertEquals(10, uploads.complete(OWNER, id).size());
+    }
+
+    @Test
+    void emptySingleUploadIsRejected() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> uploads.storeAll(new ByteArrayInputStream(new byte[0]), TYPE));
+        assertEquals("Upload is empty.", e.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> uploads.storeAll(new ByteArrayInputStream(new byte[0]), "audio/mpeg"));
+        assertEquals(3, uploads.storeAll(new ByteArrayInputStream(content(3)), TYPE).size());
+    }
+
+    @Test
+    void uploadAboveLimitIsDiscarded() {
+        String id = uploads.open(OWNER, TYPE).uploadId();
+        uploads.append(OWNER, id, 0, new ByteArrayInputStream(content(60 * 1024)));
+
+        assertThrows(AudioTooLargeException.class,
+                () -> uploads.append(OWNER, id, 60 * 1024, new ByteArrayInputStream(content(8 * 1024))));
+        assertThrows(IllegalArgumentException.class, () -> uploads.status(OWNER, id));
+    }
+
+    private byte[] content(int size) {
+        byte[] content = new byte[size];
+        random.nextBytes(content);
+        return content;
+    }
+
+    // Liefert höchstens 1000 Bytes pro read und wirft nach `limit` Bytes wie ein abgerissener Request-Body
+    private static InputStream breaksAfter(byte[] content, int limit) {
+        return new InputStream() {
+            private int position;
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (position >= limit) throw new IOException("connection reset");
+                int n = Math.min(Math.min(len, 1_000), Math.min(limit, content.length) - position);
+                System.arraycopy(content, position, b, off, n);
+                position += n;
+                return n;
+            }
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package at.yousong.yousong_api.cache;
+
+import at.yousong.yousong_api.song.dto.ArtistRefDto;
+import at.yousong.yousong_api.song.dto.SongListDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void artistRenameEvictsOnlyPagesContainingThatArtist() {
+        ReadCache cache = cache(true);
+        load(cache, "page:0", false, page(0, song(1, 10), song(2, 11)));
+        load(cache, "page:1", false, page(1, song(3, 12), song(4, 12)));
+        load(cache, "page:0:pop", true, page(0, song(3, 12)));
+        assertEquals(3, loads.get());
+
+        cache.artistChanged(10);
+
+        load(cache, "page:0", false, page(0));
+        load(cache, "page:1", false, page(1));
+        load(cache, "page:0:pop", true, page(0));
+        // page:0 (Artist 10) und die Suchseite neu geladen, page:1 aus dem Cache
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void songUpdateEvictsPagesContainingTheSong() {
+        ReadCache cache = cache(true);
+        load(cache, "page:0", false, page(0, song(1, 10)));
+        load(cache, "page:1", false, page(1, song(2, 10)));
+
+        cache.songUpdated(2);
+
+        load(cache, "page:0", false, page(0));
+        load(cache, "page:1", false, page(1));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        ReadCache cache = cache(false);
+        load(cache, "page:0", false, page(0, song(1, 10)));
+        load(cache, "page:0", false, page(0, song(1, 10)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void statsCountHitsAndMisses() {
+        ReadCache cache = cache(true);
+        load(cache, "page:0", false, page(0, song(1, 10)));
+        load(cache, "page:0", false, page(0, song(1, 10)));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> catalog = (Map<String, Object>) cache.stats().get("catalog");
+        assertEquals(1L, catalog.get("hits"));
+        assertEquals(1L, catalog.get("misses"));
+    }
+
+    private ReadCache cache(boolean enabled) {
+        return new ReadCache(new ObjectMapper(), enabled, Duration.ofMinutes(5), DataSize.ofMegabytes(1));
+    }
+
+    private void load(ReadCache cache, String key, boolean search, Page<SongListDto> page) {
+        cache.catalogPage(key, search, () -> {
+            loads.incrementAndGet();
+            return page;
+        });
+    }
+
+    private static Page<SongListDto> page(int number, SongListDto... songs) {
+        return new PageImpl<>(List.of(songs), PageRequest.of(number, 2), 100);
+    }
+
+    private static SongListDto song(long id, long artistId) {
+        return new SongListDto(id, "Song " + id, 100, new ArtistRefDto(artistId, "Artist " + artistId), List.of("Pop"));
+    }
+}
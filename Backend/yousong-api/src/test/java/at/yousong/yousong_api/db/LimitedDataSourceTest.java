@@ -0,0 +1,65 @@
+package at.yousong.yousong_api.db;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LimitedDataSourceTest {
+
+    @Test
+    void thousandsOfVirtualThreadsNeverExceedTheLimit() throws Exception {
+        LimitedDataSource dataSource = limited(Duration.ofSeconds(30));
+        AtomicInteger open = new AtomicInteger();
+        AtomicInteger maxOpen = new AtomicInteger();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 2_000; i++) {
+                executor.submit(() -> {
+                    try (Connection c = dataSource.getConnection()) {
+                        maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+                        c.createStatement().execute("select 1");
+                        open.decrementAndGet();
+                    }
+                    return null;
+                });
+            }
+        }
+        assertTrue(maxOpen.get() <= 4, "max open " + maxOpen.get());
+        assertEquals(2_000L, dataSource.stats().get("acquired"));
+        assertEquals(0, dataSource.stats().get("inUse"));
+    }
+
+    @Test
+    void waitingLongerThanTheTimeoutFailsFastAndCloseReleasesOnce() throws Exception {
+        LimitedDataSource dataSource = limited(Duration.ofMillis(100));
+        List<Connection> held = new ArrayList<>();
+        for (int i = 0; i < 4; i++) held.add(dataSource.getConnection());
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(1L, dataSource.stats().get("rejected"));
+
+        Connection first = held.get(0);
+        first.close();
+        first.close(); // doppeltes close darf keinen zweiten Permit freigeben
+        held.add(dataSource.getConnection());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        for (Connection c : held) c.close();
+        assertEquals(0, dataSource.stats().get("inUse"));
+    }
+
+    private static LimitedDataSource limited(Duration timeout) {
+        return new LimitedDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:limited;DB_CLOSE_DELAY=-1", "sa", ""), 4, timeout);
+    }
+}
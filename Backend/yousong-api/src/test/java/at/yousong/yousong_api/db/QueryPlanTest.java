@@ -0,0 +1,194 @@
+package at.yousong.yousong_api.db;
+
+import at.yousong.yousong_api.artist.ArtistRepository;
+import at.yousong.yousong_api.song.SongRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * EXPLAIN für jede Abfrage aus {@link SongRepository} und {@link ArtistRepository}: das von Hibernate erzeugte SQL
+ * wird mitgeschnitten, H2 liefert den Plan. Heiße Abfragen dürfen keine Tabelle komplett lesen ({@code tableScan});
+ * ausgenommen sind "enthält"-Suchen (Fallback, bis der Suchindex steht) und der komplette Export.
+ * Alle Pläne stehen danach in {@code target/explain-plans.txt}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=at.yousong.yousong_api.db.QueryPlanTest$Recorder",
+        "yousong.cache.enabled=false",
+        "yousong.audio.storage-dir=${java.io.tmpdir}/yousong-test-audio",
+        "yousong.seed.async=false",
+        "yousong.audio.ingest-enabled=false"
+})
+class QueryPlanTest {
+
+    // Genug Zeilen, dass H2s Kostenschätzung Indizes gegen Scans abwägt wie im Betrieb
+    private static final int ARTISTS = 300;
+    private static final int SONGS = 3_000;
+    private static final long FIRST_ID = 1_000_000;
+
+    @Autowired SongRepository songRepository;
+    @Autowired ArtistRepository artistRepository;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired DataSource dataSource;
+    @Autowired TransactionTemplate tx;
+
+    private final Map<String, String> plans = new LinkedHashMap<>();
+
+    /** Schneidet das SQL des aufrufenden Threads mit (Hintergrund-Threads wie der Suchindex stören nicht). */
+    public static class Recorder implements StatementInspector {
+        static final ThreadLocal<List<String>> SQL = ThreadLocal.withInitial(ArrayList::new);
+
+        @Override
+        public String inspect(String sql) {
+            SQL.get().add(sql);
+            return sql;
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        Long present = jdbc.queryForObject("select count(*) from song where id >= ?", Long.class, FIRST_ID);
+        if (present != null && present > 0) return;
+        jdbc.update("insert into artist (id, name, description) select ? + x, 'Plan Artist ' || x, null from system_range(1, ?)",
+                FIRST_ID, ARTISTS);
+        jdbc.update("""
+                insert into song (id, title, length, artist_id, version, modified_at, audio_hash)
+                select ? + x, 'Plan Song ' || x, 60 + mod(x, 400), ? + 1 + mod(x, ?), 0,
+                       dateadd('SECOND', x, timestamp with time zone '2026-01-01 00:00:00+00'), 'hash-' || x
+                from system_range(1, ?)
+                """, FIRST_ID, FIRST_ID, ARTISTS, SONGS);
+        jdbc.update("insert into genre (name, normalized_name, song_count) values ('Plan Genre', 'plan genre', 0)");
+        jdbc.update("""
+                insert into song_genre (song_id, position, genre_id)
+                select ? + x, 0, (select id from genre where normalized_name = 'plan genre') from system_range(1, ?)
+                """, FIRST_ID, SONGS);
+        jdbc.execute("analyze");
+    }
+
+    @Test
+    void hotQueriesUseIndexes() throws IOException {
+        Instant since = Instant.parse("2026-01-01T00:45:00Z");
+        List<Long> ids = List.of(FIRST_ID + 10, FIRST_ID + 20);
+
+        hot("SongRepository.findById", () -> songRepository.findById(FIRST_ID + 1));
+        hot("SongRepository.findAllRows", () -> songRepository.findAllRows(PageRequest.of(3, 20, Sort.by("id"))));
+        hot("SongRepository.findRowsAfter", () -> songRepository.findRowsAfter(FIRST_ID + 100, Limit.of(21)));
+        hot("SongRepository.catalogRowsAfter", () -> songRepository.catalogRowsAfter("plan", List.of(-1), FIRST_ID + 100, Limit.of(21)));
+        hot("SongRepository.findRowsByIdIn", () -> songRepository.findRowsByIdIn(ids));
+        hot("SongRepository.findGenresBySongIdIn", () -> songRepository.findGenresBySongIdIn(ids));
+        hot("SongRepository.findWithArtistByTitleIn", () -> songRepository.findWithArtistByTitleIn(List.of("Plan Song 7")));
+        hot("SongRepository.findMusicById", () -> songRepository.findMusicById(FIRST_ID + 1));
+        hot("SongRepository.findVersionById", () -> songRepository.findVersionById(FIRST_ID + 1));
+        hot("SongRepository.applyAudioLength", () -> inRolledBackTx(() -> songRepository.applyAudioLength("hash-5", 200, since)));
+        hot("SongRepository.touchByAudioHash", () -> inRolledBackTx(() -> songRepository.touchByAudioHash("hash-5", since)));
+        hot("SongRepository.streamChangedForExport",
+                () -> inRolledBackTx(() -> songRepository.streamChangedForExport(since).limit(1).toList()));
+        hot("ArtistRepository.findById", () -> artistRepository.findById(FIRST_ID + 1));
+        hot("ArtistRepository.findByNameIgnoreCase", () -> artistRepository.findByNameIgnoreCase("PLAN artist 7"));
+        hot("ArtistRepository.existsByNameIgnoreCase", () -> artistRepository.existsByNameIgnoreCase("plan ARTIST 7"));
+        hot("ArtistRepository.findByLowerNameIn", () -> artistRepository.findByLowerNameIn(List.of("plan artist 7", "plan artist 8")));
+
+        // Bewusst ganze Tabelle: "enthält" kann kein B-Baum-Index beantworten, der Export liest ohnehin alles
+        scan("SongRepository.searchRows", () -> songRepository.searchRows("plan", List.of(-1)));
+        scan("SongRepository.catalogRows", () -> songRepository.catalogRows("plan", List.of(-1), PageRequest.of(0, 20, Sort.by("id"))));
+        scan("SongRepository.streamAllForExport", () -> inRolledBackTx(() -> songRepository.streamAllForExport().limit(1).toList()));
+        scan("ArtistRepository.findByNameContainingIgnoreCase", () -> artistRepository.findByNameContainingIgnoreCase("artist 7"));
+
+        Path report = Path.of("target", "explain-plans.txt");
+        Files.createDirectories(report.getParent());
+        StringBuilder text = new StringBuilder();
+        plans.forEach((name, plan) -> text.append("== ").append(name).append('\n').append(plan).append('\n'));
+        Files.writeString(report, text);
+
+        List<String> scans = plans.entrySet().stream()
+                .filter(e -> !e.getKey().startsWith("(scan) ") && e.getValue().contains("tableScan"))
+                .map(e -> e.getKey() + ":\n" + e.getValue())
+                .toList();
+        assertTrue(scans.isEmpty(), "hot queries reading whole tables:\n" + String.join("\n", scans));
+    }
+
+    @Test
+    void indexesComeFromMigrations() {
+        List<String> indexes = jdbc.queryForList(
+                "select lower(index_name) from information_schema.indexes where table_schema = 'PUBLIC'", String.class);
+        for (String index : List.of("idx_artist_name_key", "idx_song_audio_hash", "idx_song_modified_at",
+                "idx_song_artist_length", "idx_song_owner", "idx_song_genre_genre_song"))
+            assertTrue(indexes.contains(index), "missing index " + index + " in " + indexes);
+        Long applied = jdbc.queryForObject("select count(*) from \"flyway_schema_history\" where \"success\"", Long.class);
+        assertTrue(applied != null && applied >= 2, "expected Flyway migrations to be applied");
+    }
+
+    @Test
+    void legacySchemaIsRemovedByMigrations() {
+        // V5/V6 entfernen die alten Strukturen, kein Startup-Code ändert das Schema an Flyway vorbei
+        assertEquals(0, jdbc.queryForObject("""
+                select count(*) from information_schema.columns where table_name = 'SONG' and column_name = 'MUSIC_DATA'
+                """, Integer.class));
+        assertEquals(0, jdbc.queryForObject(
+                "select count(*) from information_schema.tables where table_name = 'SONG_GENRES'", Integer.class));
+        assertEquals(2, jdbc.queryForObject(
+                "select count(*) from \"flyway_schema_history\" where \"version\" in ('5', '6') and \"success\"", Integer.class));
+    }
+
+    private void hot(String name, Runnable call) {
+        plans.put(name, explain(call));
+    }
+
+    private void scan(String name, Runnable call) {
+        plans.put("(scan) " + name, explain(call));
+    }
+
+    // 🔹 Aufruf ausführen, jedes dabei erzeugte Statement mit EXPLAIN erneut vorbereiten (Parameter nur als Platzhalter)
+    private String explain(Runnable call) {
+        Recorder.SQL.get().clear();
+        call.run();
+        List<String> statements = new ArrayList<>(Recorder.SQL.get());
+        assertTrue(!statements.isEmpty(), "no SQL recorded");
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = dataSource.getConnection()) {
+            for (String sql : statements) {
+                try (PreparedStatement ps = connection.prepareStatement("explain " + sql)) {
+                    for (int i = 1; i <= ps.getParameterMetaData().getParameterCount(); i++) ps.setObject(i, null);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return plan.toString();
+    }
+
+    private void inRolledBackTx(Runnable call) {
+        tx.executeWithoutResult(status -> {
+            call.run();
+            status.setRollbackOnly();
+        });
+    }
+}
@@ -0,0 +1,148 @@
+package at.yousong.yousong_api.db;
+
+import at.yousong.yousong_api.YousongApiApplication;
+import at.yousong.yousong_api.artist.Artist;
+import at.yousong.yousong_api.artist.ArtistRepository;
+import at.yousong.yousong_api.song.Song;
+import at.yousong.yousong_api.song.SongRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vergleicht Plattform- und Virtual-Thread-Modus unter gleicher Last (Katalogseiten, Suche, Song-Details,
+ * Read-Cache aus, damit jede Anfrage die DB trifft). Beide Modi laufen gegen dasselbe DB-Limit
+ * ({@code yousong.db.max-concurrency}): der Virtual-Thread-Modus darf dabei keine Fehler liefern und muss
+ * mindestens den Durchsatz des Plattform-Modus schaffen.
+ * Läuft nur mit {@code -Dyousong.bench=true}; Last über {@code -Dyousong.bench.clients} und
+ * {@code -Dyousong.bench.seconds}.
+ */
+@EnabledIfSystemProperty(named = "yousong.bench", matches = "true")
+class VirtualThreadLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("yousong.bench.clients", 500);
+    private static final int SECONDS = Integer.getInteger("yousong.bench.seconds", 10);
+    private static final int SONGS = 5_000;
+    private static final int DB_LIMIT = 16;
+    // Messrauschen zwischen zwei kurzen Läufen auf derselben Maschine
+    private static final double TOLERANCE = 0.05;
+
+    private record Result(String mode, long requests, long errors, double seconds, long p50Micros, long p99Micros) {
+        double throughput() {
+            return requests / seconds;
+        }
+    }
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        List<Result> results = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext app = start(virtual)) {
+                seed(app);
+                int port = ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+                run(port, 3); // Warm-up (JIT, Pool, Suchindex)
+                results.add(measure(virtual ? "virtual" : "platform", port));
+            }
+        }
+        Result platform = results.get(0);
+        Result virtual = results.get(1);
+        String summary = CLIENTS + " clients, " + SECONDS + " s: " + platform + " vs " + virtual;
+        assertTrue(platform.requests() > 0 && virtual.requests() > 0, "no requests completed: " + summary);
+        assertEquals(0, virtual.errors(), "virtual threads must not fail under the DB limit: " + summary);
+        assertTrue(virtual.throughput() >= platform.throughput() * (1 - TOLERANCE),
+                "virtual threads slower than platform threads: " + summary);
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtual) {
+        return new SpringApplicationBuilder(YousongApiApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--spring.datasource.url=jdbc:h2:mem:load-" + virtual + ";DB_CLOSE_DELAY=-1",
+                "--spring.h2.console.enabled=false",
+                "--yousong.cache.enabled=false",
+                "--yousong.db.max-concurrency=" + DB_LIMIT,
+                "--yousong.seed.async=false",
+                "--yousong.audio.storage-dir=" + System.getProperty("java.io.tmpdir") + "/yousong-load-audio",
+                "--logging.level.root=WARN");
+    }
+
+    private static void seed(ConfigurableApplicationContext app) {
+        SongRepository songs = app.getBean(SongRepository.class);
+        List<Artist> artists = app.getBean(ArtistRepository.class).findAll();
+        List<Song> batch = new ArrayList<>();
+        for (int i = 0; i < SONGS; i++) {
+            batch.add(new Song(null, "Load Song " + i, List.of("Genre " + i % 11), 180, artists.get(i % artists.size()), null));
+        }
+        songs.saveAll(batch);
+    }
+
+    private static Result measure(String mode, int port) throws Exception {
+        long start = System.nanoTime();
+        Run run = run(port, SECONDS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long[] latencies = run.latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Result(mode, latencies.length, run.errors.sum(), seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99));
+    }
+
+    private record Run(ConcurrentLinkedQueue<Long> latencies, LongAdder errors) {}
+
+    private static Run run(int port, int seconds) throws Exception {
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        LongAdder errors = new LongAdder();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        try (HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(10)).build();
+             var clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path()))
+                                .timeout(Duration.ofSeconds(30)).build();
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) errors.increment();
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                        latencies.add((System.nanoTime() - t0) / 1_000);
+                    }
+                });
+            }
+        }
+        return new Run(latencies, errors);
+    }
+
+    // 🔹 Mischung wie im Frontend: Seiten blättern, suchen, Details öffnen
+    private static String path() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(10);
+        if (roll < 4) return "/api/songs?page=" + random.nextInt(SONGS / 20) + "&size=20";
+        if (roll < 7) return "/api/songs/catalog?page=0&size=20&q=genre%20" + random.nextInt(11);
+        return "/api/songs/" + (1 + random.nextInt(SONGS));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+}
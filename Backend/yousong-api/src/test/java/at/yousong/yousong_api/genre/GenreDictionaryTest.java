@@ -0,0 +1,151 @@
+package at.yousong.yousong_api.genre;
+
+import at.yousong.yousong_api.artist.Artist;
+import at.yousong.yousong_api.artist.ArtistRepository;
+import at.yousong.yousong_api.song.Song;
+import at.yousong.yousong_api.song.SongController;
+import at.yousong.yousong_api.song.SongGenreRow;
+import at.yousong.yousong_api.song.SongRepository;
+import at.yousong.yousong_api.song.dto.SongDetailDto;
+import at.yousong.yousong_api.user.Benutzer;
+import at.yousong.yousong_api.user.BenutzerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Genre-Wörterbuch: eine ID pro Schreibweise ohne Groß-/Kleinschreibung, Song-Zähler folgen Anlegen, Ändern und
+ * Löschen, Migration der alten Freitext-Tabelle.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:genre-dictionary;DB_CLOSE_DELAY=-1",
+        "yousong.audio.storage-dir=${java.io.tmpdir}/yousong-test-audio",
+        "yousong.seed.async=false",
+        "yousong.audio.ingest-enabled=false"
+})
+class GenreDictionaryTest {
+
+    @Autowired GenreDictionary dictionary;
+    @Autowired GenreController genreController;
+    @Autowired SongController songController;
+    @Autowired SongRepository songRepository;
+    @Autowired ArtistRepository artistRepository;
+    @Autowired BenutzerRepository benutzerRepository;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired DataSource dataSource;
+
+    private Artist artist;
+
+    @BeforeEach
+    void login() {
+        benutzerRepository.findByUsername("genre-owner")
+                .orElseGet(() -> benutzerRepository.save(new Benutzer(null, "genre-owner", "x")));
+        artist = artistRepository.findAll().get(0);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("genre-owner", null, List.of()));
+    }
+
+    @AfterEach
+    void clearAuth() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void canonicalizesCaseAndWhitespace() {
+        int pop = dictionary.resolve("Pop");
+        assertEquals(pop, dictionary.resolve("  POP "));
+        assertEquals(List.of(pop), dictionary.resolve(List.of("pop", "Pop", " ")));
+        assertEquals("Pop", dictionary.name(pop));
+        assertEquals(dictionary.resolve("Hip Hop"), dictionary.resolve("hip\t hop"));
+        assertTrue(dictionary.matchingIds("HIP h").contains(dictionary.resolve("Hip Hop")));
+        assertThrows(IllegalArgumentException.class, () -> dictionary.resolve("x".repeat(81)));
+    }
+
+    @Test
+    void countsFollowSongWrites() {
+        ResponseEntity<?> created = songController.createSong(
+                song("Genre Count Song", List.of("Count Alpha", "count  ALPHA", "Count Beta")));
+        assertEquals(HttpStatus.CREATED, created.getStatusCode());
+        SongDetailDto dto = (SongDetailDto) created.getBody();
+        assertEquals(List.of("Count Alpha", "Count Beta"), dto.genres);
+        assertEquals(1, count("count alpha"));
+        assertEquals(1, count("count beta"));
+
+        // nur die Genres ändern sich: reicht für Version und Zähler
+        Song edit = song("Genre Count Song", List.of("Count Beta", "Count Gamma"));
+        edit.setVersion(dto.version);
+        edit.setLength(dto.length);
+        ResponseEntity<?> updated = songController.updateSong(dto.id, edit, null);
+        assertEquals(HttpStatus.OK, updated.getStatusCode());
+        assertEquals(List.of("Count Beta", "Count Gamma"), ((SongDetailDto) updated.getBody()).genres);
+        assertEquals(0, count("count alpha"));
+        assertEquals(1, count("count beta"));
+        assertEquals(1, count("count gamma"));
+
+        List<Genre> listed = genreController.getGenres(null).getBody();
+        assertTrue(listed.stream().noneMatch(g -> g.getName().equals("Count Alpha")));
+        assertTrue(listed.stream().anyMatch(g -> g.getName().equals("Count Gamma") && g.getSongCount() == 1));
+        // Zähler stimmen mit einer Neuberechnung überein, Liste absteigend nach Anzahl
+        listed.forEach(g -> assertEquals(actualCount(g.getId()), g.getSongCount(), g.getName()));
+        for (int i = 1; i < listed.size(); i++)
+            assertTrue(listed.get(i - 1).getSongCount() >= listed.get(i).getSongCount());
+
+        assertEquals(HttpStatus.NO_CONTENT, songController.deleteSong(dto.id).getStatusCode());
+        assertEquals(0, count("count beta"));
+        assertEquals(0, count("count gamma"));
+    }
+
+    @Test
+    void genreListAnswersIfNoneMatch() {
+        String etag = genreController.getGenres(null).getHeaders().getETag();
+        assertEquals(HttpStatus.NOT_MODIFIED, genreController.getGenres(etag).getStatusCode());
+    }
+
+    @Test
+    void migratesLegacyFreeTextGenres() {
+        Song song = songRepository.save(new Song(null, "Legacy Genre Song", null, 100, artist, null));
+        int popBefore = count("pop");
+        jdbc.execute("create table song_genres (song_id bigint not null, genre varchar(80) not null)");
+        jdbc.update("insert into song_genres (song_id, genre) values (?, 'Legacy  Ska'), (?, 'Pop'), (?, ' legacy SKA ')",
+                song.getId(), song.getId(), song.getId());
+
+        // Flyway-Skript erneut ausführen, als käme die Datenbank aus der Zeit davor
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V6__song_genres_to_genre_dictionary.sql"))
+                .execute(dataSource);
+        dictionary.reload();
+
+        List<String> names = songRepository.findGenresBySongIdIn(List.of(song.getId())).stream()
+                .map(SongGenreRow::genreId).map(dictionary::name).toList();
+        assertEquals(List.of("Legacy Ska", "Pop"), names);
+        assertEquals(1, count("legacy ska"));
+        assertEquals(popBefore + 1, count("pop"));
+        assertEquals(0, jdbc.queryForObject(
+                "select count(*) from information_schema.tables where table_name = 'SONG_GENRES'", Integer.class));
+    }
+
+    private Song song(String title, List<String> genres) {
+        return new Song(null, title, genres, 180, new Artist(artist.getId(), null, null), null);
+    }
+
+    private int count(String normalizedName) {
+        return jdbc.queryForObject("select song_count from genre where normalized_name = ?", Integer.class, normalizedName);
+    }
+
+    private int actualCount(int genreId) {
+        return jdbc.queryForObject("select count(*) from song_genre where genre_id = ?", Integer.class, genreId);
+    }
+}
@@ -0,0 +1,44 @@
+package at.yousong.yousong_api.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Zähler werden pro Tag-Kombination einmal registriert und danach wiederverwendet.
+ */
+class YousongMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final YousongMetrics metrics = new YousongMetrics(registry);
+
+    @Test
+    void countsBytesPerSource() {
+        metrics.audioServed("blob", 1_000);
+        metrics.audioServed("blob", 500);
+        metrics.audioServed("legacy", 20);
+
+        assertEquals(1_500, registry.get("yousong.audio.served").tag("source", "blob").counter().count());
+        assertEquals(20, registry.get("yousong.audio.served").tag("source", "legacy").counter().count());
+    }
+
+    @Test
+    void separatesLobHeaderAndStreamReads() {
+        metrics.lobRead(false);
+        metrics.lobRead(false);
+        metrics.lobRead(true);
+
+        assertEquals(2, registry.get("yousong.audio.lob.reads").tag("kind", "header").counter().count());
+        assertEquals(1, registry.get("yousong.audio.lob.reads").tag("kind", "stream").counter().count());
+    }
+
+    @Test
+    void countsConflictsPerStage() {
+        metrics.updateConflict("version-check");
+        metrics.updateConflict("flush");
+        metrics.updateConflict("flush");
+
+        assertEquals(2, registry.get("yousong.song.update.conflicts").tag("stage", "flush").counter().count());
+    }
+}
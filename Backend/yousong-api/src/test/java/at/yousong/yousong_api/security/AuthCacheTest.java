@@ -0,0 +1,63 @@
+package at.yousong.yousong_api.security;
+
+import at.yousong.yousong_api.user.BenutzerRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class AuthCacheTest {
+
+    private static final String SECRET = "Test_Secret_AtLeast32Chars_Long_0123456789";
+
+    private final JwtUtil jwtUtil = spy(new JwtUtil(SECRET, 60_000));
+    private final BenutzerRepository repository = mock(BenutzerRepository.class);
+    private final AuthCache cache = new AuthCache(jwtUtil, repository, 100, Duration.ofMinutes(1));
+
+    @Test
+    void verifiesTokenAndLooksUpUserOnlyOnce() {
+        when(repository.existsByUsername("hugo")).thenReturn(true);
+        String token = jwtUtil.generateToken("hugo");
+
+        for (int i = 0; i < 5; i++) assertEquals(Optional.of("hugo"), cache.authenticate(token));
+
+        verify(jwtUtil, times(1)).verify(token);
+        verify(repository, times(1)).existsByUsername("hugo");
+    }
+
+    @Test
+    void revokedTokenIsRejected() {
+        when(repository.existsByUsername("hugo")).thenReturn(true);
+        String token = jwtUtil.generateToken("hugo");
+        cache.authenticate(token);
+
+        cache.revokeToken(token);
+
+        assertEquals(Optional.empty(), cache.authenticate(token));
+    }
+
+    @Test
+    void evictedUserIsCheckedAgain() {
+        when(repository.existsByUsername("hugo")).thenReturn(true, false);
+        String token = jwtUtil.generateToken("hugo");
+        assertEquals(Optional.of("hugo"), cache.authenticate(token));
+
+        cache.evictUser("hugo");
+
+        assertEquals(Optional.empty(), cache.authenticate(token));
+    }
+
+    @Test
+    void invalidAndExpiredTokensAreRejected() {
+        when(repository.existsByUsername("hugo")).thenReturn(true);
+        String expired = new JwtUtil(SECRET, -1_000).generateToken("hugo");
+        String foreign = new JwtUtil("Another_Secret_AtLeast32Chars_Long_987654", 60_000).generateToken("hugo");
+
+        assertEquals(Optional.empty(), cache.authenticate(expired));
+        assertEquals(Optional.empty(), cache.authenticate(foreign));
+        assertEquals(Optional.empty(), cache.authenticate("not-a-jwt"));
+    }
+}
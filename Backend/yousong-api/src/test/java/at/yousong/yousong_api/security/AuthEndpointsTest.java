@@ -0,0 +1,61 @@
+package at.yousong.yousong_api.security;
+
+import at.yousong.yousong_api.user.Benutzer;
+import at.yousong.yousong_api.user.BenutzerRepository;
+import at.yousong.yousong_api.user.UserController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Login und Registrierung: unbekannte Benutzer kosten einen Hash, eine parallel angelegte Registrierung endet in 409.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:auth-endpoints;DB_CLOSE_DELAY=-1",
+        "yousong.audio.storage-dir=${java.io.tmpdir}/yousong-test-audio",
+        "yousong.seed.async=false",
+        "yousong.audio.ingest-enabled=false"
+})
+class AuthEndpointsTest {
+
+    @Autowired AuthController authController;
+    @Autowired UserController userController;
+    @Autowired PasswordHasher passwordHasher;
+    @Autowired BenutzerRepository benutzerRepository;
+
+    @Test
+    void unknownUserGoesThroughHashPool() throws Exception {
+        long before = (long) passwordHasher.stats().get("hashes");
+
+        ResponseEntity<?> response = authController.login("nobody-" + System.nanoTime(), "secret", request()).get();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        assertEquals(before + 1, passwordHasher.stats().get("hashes"));
+    }
+
+    @Test
+    void concurrentSignupWithSameNameIsConflict() throws Exception {
+        UserController.CreateUserRequest req = new UserController.CreateUserRequest();
+        req.username = "race-" + System.nanoTime();
+        req.password = "secret";
+
+        // Prüfung ist schon vorbei, während gehasht wird legt jemand anderes denselben Namen an
+        CompletableFuture<ResponseEntity<?>> signup = userController.createUser(req, request());
+        benutzerRepository.save(new Benutzer(null, req.username, "x"));
+
+        assertEquals(HttpStatus.CONFLICT, signup.get().getStatusCode());
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+}
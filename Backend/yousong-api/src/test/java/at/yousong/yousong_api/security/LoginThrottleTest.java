@@ -0,0 +1,56 @@
+package at.yousong.yousong_api.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private final LoginThrottle throttle = new LoginThrottle(Duration.ofMinutes(15), 3, 5, 2);
+
+    @Test
+    void blocksUserAfterTooManyFailuresUntilSuccess() {
+        for (int i = 0; i < 3; i++) {
+            throttle.checkLogin("hugo", "10.0.0.1");
+            throttle.loginFailed("Hugo", "10.0.0.1");
+        }
+        TooManyAttemptsException ex = assertThrows(TooManyAttemptsException.class, () -> throttle.checkLogin("hugo", "10.0.0.2"));
+        assertTrue(ex.getRetryAfterSeconds() > 0 && ex.getRetryAfterSeconds() <= 900);
+
+        throttle.loginSucceeded("hugo");
+        assertDoesNotThrow(() -> throttle.checkLogin("hugo", "10.0.0.2"));
+    }
+
+    @Test
+    void blocksIpAcrossUsernames() {
+        for (int i = 0; i < 5; i++) throttle.loginFailed("user" + i, "10.0.0.1");
+        assertThrows(TooManyAttemptsException.class, () -> throttle.checkLogin("someone", "10.0.0.1"));
+        assertDoesNotThrow(() -> throttle.checkLogin("someone", "10.0.0.9"));
+    }
+
+    @Test
+    void limitsSignupsPerIp() {
+        throttle.checkSignup("10.0.0.1");
+        throttle.checkSignup("10.0.0.1");
+        assertThrows(TooManyAttemptsException.class, () -> throttle.checkSignup("10.0.0.1"));
+    }
+
+    @Test
+    void hasherRejectsWhenQueueIsFull() {
+        PasswordHasher hasher = new PasswordHasher(new BCryptPasswordEncoder(12), 1, 1, 3);
+        List<CompletableFuture<String>> accepted = new ArrayList<>();
+        AuthBusyException busy = assertThrows(AuthBusyException.class, () -> {
+            for (int i = 0; i < 10; i++) accepted.add(hasher.encode("secret"));
+        });
+        assertEquals(3, busy.getRetryAfterSeconds());
+        assertEquals(2, accepted.size()); // einer läuft, einer wartet
+        assertEquals(1L, hasher.stats().get("rejected"));
+        hasher.shutdown();
+    }
+}
@@ -0,0 +1,46 @@
+package at.yousong.yousong_api.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Betriebs-Endpoints: Health öffentlich, Metriken und Statistiken nur mit gültigem Token.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:security-config;DB_CLOSE_DELAY=-1",
+        "yousong.audio.storage-dir=${java.io.tmpdir}/yousong-test-audio",
+        "yousong.seed.async=false",
+        "yousong.audio.ingest-enabled=false"
+})
+@AutoConfigureMockMvc
+class SecurityConfigTest {
+
+    private static final String[] PROTECTED = {"/actuator/metrics", "/actuator/info", "/api/cache/stats", "/api/auth/stats"};
+
+    @Autowired MockMvc mvc;
+    @Autowired JwtUtil jwtUtil;
+
+    @Test
+    void healthIsPublic() throws Exception {
+        mvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mvc.perform(get("/actuator/health/readiness")).andExpect(status().isOk());
+    }
+
+    @Test
+    void operationalEndpointsNeedLogin() throws Exception {
+        for (String path : PROTECTED)
+            mvc.perform(get(path)).andExpect(status().isForbidden());
+        // im Test ist der Prometheus-Export aus (404 mit Token), gesperrt muss er trotzdem sein
+        mvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+
+        String token = jwtUtil.generateToken("hugo"); // Demo-Benutzer aus dem Seeder
+        for (String path : PROTECTED)
+            mvc.perform(get(path).header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+    }
+}
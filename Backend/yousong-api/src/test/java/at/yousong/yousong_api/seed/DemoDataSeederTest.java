@@ -0,0 +1,54 @@
+package at.yousong.yousong_api.seed;
+
+import at.yousong.yousong_api.audio.BlobStore;
+import at.yousong.yousong_api.song.Song;
+import at.yousong.yousong_api.song.SongRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Seeding beim Start: jeder Demo-Song hat abspielbares Audio im BlobStore, ein zweiter Lauf legt nichts doppelt an
+ * und Songs ohne Audio (ältere Stände) bekommen ihre Datei nachträglich.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:seed;DB_CLOSE_DELAY=-1",
+        "yousong.audio.storage-dir=${java.io.tmpdir}/yousong-test-audio",
+        "yousong.seed.async=false"
+})
+class DemoDataSeederTest {
+
+    @Autowired DemoDataSeeder seeder;
+    @Autowired SeedingHealthIndicator health;
+    @Autowired SongRepository songRepository;
+    @Autowired BlobStore blobStore;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void seedsPlayableAudioOnceAndRepairsMissingAudio() {
+        assertEquals(Status.UP, health.health().getStatus());
+        assertEquals(DemoDataSeeder.SONGS.size(), songRepository.count());
+        assertEquals(0, jdbc.queryForObject("select count(*) from song where audio_hash is null", Integer.class));
+        assertEquals(4, jdbc.queryForObject("select count(*) from audio_blob", Integer.class));
+        assertEquals(DemoDataSeeder.SONGS.size(), jdbc.queryForObject("select sum(ref_count) from audio_blob", Integer.class));
+        Song song = songRepository.findAll().get(0);
+        assertTrue(Files.exists(blobStore.pathOf(song.getAudioHash())));
+
+        // Stand vor dem Seeder: Song da, Audio fehlt
+        jdbc.update("update song set audio_hash = null, audio_content_type = null, audio_size = null where title = 'Hello'");
+        seeder.seed();
+        seeder.seed();
+
+        assertEquals(DemoDataSeeder.SONGS.size(), songRepository.count());
+        assertEquals(DemoDataSeeder.ARTISTS.size(), jdbc.queryForObject("select count(*) from artist", Integer.class));
+        assertEquals(1, jdbc.queryForObject("select count(*) from benutzer where username = 'hugo'", Integer.class));
+        assertEquals("audio/mpeg", jdbc.queryForObject("select audio_content_type from song where title = 'Hello'", String.class));
+        assertEquals(DemoDataSeeder.SONGS.size() + 1, jdbc.queryForObject("select sum(ref_count) from audio_blob", Integer.class));
+    }
+}
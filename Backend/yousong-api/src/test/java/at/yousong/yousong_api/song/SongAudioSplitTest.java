@@ -0,0 +1,109 @@
+package at.yousong.yousong_api.song;
+
+import at.yousong.yousong_api.song.dto.SongDetailDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Legacy-Audio liegt in {@code song_audio}, getrennt vom Song: der Content-Type steht in einer eigenen Spalte,
+ * Metadaten-Abfragen (Detail, Liste) lesen den LOB nicht an.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:song-audio-split;DB_CLOSE_DELAY=-1",
+        "yousong.cache.enabled=false",
+        "yousong.audio.storage-dir=${java.io.tmpdir}/yousong-test-audio",
+        "yousong.audio.migrate-on-startup=false",
+        "yousong.seed.async=false",
+        "yousong.audio.ingest-enabled=false"
+})
+class SongAudioSplitTest {
+
+    private static final String MP3_URI = "data:audio/mpeg;base64," + Base64.getEncoder().encodeToString(new byte[]{1, 2, 3});
+
+    @Autowired SongController songController;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired DataSource dataSource;
+    @Autowired MeterRegistry registry;
+    @Autowired TransactionTemplate tx;
+
+    @Test
+    void oldMusicDataColumnMovesIntoSongAudio() {
+        long id = legacySong("Hello");
+        jdbc.update("delete from song_audio where song_id = ?", id);
+        jdbc.execute("alter table song add column music_data longtext");
+        jdbc.update("update song set music_data = ? where id = ?", MP3_URI, id);
+
+        migrate("V5__song_music_data_to_song_audio.sql");
+
+        assertEquals(MP3_URI, jdbc.queryForObject("select music_data from song_audio where song_id = ?", String.class, id));
+        assertEquals("audio/mpeg", jdbc.queryForObject("select content_type from song_audio where song_id = ?", String.class, id));
+        assertEquals(0, jdbc.queryForObject("""
+                select count(*) from information_schema.columns where table_name = 'SONG' and column_name = 'MUSIC_DATA'
+                """, Integer.class));
+    }
+
+    @Test
+    void contentTypeIsFilledFromTheDataUriHeader() {
+        long mp3 = legacySong("Hello");
+        long text = legacySong("Perfect");
+        long plain = legacySong("Thunder");
+        jdbc.update("update song_audio set music_data = 'data:text/plain;base64,AAAA' where song_id = ?", text);
+        jdbc.update("update song_audio set music_data = 'data:audio/wav,raw' where song_id = ?", plain);
+        jdbc.update("update song_audio set content_type = null");
+
+        migrate("V4__song_audio_content_type.sql");
+
+        assertEquals("audio/mpeg", contentType(mp3));
+        assertNull(contentType(text));
+        assertNull(contentType(plain));
+    }
+
+    @Test
+    void metadataReadsLeaveTheLobAlone() {
+        long id = legacySong("Hello");
+        double header = lobReads("header");
+        double stream = lobReads("stream");
+
+        // wie im Request (open-in-view): Genres werden lazy nachgeladen
+        SongDetailDto detail = tx.execute(status -> songController.getSongById(id, false, null).getBody());
+        tx.executeWithoutResult(status -> songController.getAllSongs(0, 20, null));
+
+        assertEquals("audio/mpeg", detail.audio.contentType);
+        assertNull(detail.audio.hash);
+        assertEquals(header, lobReads("header"));
+        assertEquals(stream, lobReads("stream"));
+    }
+
+    // Song ohne Blob, Audio als Data-URI in song_audio (wie nach dem Verschieben)
+    private long legacySong(String title) {
+        long id = jdbc.queryForObject("select id from song where title = ?", Long.class, title);
+        jdbc.update("update song set audio_hash = null, audio_content_type = null, audio_size = null where id = ?", id);
+        jdbc.update("merge into song_audio (song_id, music_data, content_type) key (song_id) values (?, ?, 'audio/mpeg')",
+                id, MP3_URI);
+        return id;
+    }
+
+    // Flyway-Skript erneut ausführen, als käme die Datenbank aus der Zeit davor
+    private void migrate(String script) {
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/" + script)).execute(dataSource);
+    }
+
+    private String contentType(long id) {
+        return jdbc.queryForObject("select content_type from song_audio where song_id = ?", String.class, id);
+    }
+
+    private double lobReads(String kind) {
+        return registry.get("yousong.audio.lob.reads").tag("kind", kind).counter().count();
+    }
+}
@@ -0,0 +1,204 @@
+package at.yousong.yousong_api.song;
+
+import at.yousong.yousong_api.artist.Artist;
+import at.yousong.yousong_api.artist.ArtistRepository;
+import at.yousong.yousong_api.genre.GenreDictionary;
+import at.yousong.yousong_api.genre.GenreRepository;
+import at.yousong.yousong_api.song.dto.CursorSliceDto;
+import at.yousong.yousong_api.song.dto.FacetedPage;
+import at.yousong.yousong_api.song.dto.FacetsDto;
+import at.yousong.yousong_api.song.dto.SongListDto;
+import at.yousong.yousong_api.song.filter.CatalogFilter;
+import at.yousong.yousong_api.song.filter.CatalogQuery;
+import at.yousong.yousong_api.song.filter.CatalogSort;
+import at.yousong.yousong_api.song.filter.FilteredCatalog;
+import at.yousong.yousong_api.song.search.SongSearchIndex;
+import at.yousong.yousong_api.user.Benutzer;
+import at.yousong.yousong_api.user.BenutzerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Katalogfilter: 12 Songs, abwechselnd von zwei Artists, alle "Facet Rock", jeder dritte auch "Facet Jazz",
+ * Längen 100 … 430 s in 30-s-Schritten, die ersten vier gehören "facet-owner".
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:song-catalog-filter;DB_CLOSE_DELAY=-1",
+        "yousong.cache.enabled=false",
+        "yousong.audio.storage-dir=${java.io.tmpdir}/yousong-test-audio",
+        "yousong.seed.async=false",
+        "yousong.audio.ingest-enabled=false"
+})
+class SongCatalogFilterTest {
+
+    @Autowired SongController songController;
+    @Autowired SongRepository songRepository;
+    @Autowired ArtistRepository artistRepository;
+    @Autowired BenutzerRepository benutzerRepository;
+    @Autowired GenreDictionary genres;
+    @Autowired GenreRepository genreRepository;
+    @Autowired NamedParameterJdbcTemplate namedJdbc;
+    @Autowired FilteredCatalog filteredCatalog;
+    @Autowired SongSearchIndex searchIndex;
+
+    private final List<Long> ids = new ArrayList<>();
+    private Artist even;
+    private Artist odd;
+    private int rock;
+    private int jazz;
+
+    @BeforeEach
+    void seed() {
+        Benutzer owner = benutzerRepository.findByUsername("facet-owner")
+                .orElseGet(() -> benutzerRepository.save(new Benutzer(null, "facet-owner", "x")));
+        even = artistRepository.save(new Artist(null, "Facet Even " + System.nanoTime(), null));
+        odd = artistRepository.save(new Artist(null, "Facet Odd " + System.nanoTime(), null));
+        // eigenes Genre pro Testlauf, damit die Zähler nicht von anderen Tests abhängen
+        String suffix = String.valueOf(System.nanoTime());
+        for (int i = 0; i < 12; i++) {
+            List<String> names = i % 3 == 0 ? List.of("Facet Rock " + suffix, "Facet Jazz " + suffix) : List.of("Facet Rock " + suffix);
+            Song song = new Song(null, "Facet Song " + (char) ('L' - i), names, 100 + 30 * i,
+                    i % 2 == 0 ? even : odd, null, i < 4 ? owner : null);
+            ids.add(songRepository.save(song).getId());
+        }
+        rock = genres.resolve("Facet Rock " + suffix);
+        jazz = genres.resolve("Facet Jazz " + suffix);
+    }
+
+    @AfterEach
+    void clearAuth() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void filtersByGenreAndArtistWithFacetCounts() {
+        FacetedPage<SongListDto> page = (FacetedPage<SongListDto>) catalog(0, 20,
+                new CatalogFilter(List.of(rock), List.of(even.getId()), null, null, null, null, true));
+
+        assertEquals(6, page.getTotalElements());
+        assertEquals(List.of(ids.get(0), ids.get(2), ids.get(4), ids.get(6), ids.get(8), ids.get(10)), idsOf(page.getContent()));
+
+        FacetsDto facets = page.getFacets();
+        assertEquals(List.of(6L), facets.artists.stream().map(c -> c.count).toList());
+        assertEquals(6, countOf(facets.genres, rock));
+        assertEquals(2, countOf(facets.genres, jazz));
+        // 100 | 160 | 220, 280 | 340, 400
+        assertEquals(List.of(1L, 1L, 2L, 2L), facets.lengths.stream().map(b -> b.count).toList());
+        assertEquals(List.of(0, 120, 180, 300), facets.lengths.stream().map(b -> b.minLength).toList());
+    }
+
+    @Test
+    void lengthRangeAndSortOptions() {
+        CatalogFilter byLength = new CatalogFilter(List.of(rock), null, 200, 300, null, "length", null);
+        assertEquals(List.of(ids.get(4), ids.get(5), ids.get(6)), idsOf(catalog(0, 20, byLength).getContent()));
+
+        CatalogFilter newest = new CatalogFilter(List.of(rock), null, 200, 300, null, "newest", null);
+        assertEquals(List.of(ids.get(6), ids.get(5), ids.get(4)), idsOf(catalog(0, 20, newest).getContent()));
+
+        // Titel laufen rückwärts zur ID ("L", "K", …)
+        CatalogFilter byTitle = new CatalogFilter(List.of(rock), null, 200, 300, null, "TITLE", null);
+        assertEquals(List.of(ids.get(6), ids.get(5), ids.get(4)), idsOf(catalog(0, 20, byTitle).getContent()));
+
+        Page<SongListDto> second = catalog(1, 2, new CatalogFilter(List.of(rock), null, null, null, null, "length", null));
+        assertEquals(12, second.getTotalElements());
+        assertEquals(List.of(ids.get(2), ids.get(3)), idsOf(second.getContent()));
+    }
+
+    @Test
+    void ownerMeNeedsLogin() {
+        CatalogFilter mine = new CatalogFilter(List.of(rock), null, null, null, "me", null, null);
+        assertThrows(AuthenticationCredentialsNotFoundException.class, () -> catalog(0, 20, mine));
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("facet-owner", null, List.of()));
+        assertEquals(ids.subList(0, 4), idsOf(catalog(0, 20, mine).getContent()));
+        assertThrows(IllegalArgumentException.class,
+                () -> catalog(0, 20, new CatalogFilter(null, null, null, null, "someone", null, null)));
+    }
+
+    @Test
+    void keysetWalksFilteredResults() {
+        CatalogFilter oddOnly = new CatalogFilter(List.of(rock), List.of(odd.getId()), null, null, null, null, null);
+        List<Long> seen = new ArrayList<>();
+        String cursor = "";
+        do {
+            CursorSliceDto<SongListDto> slice = songController.catalogAfter(cursor, 4, null, true, oddOnly, null).getBody();
+            assertEquals(6L, slice.approximateTotal);
+            seen.addAll(idsOf(slice.content));
+            cursor = slice.nextCursor;
+        } while (cursor != null);
+        assertEquals(List.of(ids.get(1), ids.get(3), ids.get(5), ids.get(7), ids.get(9), ids.get(11)), seen);
+
+        CatalogFilter byTitle = new CatalogFilter(List.of(rock), null, null, null, null, "title", null);
+        assertThrows(IllegalArgumentException.class, () -> songController.catalogAfter("", 4, null, false, byTitle, null));
+    }
+
+    @Test
+    void textFilterTreatsWildcardsLiterallyWithAndWithoutIndex() {
+        String token = "literal" + System.nanoTime();
+        for (String title : List.of(" 100% Pure", " 100x Pure", " a_b", " axb"))
+            songRepository.save(new Song(null, token + title, List.of(), 200, even, null));
+        searchIndex.rebuild();
+        // Suchindex noch im Aufbau → like
+        FilteredCatalog withoutIndex = new FilteredCatalog(namedJdbc, genres, genreRepository, mock(SongSearchIndex.class), 20);
+
+        for (String text : List.of(token + " 100%", token + " a_b", token)) {
+            CatalogQuery query = textQuery(text);
+            assertEquals(filteredCatalog.count(query), withoutIndex.count(query), text);
+        }
+        assertEquals(1, withoutIndex.count(textQuery(token + " 100%")));
+        assertEquals(1, withoutIndex.count(textQuery(token + " a_b")));
+        assertEquals(4, filteredCatalog.count(textQuery(token)));
+    }
+
+    @Test
+    void textFilterUsesEveryIndexHit() {
+        String token = "bulk" + System.nanoTime();
+        songRepository.saveAll(IntStream.range(0, 1_500)
+                .mapToObj(i -> new Song(null, token + " " + i, List.of(), 200, odd, null)).toList());
+        searchIndex.rebuild();
+
+        CatalogQuery query = textQuery(token);
+        assertEquals(1_500, filteredCatalog.count(query));
+        assertEquals(1_500, filteredCatalog.after(query, 0, 2_000).size());
+    }
+
+    @Test
+    void rejectsInvalidFilters() {
+        assertThrows(IllegalArgumentException.class,
+                () -> catalog(0, 20, new CatalogFilter(null, null, 300, 200, null, null, null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> catalog(0, 20, new CatalogFilter(null, null, null, null, null, "random", null)));
+    }
+
+    private static CatalogQuery textQuery(String text) {
+        return new CatalogQuery(text, List.of(), List.of(), null, null, null, CatalogSort.ID);
+    }
+
+    private Page<SongListDto> catalog(int page, int size, CatalogFilter filter) {
+        return songController.catalog(page, size, null, filter, null).getBody();
+    }
+
+    private static List<Long> idsOf(List<SongListDto> songs) {
+        return songs.stream().map(s -> s.id).toList();
+    }
+
+    private static long countOf(List<FacetsDto.Count> counts, int id) {
+        return counts.stream().filter(c -> c.id == id).mapToLong(c -> c.count).findFirst().orElse(0);
+    }
+}
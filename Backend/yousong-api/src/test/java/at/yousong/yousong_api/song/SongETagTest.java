@@ -0,0 +1,108 @@
+package at.yousong.yousong_api.song;
+
+import at.yousong.yousong_api.artist.Artist;
+import at.yousong.yousong_api.artist.ArtistRepository;
+import at.yousong.yousong_api.user.Benutzer;
+import at.yousong.yousong_api.user.BenutzerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bedingte Requests: 304 bei passendem If-None-Match (nur eine kleine Abfrage), 412 bei veraltetem If-Match.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:song-etag;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "yousong.audio.storage-dir=${java.io.tmpdir}/yousong-test-audio",
+        "yousong.seed.async=false",
+        "yousong.audio.ingest-enabled=false"
+})
+class SongETagTest {
+
+    @Autowired SongController songController;
+    @Autowired SongRepository songRepository;
+    @Autowired ArtistRepository artistRepository;
+    @Autowired BenutzerRepository benutzerRepository;
+    @Autowired EntityManagerFactory entityManagerFactory;
+    @Autowired TransactionTemplate tx;
+
+    private Song song;
+    private Artist artist;
+
+    @BeforeEach
+    void seed() {
+        Benutzer owner = benutzerRepository.findByUsername("etag-owner")
+                .orElseGet(() -> benutzerRepository.save(new Benutzer(null, "etag-owner", "x")));
+        artist = artistRepository.findAll().get(0);
+        song = songRepository.save(new Song(null, "ETag Song", List.of("Pop"), 180, artist, null, owner));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("etag-owner", null, List.of()));
+    }
+
+    @AfterEach
+    void clearAuth() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void detailAnswersIfNoneMatchWithNotModified() {
+        String etag = detail(null).getHeaders().getETag();
+        assertNotNull(etag);
+        assertFalse(etag.startsWith("W/"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ResponseEntity<?> conditional = detail(etag);
+        assertEquals(HttpStatus.NOT_MODIFIED, conditional.getStatusCode());
+        assertNull(conditional.getBody());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listETagChangesAfterCommit() {
+        String etag = songController.getAllSongs(0, 5, null).getHeaders().getETag();
+        assertTrue(etag.startsWith("W/"));
+        assertEquals(HttpStatus.NOT_MODIFIED, songController.getAllSongs(0, 5, etag).getStatusCode());
+
+        song.setTitle("ETag Song (renamed)");
+        songRepository.save(song);
+        assertEquals(HttpStatus.OK, songController.getAllSongs(0, 5, etag).getStatusCode());
+    }
+
+    @Test
+    void staleIfMatchIsRejectedWithPreconditionFailed() {
+        String etag = detail(null).getHeaders().getETag();
+
+        ResponseEntity<?> first = songController.updateSong(song.getId(), edit("First edit"), etag);
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertNotEquals(etag, first.getHeaders().getETag());
+
+        ResponseEntity<?> second = songController.updateSong(song.getId(), edit("Second edit"), etag);
+        assertEquals(HttpStatus.PRECONDITION_FAILED, second.getStatusCode());
+        assertEquals("First edit", songRepository.findById(song.getId()).orElseThrow().getTitle());
+    }
+
+    // wie mit Open-in-View: der Artist der Detailansicht wird lazy geladen
+    private ResponseEntity<?> detail(String ifNoneMatch) {
+        return tx.execute(status -> songController.getSongById(song.getId(), false, ifNoneMatch));
+    }
+
+    private Song edit(String title) {
+        return new Song(null, title, List.of("Pop"), 200, new Artist(artist.getId(), null, null), null);
+    }
+}
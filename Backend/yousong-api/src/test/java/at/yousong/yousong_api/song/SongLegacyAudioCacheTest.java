@@ -0,0 +1,61 @@
+package at.yousong.yousong_api.song;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Legacy-Audio (Data-URI in song_audio) wird pro Song-Version einmal dekodiert und danach aus dem
+ * Off-Heap-Cache ausgeliefert; eine neue Version lädt neu.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:legacy-audio;DB_CLOSE_DELAY=-1",
+        "yousong.audio.storage-dir=${java.io.tmpdir}/yousong-test-audio",
+        "yousong.seed.async=false",
+        "yousong.audio.ingest-enabled=false"
+})
+class SongLegacyAudioCacheTest {
+
+    @Autowired SongController songController;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired MeterRegistry registry;
+
+    @Test
+    void decodesOncePerVersion() throws Exception {
+        byte[] audio = new byte[300_000];
+        new Random(7).nextBytes(audio);
+        long id = jdbc.queryForObject("select id from song where title = 'Hello'", Long.class);
+        jdbc.update("update song set audio_hash = null, audio_content_type = null, audio_size = null where id = ?", id);
+        jdbc.update("insert into song_audio (song_id, music_data, content_type) values (?, ?, 'audio/mpeg')",
+                id, "data:audio/mpeg;base64," + Base64.getEncoder().encodeToString(audio));
+
+        double before = streamReads();
+        for (int i = 0; i < 3; i++) assertArrayEquals(audio, music(id));
+        assertEquals(1, streamReads() - before);
+
+        jdbc.update("update song set version = version + 1 where id = ?", id);
+        assertArrayEquals(audio, music(id));
+        assertEquals(2, streamReads() - before);
+    }
+
+    private byte[] music(long id) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertNull(songController.getSongMusic(id, new MockHttpServletRequest("GET", "/"), response));
+        assertEquals("audio/mpeg", response.getContentType());
+        assertEquals(response.getContentAsByteArray().length, response.getContentLengthLong());
+        return response.getContentAsByteArray();
+    }
+
+    private double streamReads() {
+        return registry.get("yousong.audio.lob.reads").tag("kind", "stream").counter().count();
+    }
+}
@@ -0,0 +1,97 @@
+package at.yousong.yousong_api.song;
+
+import at.yousong.yousong_api.artist.Artist;
+import at.yousong.yousong_api.artist.ArtistRepository;
+import at.yousong.yousong_api.genre.GenreDictionary;
+import at.yousong.yousong_api.song.dto.SongListDto;
+import at.yousong.yousong_api.song.filter.CatalogFilter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Eine Seite mit 100 Songs darf höchstens 3 SQL-Statements kosten (Zeilen, Genres, ggf. count) –
+ * unabhängig davon, wie viele Songs, Artists und Genres auf der Seite vorkommen.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:song-query-count;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "yousong.cache.enabled=false",
+        "yousong.audio.storage-dir=${java.io.tmpdir}/yousong-test-audio",
+        "yousong.seed.async=false",
+        "yousong.audio.ingest-enabled=false"
+})
+class SongListQueryCountTest {
+
+    private static final int PAGE = 100;
+
+    @Autowired SongController songController;
+    @Autowired SongRepository songRepository;
+    @Autowired ArtistRepository artistRepository;
+    @Autowired GenreDictionary genres;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void seed() {
+        if (songRepository.count() >= 2 * PAGE) return;
+        List<Artist> artists = artistRepository.findAll();
+        List<Song> songs = new ArrayList<>();
+        for (int i = 0; i < 2 * PAGE; i++) {
+            Artist artist = artists.get(i % artists.size());
+            songs.add(new Song(null, "Query Count Song " + i, List.of("Genre " + i % 7, "Count Genre"), 120, artist, null));
+        }
+        songRepository.saveAll(songs);
+    }
+
+    @Test
+    void offsetPageCostsAtMostThreeStatements() {
+        List<SongListDto> page = statements(() -> songController.getAllSongs(1, PAGE, null).getBody().getContent());
+        assertEquals(PAGE, page.size());
+        assertTrue(page.stream().allMatch(s -> s.artist.name != null && !s.genres.isEmpty()));
+    }
+
+    @Test
+    void keysetPageCostsAtMostThreeStatements() {
+        List<SongListDto> page = statements(() -> songController.getAllSongsAfter(SongCursor.encode(5), PAGE, false, null).getBody().content);
+        assertEquals(PAGE, page.size());
+        assertEquals(6L, page.get(0).id);
+    }
+
+    @Test
+    void catalogSearchCostsAtMostThreeStatements() {
+        List<SongListDto> page = statements(() -> songController.catalog(0, PAGE, "count genre", CatalogFilter.NONE, null).getBody().getContent());
+        assertEquals(PAGE, page.size());
+        assertTrue(page.stream().allMatch(s -> s.genres.contains("Count Genre")));
+    }
+
+    @Test
+    void repositoryFallbackMatchesSearchIndex() {
+        List<Long> viaRepository = songRepository.catalogRows("genre 3", genres.matchingIds("genre 3"), PageRequest.of(0, 2 * PAGE, Sort.by("id")))
+                .map(SongRow::id).getContent();
+        List<Long> viaIndex = songController.catalog(0, 2 * PAGE, "genre 3", CatalogFilter.NONE, null).getBody().map(s -> s.id).getContent();
+        assertEquals(viaRepository, viaIndex);
+        assertTrue(!viaIndex.isEmpty());
+    }
+
+    private <T> T statements(Supplier<T> call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        T result = call.get();
+        long count = statistics.getPrepareStatementCount();
+        assertTrue(count <= 3, "expected at most 3 SQL statements, was " + count);
+        return result;
+    }
+}
@@ -0,0 +1,165 @@
+package at.yousong.yousong_api.song.bulk;
+
+import at.yousong.yousong_api.artist.Artist;
+import at.yousong.yousong_api.artist.ArtistRepository;
+import at.yousong.yousong_api.song.Song;
+import at.yousong.yousong_api.song.SongRepository;
+import at.yousong.yousong_api.song.dto.ImportReportDto;
+import at.yousong.yousong_api.song.search.SongSearchIndex;
+import at.yousong.yousong_api.user.Benutzer;
+import at.yousong.yousong_api.user.BenutzerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk-Import über mehrere Chunks: Artists werden einmal angelegt, fehlerhafte Zeilen gemeldet,
+ * und JPA vergibt danach weiter IDs ohne Kollision. Importierte Songs landen ohne Neuaufbau im Suchindex. Der 1M-Durchlauf läuft nur mit {@code -Dyousong.bench=true}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:song-import;DB_CLOSE_DELAY=-1",
+        "yousong.import.chunk-size=100",
+        "yousong.audio.storage-dir=${java.io.tmpdir}/yousong-test-audio",
+        "yousong.seed.async=false",
+        "yousong.audio.ingest-enabled=false"
+})
+class SongImporterTest {
+
+    @Autowired SongImporter importer;
+    @Autowired SongRepository songRepository;
+    @Autowired ArtistRepository artistRepository;
+    @Autowired BenutzerRepository benutzerRepository;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired SongSearchIndex searchIndex;
+
+    private long ownerId;
+
+    @BeforeEach
+    void owner() {
+        ownerId = benutzerRepository.findByUsername("importer")
+                .orElseGet(() -> benutzerRepository.save(new Benutzer(null, "importer", "x"))).getId();
+    }
+
+    @Test
+    void importsNdjsonAcrossChunksAndReportsBadRows() throws IOException {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 1; i <= 250; i++) {
+            ndjson.append("{\"title\":\"Bulk Song ").append(i).append("\",\"artist\":\"Bulk Artist ").append(i % 3)
+                    .append("\",\"length\":").append(100 + i).append(",\"genres\":[\"Bulk\",\"Genre ").append(i % 2).append("\"]}\n");
+        }
+        ndjson.append("{\"title\":\"\",\"artist\":\"Bulk Artist 1\",\"length\":100}\n");
+        ndjson.append("not json\n");
+        ndjson.append("{\"title\":\"Too short\",\"artist\":{\"name\":\"bulk artist 2\"},\"length\":0}\n");
+
+        ImportReportDto report = importer.importSongs(reader(ndjson.toString()), RowParser.NDJSON, ownerId);
+
+        assertEquals(250, report.imported);
+        assertEquals(3, report.failed);
+        assertEquals(3, report.artistsCreated);
+        assertEquals(3, report.chunks);
+        assertEquals(List.of(251L, 252L, 253L), report.errors.stream().map(e -> e.line).toList());
+        assertEquals("Title must not be blank.", report.errors.get(0).message);
+        assertEquals(250, jdbc.queryForObject("select count(*) from song where title like 'Bulk Song %'", Integer.class));
+        assertEquals(500, jdbc.queryForObject(
+                "select count(*) from song_genre g join song s on s.id = g.song_id where s.title like 'Bulk Song %'", Integer.class));
+        // Genre-Zähler pro Chunk mitgepflegt
+        assertEquals(250, jdbc.queryForObject("select song_count from genre where normalized_name = 'bulk'", Integer.class));
+
+        // IDs kamen aus den Sequenzen: JPA legt danach ohne Kollision an
+        Artist artist = artistRepository.save(new Artist(null, "After Bulk Artist", null));
+        Song song = songRepository.save(new Song(null, "After Bulk", List.of("Pop"), 120, artist, null));
+        assertNotNull(song.getId());
+    }
+
+    @Test
+    void importsCsvWithQuotedFieldsAndExistingArtists() throws IOException {
+        String existing = artistRepository.findAll().get(0).getName();
+        String csv = """
+                length,title,artist,genres
+                200,"Hello, CSV",%s,Pop|Rock
+                180,"Say \"\"Hi\"\"",CSV Only Artist,
+                abc,Broken,CSV Only Artist,Pop
+                """.formatted(existing.toUpperCase());
+
+        ImportReportDto report = importer.importSongs(reader(csv), RowParser.CSV, ownerId);
+
+        assertEquals(2, report.imported);
+        assertEquals(1, report.artistsCreated);
+        assertEquals("Length must be a number.", report.errors.get(0).message);
+        assertEquals(existing, jdbc.queryForObject(
+                "select a.name from song s join artist a on a.id = s.artist_id where s.title = 'Hello, CSV'", String.class));
+        assertEquals(1, jdbc.queryForObject("select count(*) from song where title = 'Say \"Hi\"'", Integer.class));
+    }
+
+    @Test
+    void importedSongsAreIndexedPerChunk() throws IOException {
+        searchIndex.rebuild();
+        int before = searchIndex.songCount();
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 1; i <= 150; i++)
+            ndjson.append("{\"title\":\"Quokka Tune ").append(i).append("\",\"artist\":\"Wombat Band\",\"length\":120}\n");
+
+        importer.importSongs(reader(ndjson.toString()), RowParser.NDJSON, ownerId);
+
+        List<Long> ids = jdbc.queryForList("select id from song where title like 'Quokka Tune %' order by id", Long.class);
+        assertEquals(before + 150, searchIndex.songCount());
+        assertEquals(ids, searchIndex.matchingIds("quokka"));
+        // neuer Artist kam mit dem Chunk in den Index
+        assertEquals(ids, searchIndex.matchingIds("wombat"));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "yousong.bench", matches = "true")
+    void benchmarkMillionRows() throws IOException {
+        int songs = Integer.getInteger("yousong.bench.songs", 1_000_000);
+        ImportReportDto report = importer.importSongs(new BufferedReader(new GeneratedNdjson(songs)), RowParser.NDJSON, ownerId);
+        assertEquals(songs, report.imported);
+        System.out.printf("import: %,d songs, %,d artists in %,d ms (%,.0f rows/s)%n",
+                report.imported, report.artistsCreated, report.millis, report.imported * 1000.0 / report.millis);
+    }
+
+    private static BufferedReader reader(String text) {
+        return new BufferedReader(new StringReader(text));
+    }
+
+    // 🔹 Erzeugt die Zeilen beim Lesen, damit der Test selbst keinen Speicher für 1M Zeilen braucht
+    private static final class GeneratedNdjson extends Reader {
+        private final int songs;
+        private int next = 1;
+        private String current = "";
+        private int pos;
+
+        GeneratedNdjson(int songs) {
+            this.songs = songs;
+        }
+
+        @Override
+        public int read(char[] buf, int off, int len) {
+            if (pos == current.length()) {
+                if (next > songs) return -1;
+                current = "{\"title\":\"Generated " + next + "\",\"artist\":\"Generated Artist " + next / 50
+                        + "\",\"length\":" + (120 + next % 240) + ",\"genres\":[\"Gen " + next % 12 + "\"]}\n";
+                pos = 0;
+                next++;
+            }
+            int n = Math.min(len, current.length() - pos);
+            current.getChars(pos, pos + n, buf, off);
+            pos += n;
+            return n;
+        }
+
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,242 @@
+package at.yousong.yousong_api.song.search;
+
+import at.yousong.yousong_api.genre.GenreDictionary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Index gegen die bisherige LIKE-Abfrage (gleiche Tabellen, gleiche Treffer); ein gescheiterter Neuaufbau
+ * lässt den bisherigen Stand stehen.
+ * Der Benchmark auf einem synthetischen 1M-Katalog läuft nur mit {@code -Dyousong.bench=true}
+ * (Größe über {@code -Dyousong.bench.songs}).
+ */
+class SongSearchIndexTest {
+
+    private static final String[] WORDS = {"love", "night", "summer", "fire", "dream", "heart", "rain", "blue",
+            "road", "light", "dance", "shadow", "river", "golden", "electric", "city", "storm", "moon", "wild", "echo"};
+    private static final String[] GENRES = {"Pop", "Rock", "Hip-Hop", "Jazz", "Electronic", "Metal", "Folk",
+            "Indie", "Soul", "Classical", "Country", "Reggae"};
+
+    // 🔹 Bisherige Abfrage (SongRepository.catalogNoGenres) in SQL
+    private static final String LIKE_WHERE = """
+            from song s
+            join artist a on a.id = s.artist_id
+            left join song_genre sg on sg.song_id = s.id
+            left join genre g on g.id = sg.genre_id
+            where lower(s.title) like ? or lower(a.name) like ? or g.normalized_name like ?
+            """;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @AfterEach
+    void close() {
+        if (dataSource != null) dataSource.destroy();
+    }
+
+    @Test
+    void sameHitsAsLikeQuery() {
+        createCatalog(2_000, 50);
+        SongSearchIndex index = new SongSearchIndex(jdbc, new GenreDictionary(jdbc));
+        index.rebuild();
+
+        for (String q : List.of("lo", "love", "ve ni", "ist 7", "rock", "hop", "zz", "ELECTRIC", "xyz")) {
+            assertEquals(likeIds(q), index.matchingIds(q), "query " + q);
+        }
+    }
+
+    @Test
+    void incrementalUpdatesFollowCommittedState() {
+        createCatalog(100, 5);
+        SongSearchIndex index = new SongSearchIndex(jdbc, new GenreDictionary(jdbc));
+        index.rebuild();
+
+        jdbc.update("insert into song (id, title, artist_id) values (1000, 'Zebra Crossing', 1)");
+        jdbc.update("insert into genre (name, normalized_name) values ('Ska', 'ska')");
+        jdbc.update("insert into song_genre (song_id, position, genre_id) values (1000, 0, (select id from genre where name = 'Ska'))");
+        index.refreshSong(1000);
+        assertEquals(List.of(1000L), index.matchingIds("zebra"));
+        assertEquals(List.of(1000L), index.matchingIds("ska"));
+
+        jdbc.update("update song set title = 'Horse Crossing' where id = 1000");
+        index.refreshSong(1000);
+        assertTrue(index.matchingIds("zebra").isEmpty());
+        assertEquals(List.of(1000L), index.search("horse"));
+
+        jdbc.update("update artist set name = 'Renamed Artist' where id = 1");
+        index.upsertArtist(1, "Renamed Artist");
+        assertEquals(likeIds("renamed"), index.matchingIds("renamed"));
+
+        index.removeSong(1000);
+        assertTrue(index.matchingIds("horse").isEmpty());
+    }
+
+    @Test
+    void failedRebuildKeepsPreviousIndex() {
+        createCatalog(100, 5);
+        SongSearchIndex index = new SongSearchIndex(jdbc, new GenreDictionary(jdbc));
+        index.rebuild();
+        List<Long> before = index.matchingIds("love");
+
+        jdbc.execute("alter table song_genre rename to song_genre_gone");
+        assertThrows(RuntimeException.class, index::rebuild);
+
+        assertTrue(index.isReady());
+        assertEquals(before, index.matchingIds("love"));
+        assertEquals(100, index.songCount());
+    }
+
+    @Test
+    void refreshSongsTakesManyIdsAtOnce() {
+        createCatalog(0, 1);
+        SongSearchIndex index = new SongSearchIndex(jdbc, new GenreDictionary(jdbc));
+        index.rebuild();
+
+        jdbc.update("insert into artist (id, name) values (2, 'Fresh Artist')");
+        jdbc.update("insert into song (id, title, artist_id) values (1, 'Moon One', 2), (2, 'Moon Two', 2)");
+        index.refreshSongs(List.of(1L, 2L, 3L));
+
+        assertEquals(List.of(1L, 2L), index.matchingIds("moon"));
+        assertEquals(List.of(1L, 2L), index.matchingIds("fresh"));
+    }
+
+    @Test
+    void searchRanksTitlePrefixFirst() {
+        createCatalog(0, 1);
+        jdbc.update("insert into song (id, title, artist_id) values (1, 'Blue Moon', 1), (2, 'Moonlight', 1), (3, 'Honeymoon', 1)");
+        SongSearchIndex index = new SongSearchIndex(jdbc, new GenreDictionary(jdbc));
+        index.rebuild();
+
+        assertEquals(List.of(2L, 1L, 3L), index.search("moon"));
+    }
+
+    @Test
+    void idsBeyondIntRange() {
+        long big = Integer.MAX_VALUE + 10L;
+        createCatalog(0, 1);
+        jdbc.update("insert into artist (id, name) values (?, 'Big Artist')", big);
+        jdbc.update("insert into song (id, title, artist_id) values (1, 'Moon River', 1), (?, 'Moon Walk', ?)", big + 1, big);
+        SongSearchIndex index = new SongSearchIndex(jdbc, new GenreDictionary(jdbc));
+        index.rebuild();
+        assertEquals(List.of(1L, big + 1), index.matchingIds("moon"));
+        assertEquals(List.of(big + 1), index.matchingIds("big art"));
+
+        // Updates nach dem Commit (SearchIndexListener) mit großen IDs
+        jdbc.update("insert into song (id, title, artist_id) values (?, 'Moonshine', ?)", big + 2, big);
+        index.refreshSong(big + 2);
+        index.upsertArtist(big, "Huge Artist");
+        // gleiche Relevanz → nach ID
+        assertEquals(List.of(1L, big + 1, big + 2), index.search("moon"));
+        assertEquals(List.of(big + 1, big + 2), index.matchingIds("huge"));
+
+        index.removeSong(big + 1);
+        index.refreshSong(1);
+        assertEquals(List.of(1L, big + 2), index.matchingIds("moon"));
+        assertEquals(2, index.songCount());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "yousong.bench", matches = "true")
+    void benchmarkAgainstLikeQuery() {
+        int songs = Integer.getInteger("yousong.bench.songs", 1_000_000);
+        long t0 = System.nanoTime();
+        createCatalog(songs, songs / 50);
+        long t1 = System.nanoTime();
+        SongSearchIndex index = new SongSearchIndex(jdbc, new GenreDictionary(jdbc));
+        index.rebuild();
+        long t2 = System.nanoTime();
+        System.out.printf("catalog: %,d songs loaded in %d ms, index built in %d ms%n",
+                songs, (t1 - t0) / 1_000_000, (t2 - t1) / 1_000_000);
+
+        for (String q : List.of("lo", "love", "dream sh", "artist 123", "jazz", "electric moon")) {
+            // wie der Katalog-Endpoint: erste Seite (5) + Gesamtanzahl
+            long likeNanos = time(() -> {
+                jdbc.queryForObject("select count(distinct s.id) " + LIKE_WHERE, Long.class, like(q), like(q), like(q));
+                jdbc.queryForList("select s.id " + LIKE_WHERE + " group by s.id order by s.id limit 5", Long.class,
+                        like(q), like(q), like(q));
+            });
+            long indexNanos = time(() -> {
+                List<Long> ids = index.matchingIds(q);
+                List<Long> page = ids.subList(0, Math.min(5, ids.size()));
+                if (!page.isEmpty()) jdbc.queryForList("select s.id, s.title, a.name from song s join artist a on a.id = s.artist_id where s.id in ("
+                        + String.join(",", page.stream().map(String::valueOf).toList()) + ")");
+            });
+            System.out.printf("q=%-14s hits=%,9d like=%8.1f ms index=%7.2f ms%n",
+                    q, index.matchingIds(q).size(), likeNanos / 1e6, indexNanos / 1e6);
+        }
+    }
+
+    private List<Long> likeIds(String q) {
+        return jdbc.queryForList("select s.id " + LIKE_WHERE + " group by s.id order by s.id", Long.class,
+                like(q), like(q), like(q));
+    }
+
+    private static String like(String q) {
+        return "%" + q.toLowerCase() + "%";
+    }
+
+    private static long time(Runnable action) {
+        action.run(); // Warm-up
+        int rounds = 3;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) action.run();
+        return (System.nanoTime() - start) / rounds;
+    }
+
+    private void createCatalog(int songs, int artists) {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:search" + System.nanoTime(), "sa", "", true);
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table artist (id bigint primary key, name varchar(200) not null)");
+        jdbc.execute("create table song (id bigint primary key, title varchar(200) not null, artist_id bigint not null)");
+        jdbc.execute("""
+                create table genre (id integer generated by default as identity primary key, name varchar(80) not null,
+                                    normalized_name varchar(80) not null unique, song_count integer default 0 not null)""");
+        jdbc.execute("create table song_genre (song_id bigint not null, position integer not null, genre_id integer not null, primary key (song_id, position))");
+        // wie das Hibernate-Schema: Fremdschlüssel (H2 legt dafür Indizes an)
+        jdbc.execute("alter table song add constraint fk_song_artist foreign key (artist_id) references artist");
+        jdbc.execute("alter table song_genre add constraint fk_song_genre_song foreign key (song_id) references song");
+        jdbc.execute("alter table song_genre add constraint fk_song_genre_genre foreign key (genre_id) references genre");
+        for (String genre : GENRES) {
+            jdbc.update("insert into genre (name, normalized_name) values (?, ?)", genre, genre.toLowerCase());
+            jdbc.update("insert into genre (name, normalized_name) values (?, ?)", genre + " Fusion", genre.toLowerCase() + " fusion");
+        }
+
+        List<Object[]> artistRows = new ArrayList<>();
+        for (int a = 1; a <= artists; a++) artistRows.add(new Object[]{a, "Artist " + a});
+        jdbc.batchUpdate("insert into artist (id, name) values (?, ?)", artistRows);
+
+        Random random = new Random(7);
+        List<Object[]> songRows = new ArrayList<>();
+        List<Object[]> genreRows = new ArrayList<>();
+        for (int id = 1; id <= songs; id++) {
+            StringBuilder title = new StringBuilder();
+            for (int w = 1 + random.nextInt(3); w >= 0; w--) {
+                if (!title.isEmpty()) title.append(' ');
+                String word = WORDS[random.nextInt(WORDS.length)];
+                title.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+            }
+            songRows.add(new Object[]{id, title.toString(), 1 + random.nextInt(artists)});
+            // IDs wie oben angelegt: 2i + 1 = GENRES[i], 2i + 2 = GENRES[i] + " Fusion"
+            genreRows.add(new Object[]{id, 0, 2 * random.nextInt(GENRES.length) + 1});
+            if (random.nextBoolean()) genreRows.add(new Object[]{id, 1, 2 * random.nextInt(GENRES.length) + 2});
+
+            if (songRows.size() == 10_000 || id == songs) {
+                jdbc.batchUpdate("insert into song (id, title, artist_id) values (?, ?, ?)", songRows);
+                jdbc.batchUpdate("insert into song_genre (song_id, position, genre_id) values (?, ?, ?)", genreRows);
+                songRows.clear();
+                genreRows.clear();
+            }
+        }
+    }
+}
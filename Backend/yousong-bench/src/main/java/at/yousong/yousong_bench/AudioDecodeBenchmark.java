@@ -0,0 +1,45 @@
+package at.yousong.yousong_bench;
+
+import at.yousong.yousong_api.audio.DataUri;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Legacy-Audio als Data-URI: früher komplett per {@code Base64.getDecoder().decode(...)} in ein byte[]
+ * (alter {@code getSongMusic}), heute gestreamt über {@link DataUri#openStream()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AudioDecodeBenchmark {
+
+    @Param({"1048576", "8388608"})
+    int bytes;
+
+    String dataUri;
+
+    @Setup
+    public void setup() {
+        byte[] audio = new byte[bytes];
+        new Random(1).nextBytes(audio);
+        dataUri = "data:audio/mpeg;base64," + Base64.getEncoder().encodeToString(audio);
+    }
+
+    @Benchmark
+    public byte[] decodeToArray() {
+        return Base64.getDecoder().decode(dataUri.substring(dataUri.indexOf(',') + 1));
+    }
+
+    @Benchmark
+    public long decodeStreaming() throws IOException {
+        return DataUri.parse(dataUri).openStream().transferTo(OutputStream.nullOutputStream());
+    }
+}
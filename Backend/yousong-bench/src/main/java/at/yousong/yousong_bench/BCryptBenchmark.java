@@ -0,0 +1,35 @@
+package at.yousong.yousong_bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/** Kosten eines Logins bzw. einer Registrierung mit dem Encoder aus {@code SecurityConfig} (Stärke 10). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BCryptBenchmark {
+
+    BCryptPasswordEncoder encoder;
+    String hash;
+
+    @Setup
+    public void setup() {
+        encoder = new BCryptPasswordEncoder();
+        hash = encoder.encode("password");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("password", hash);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("password");
+    }
+}
@@ -0,0 +1,79 @@
+package at.yousong.yousong_bench;
+
+import at.yousong.yousong_api.artist.Artist;
+import at.yousong.yousong_api.song.Song;
+import at.yousong.yousong_api.song.dto.ArtistRefDto;
+import at.yousong.yousong_api.song.dto.AudioRefDto;
+import at.yousong.yousong_api.song.dto.SongDetailDto;
+import at.yousong.yousong_api.song.dto.SongListDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Mapping Song → {@link SongDetailDto} und JSON-Serialisierung von Detail und Katalogseite (wie MVC sie schreibt). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoBenchmark {
+
+    @Param({"20", "100"})
+    int pageSize;
+
+    ObjectMapper objectMapper;
+    Song song;
+    SongDetailDto detail;
+    Page<SongListDto> page;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Artist artist = new Artist(7L, "Imagine Dragons", "American pop rock band");
+        song = new Song(42L, "Believer", List.of("Alternative Rock", "Pop Rock"), 204, artist, null);
+        song.setVersion(3L);
+        song.setAudioHash("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08");
+        song.setAudioContentType("audio/mpeg");
+        song.setAudioSize(3_264_000L);
+        detail = toDto();
+
+        List<SongListDto> rows = new ArrayList<>();
+        for (long id = 1; id <= pageSize; id++) {
+            rows.add(new SongListDto(id, "Song " + id, 180 + (int) id, new ArtistRefDto(id % 10, "Artist " + id % 10),
+                    List.of("Pop", "Genre " + id % 7)));
+        }
+        page = new PageImpl<>(rows, PageRequest.of(3, pageSize, Sort.by("id")), 10_000);
+    }
+
+    @Benchmark
+    public SongDetailDto toDto() {
+        AudioRefDto audio = new AudioRefDto("/api/songs/" + song.getId() + "/music", song.getAudioHash(),
+                song.getAudioContentType(), song.getAudioSize());
+        return SongDetailDto.of(song, song.getGenres(), audio);
+    }
+
+    @Benchmark
+    public byte[] serializeDetail() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(detail);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializeDetail() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(toDto());
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
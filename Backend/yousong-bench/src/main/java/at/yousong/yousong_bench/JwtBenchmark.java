@@ -0,0 +1,35 @@
+package at.yousong.yousong_bench;
+
+import at.yousong.yousong_api.security.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Token ausstellen (Login) und prüfen (jeder authentifizierte Request ohne Treffer im AuthCache). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    JwtUtil jwtUtil;
+    String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil("ChangeThis_AtLeast32Chars_Long_Secret_Key_123456", 3_600_000);
+        token = jwtUtil.generateToken("hugo");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("hugo");
+    }
+
+    @Benchmark
+    public String validateAndExtractUsername() {
+        return jwtUtil.validateAndExtractUsername(token);
+    }
+}
@@ -0,0 +1,87 @@
+package at.yousong.yousong_bench;
+
+import at.yousong.yousong_api.YousongApiApplication;
+import at.yousong.yousong_api.db.IdSequences;
+import at.yousong.yousong_api.genre.GenreDictionary;
+import at.yousong.yousong_api.song.SongRepository;
+import at.yousong.yousong_api.song.SongRow;
+import at.yousong.yousong_api.song.search.SongSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suchabfragen aus {@link SongRepository} (LIKE über Titel, Artist, Genres) gegen den {@link SongSearchIndex},
+ * auf einer In-Memory-H2 mit {@link SyntheticCatalog}. Startet die Anwendung ohne Webserver; pro Kataloggröße
+ * ein eigener Fork. Nur eine Größe: {@code -p songs=10000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SearchBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int songs;
+
+    @Param({"love", "dream sh", "artist 12"})
+    String q;
+
+    ConfigurableApplicationContext app;
+    SongRepository songRepository;
+    GenreDictionary genres;
+    SongSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        app = new SpringApplicationBuilder(YousongApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "--spring.h2.console.enabled=false",
+                        "--yousong.audio.migrate-on-startup=false",
+                        "--yousong.audio.storage-dir=" + System.getProperty("java.io.tmpdir") + "/yousong-bench-audio",
+                        "--logging.level.root=WARN");
+        songRepository = app.getBean(SongRepository.class);
+        genres = app.getBean(GenreDictionary.class);
+        index = app.getBean(SongSearchIndex.class);
+        SyntheticCatalog.load(app.getBean(JdbcTemplate.class), app.getBean(IdSequences.class), songs);
+        index.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    /** {@code GET /api/songs/search} ohne Index: alle Treffer. */
+    @Benchmark
+    public List<SongRow> repositorySearch() {
+        return songRepository.searchRows(q, GenreDictionary.orNone(genres.matchingIds(q)));
+    }
+
+    /** {@code GET /api/songs/catalog?q=} ohne Index: erste Seite plus count-Abfrage. */
+    @Benchmark
+    public Page<SongRow> repositoryCatalogPage() {
+        return songRepository.catalogRows(q, GenreDictionary.orNone(genres.matchingIds(q)), PageRequest.of(0, 20, Sort.by("id")));
+    }
+
+    @Benchmark
+    public List<Long> indexMatchingIds() {
+        return index.matchingIds(q);
+    }
+
+    @Benchmark
+    public List<Long> indexSearch() {
+        return index.search(q);
+    }
+}
@@ -0,0 +1,81 @@
+package at.yousong.yousong_bench;
+
+import at.yousong.yousong_api.db.IdSequences;
+import at.yousong.yousong_api.genre.GenreDictionary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetischer Katalog per JDBC-Batch (JPA wäre für 1M Songs zu langsam): Titel aus 2–4 Wörtern,
+ * ein Artist pro 50 Songs, ein bis zwei Genres. IDs kommen aus denselben Sequenzen wie bei JPA ({@link IdSequences}),
+ * damit spätere Inserts der Anwendung nicht kollidieren. Genres landen im Wörterbuch, die Zähler werden am Ende
+ * einmal neu berechnet ({@link GenreDictionary#recount}).
+ */
+public final class SyntheticCatalog {
+
+    public static final String[] WORDS = {"love", "night", "summer", "fire", "dream", "heart", "rain", "blue",
+            "road", "light", "dance", "shadow", "river", "golden", "electric", "city", "storm", "moon", "wild", "echo"};
+    private static final String[] GENRES = {"Pop", "Rock", "Hip-Hop", "Jazz", "Electronic", "Metal", "Folk",
+            "Indie", "Soul", "Classical", "Country", "Reggae"};
+    private static final int BATCH = 10_000;
+
+    /** Erste und letzte ID der erzeugten Songs. */
+    public record Range(long firstSongId, long lastSongId) {}
+
+    private SyntheticCatalog() {}
+
+    public static Range load(JdbcTemplate jdbc, IdSequences sequences, int songs) {
+        int artists = Math.max(1, songs / 50);
+        long[] artistIds = sequences.allocate(IdSequences.ARTIST, artists);
+        // ein Aufruf = aufeinanderfolgende Blöcke, solange niemand parallel IDs zieht
+        long[] songIds = sequences.allocate(IdSequences.SONG, songs);
+
+        List<Object[]> artistRows = new ArrayList<>();
+        for (int a = 1; a <= artists; a++) artistRows.add(new Object[]{artistIds[a - 1], "Artist " + a});
+        jdbc.batchUpdate("insert into artist (id, name) values (?, ?)", artistRows);
+
+        // 12 Genres plus je eine "Fusion"-Variante: Index i → GENRES[i], i + 12 → GENRES[i] + " Fusion"
+        int[] genreIds = new int[GENRES.length * 2];
+        for (int g = 0; g < genreIds.length; g++) {
+            String name = g < GENRES.length ? GENRES[g] : GENRES[g - GENRES.length] + " Fusion";
+            genreIds[g] = genreId(jdbc, name);
+        }
+
+        Random random = new Random(7);
+        List<Object[]> songRows = new ArrayList<>(BATCH);
+        List<Object[]> genreRows = new ArrayList<>(BATCH * 2);
+        for (int i = 1; i <= songs; i++) {
+            long id = songIds[i - 1];
+            StringBuilder title = new StringBuilder();
+            for (int w = 1 + random.nextInt(3); w >= 0; w--) {
+                if (!title.isEmpty()) title.append(' ');
+                String word = WORDS[random.nextInt(WORDS.length)];
+                title.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+            }
+            songRows.add(new Object[]{id, title.toString(), 120 + random.nextInt(240), artistIds[random.nextInt(artists)]});
+            genreRows.add(new Object[]{id, 0, genreIds[random.nextInt(GENRES.length)]});
+            if (random.nextBoolean()) genreRows.add(new Object[]{id, 1, genreIds[GENRES.length + random.nextInt(GENRES.length)]});
+
+            if (songRows.size() == BATCH || i == songs) {
+                jdbc.batchUpdate("insert into song (id, title, length, artist_id, version, modified_at) values (?, ?, ?, ?, 0, current_timestamp)", songRows);
+                jdbc.batchUpdate("insert into song_genre (song_id, position, genre_id) values (?, ?, ?)", genreRows);
+                songRows.clear();
+                genreRows.clear();
+            }
+        }
+        GenreDictionary.recount(jdbc);
+        return new Range(songIds[0], songIds[songs - 1]);
+    }
+
+    // vorhandenes Genre wiederverwenden (mehrere Läufe gegen dieselbe DB), sonst anlegen
+    private static int genreId(JdbcTemplate jdbc, String name) {
+        String key = GenreDictionary.normalize(name);
+        List<Integer> ids = jdbc.queryForList("select id from genre where normalized_name = ?", Integer.class, key);
+        if (!ids.isEmpty()) return ids.get(0);
+        jdbc.update("insert into genre (name, normalized_name, song_count) values (?, ?, 0)", name, key);
+        return jdbc.queryForObject("select id from genre where normalized_name = ?", Integer.class, key);
+    }
+}
@@ -0,0 +1,49 @@
+package at.yousong.yousong_bench.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Latenzen (µs, HdrHistogram) und Zähler eines Endpoints; von allen Clients gleichzeitig beschrieben. */
+final class EndpointStats {
+
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    final String name;
+    final Histogram latencies = new ConcurrentHistogram(MAX_MICROS, 3);
+    final LongAdder errors = new LongAdder();
+    final LongAdder conflicts = new LongAdder();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    /** {@code status} 0 = keine Antwort (Timeout, Verbindungsfehler). */
+    void record(long startNanos, int status, Outcome outcome) {
+        statuses.computeIfAbsent(status, k -> new LongAdder()).increment();
+        latencies.recordValue(Math.min(MAX_MICROS, (System.nanoTime() - startNanos) / 1_000));
+        switch (outcome) {
+            case ERROR -> errors.increment();
+            case CONFLICT -> conflicts.increment();
+            case OK -> { }
+        }
+    }
+
+    Map<String, Long> statuses() {
+        Map<String, Long> result = new TreeMap<>();
+        statuses.forEach((status, count) -> result.put(String.valueOf(status), count.sum()));
+        return result;
+    }
+
+    long requests() {
+        return latencies.getTotalCount();
+    }
+
+    enum Outcome { OK, CONFLICT, ERROR }
+}
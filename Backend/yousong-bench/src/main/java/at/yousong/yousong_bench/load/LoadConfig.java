@@ -0,0 +1,55 @@
+package at.yousong.yousong_bench.load;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parameter des Lastgenerators als {@code key=value}-Argumente, z. B.
+ * {@code clients=100 seconds=60 mix=browse:50,search:30,detail:20 threshold=0.1}.
+ * {@code min-requests}: unter so vielen Requests je Endpoint werden p99 und Fehlerquote nicht verglichen.
+ */
+record LoadConfig(int clients, int warmupSeconds, int seconds, int songs, int hotSongs, Map<String, Integer> mix,
+                  boolean virtualThreads, Path out, Path baseline, double threshold, int minRequests,
+                  boolean writeBaseline) {
+
+    static final String DEFAULT_MIX = "browse:35,search:25,detail:20,audio:10,login:3,write:7";
+
+    static LoadConfig parse(String... args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 1) throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            values.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        LoadConfig config = new LoadConfig(
+                Integer.parseInt(values.getOrDefault("clients", "50")),
+                Integer.parseInt(values.getOrDefault("warmup", "5")),
+                Integer.parseInt(values.getOrDefault("seconds", "30")),
+                Integer.parseInt(values.getOrDefault("songs", "10000")),
+                Integer.parseInt(values.getOrDefault("hot-songs", "5")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Boolean.parseBoolean(values.getOrDefault("virtual", "false")),
+                Path.of(values.getOrDefault("out", "target/load")),
+                Path.of(values.getOrDefault("baseline", "load-baseline.json")),
+                Double.parseDouble(values.getOrDefault("threshold", "0.2")),
+                Integer.parseInt(values.getOrDefault("min-requests", "200")),
+                Boolean.parseBoolean(values.getOrDefault("write-baseline", "false")));
+        if (config.clients < 1 || config.seconds < 1 || config.songs < 1 || config.hotSongs < 1)
+            throw new IllegalArgumentException("clients, seconds, songs and hot-songs must be positive");
+        return config;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.split(":");
+            if (kv.length != 2 || !Scenario.OPERATIONS.contains(kv[0].trim()))
+                throw new IllegalArgumentException("Invalid mix entry '" + part + "', operations: " + Scenario.OPERATIONS);
+            weights.put(kv[0].trim(), Integer.parseInt(kv[1].trim()));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0)
+            throw new IllegalArgumentException("Mix weights must add up to more than 0");
+        return weights;
+    }
+}
@@ -0,0 +1,160 @@
+package at.yousong.yousong_bench.load;
+
+import at.yousong.yousong_api.YousongApiApplication;
+import at.yousong.yousong_api.audio.BlobStore;
+import at.yousong.yousong_api.cache.ReadCache;
+import at.yousong.yousong_api.db.IdSequences;
+import at.yousong.yousong_api.song.search.SongSearchIndex;
+import at.yousong.yousong_bench.SyntheticCatalog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lokaler Lastgenerator: startet {@link YousongApiApplication} auf einem freien Port mit In-Memory-H2 und
+ * synthetischem Katalog (inkl. Audio), treibt {@code clients} parallele Clients (geschlossene Schleife, ohne
+ * Denkpause) mit dem konfigurierten {@link Scenario}-Mix und schreibt das Ergebnis nach {@code out}.
+ * Mit vorhandener Baseline endet der Lauf mit Exit-Code 1, wenn ein Endpoint über {@code threshold} regressiert;
+ * {@code write-baseline=true} überschreibt die Baseline mit dem aktuellen Lauf.
+ */
+public final class LoadGenerator {
+
+    static final String LOGIN_FORM = "username=hugo&password=password";
+    private static final int AUDIO_BYTES = 256 * 1024;
+
+    private LoadGenerator() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.parse(args);
+        List<String> regressions;
+        try (ConfigurableApplicationContext app = start(config)) {
+            regressions = run(config, app);
+        }
+        if (!regressions.isEmpty()) {
+            System.out.println("\nRegressions against " + config.baseline() + " (threshold " + config.threshold() + "):");
+            regressions.forEach(r -> System.out.println("  " + r));
+            System.exit(1);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(LoadConfig config) throws Exception {
+        return new SpringApplicationBuilder(YousongApiApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + config.virtualThreads(),
+                "--spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+                "--spring.h2.console.enabled=false",
+                "--yousong.audio.migrate-on-startup=false",
+                "--yousong.audio.storage-dir=" + Files.createTempDirectory("yousong-load-audio"),
+                // ein Benutzer für alle Clients: Login-Drosselung darf die Messung nicht verfälschen
+                "--yousong.auth.max-failures-per-user=1000000",
+                "--yousong.auth.max-failures-per-ip=1000000",
+                "--logging.level.root=WARN");
+    }
+
+    private static List<String> run(LoadConfig config, ConfigurableApplicationContext app) throws Exception {
+        JdbcTemplate jdbc = app.getBean(JdbcTemplate.class);
+        SyntheticCatalog.Range catalog = SyntheticCatalog.load(jdbc, app.getBean(IdSequences.class), config.songs());
+        attachAudio(app, jdbc, catalog);
+        // Katalog kam per JDBC an JPA vorbei: Index und Cache neu aufsetzen
+        app.getBean(SongSearchIndex.class).rebuild();
+        app.getBean(ReadCache.class).clear();
+        // "Heiße" Songs für Updates: die ersten Katalog-Songs, im Besitz des Seed-Benutzers
+        List<Long> hotSongs = new ArrayList<>();
+        for (long id = catalog.firstSongId(); hotSongs.size() < Math.min(config.hotSongs(), config.songs()); id++) hotSongs.add(id);
+        jdbc.update("update song set owner_id = (select id from benutzer where username = 'hugo') where id between ? and ?",
+                hotSongs.getFirst(), hotSongs.getLast());
+
+        int port = ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+        String baseUrl = "http://localhost:" + port;
+        ObjectMapper json = app.getBean(ObjectMapper.class);
+        LoadReport report = new LoadReport(json);
+        try (HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10)).build()) {
+            Scenario scenario = new Scenario(http, baseUrl, json, catalog, hotSongs, login(http, baseUrl, json));
+            System.out.printf("Load: %d clients, %d s (+%d s warm-up), %,d songs, mix %s, virtual threads %s%n",
+                    config.clients(), config.seconds(), config.warmupSeconds(), config.songs(), config.mix(),
+                    config.virtualThreads());
+
+            Map<String, EndpointStats> stats;
+            double seconds;
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                long stopAt = System.nanoTime() + (config.warmupSeconds() + config.seconds()) * 1_000_000_000L;
+                List<String> weighted = weighted(config.mix());
+                for (int c = 0; c < config.clients(); c++) {
+                    clients.submit(() -> {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        while (System.nanoTime() < stopAt) scenario.run(weighted.get(random.nextInt(weighted.size())));
+                    });
+                }
+                Thread.sleep(config.warmupSeconds() * 1000L);
+                scenario.reset();
+                long measureStart = System.nanoTime();
+                clients.shutdown();
+                clients.awaitTermination(config.seconds() + 60L, TimeUnit.SECONDS);
+                seconds = (System.nanoTime() - measureStart) / 1e9;
+                stats = scenario.reset();
+            }
+
+            LoadReport.Result result = LoadReport.summarize(config, stats, seconds);
+            report.print(result, System.out);
+            report.write(result, stats, config.out());
+            System.out.println("\nResults written to " + config.out().toAbsolutePath());
+
+            if (config.writeBaseline()) {
+                report.writeBaseline(result, config.baseline());
+                System.out.println("Baseline written to " + config.baseline().toAbsolutePath());
+                return List.of();
+            }
+            if (!Files.exists(config.baseline())) {
+                System.out.println("No baseline at " + config.baseline() + ", skipping comparison");
+                return List.of();
+            }
+            return report.compare(result, config.baseline(), config.threshold(), config.minRequests());
+        }
+    }
+
+    // 🔹 Eine synthetische MP3-Datei im BlobStore, von allen Katalog-Songs referenziert
+    private static void attachAudio(ConfigurableApplicationContext app, JdbcTemplate jdbc, SyntheticCatalog.Range catalog) {
+        byte[] audio = new byte[AUDIO_BYTES];
+        new Random(3).nextBytes(audio);
+        BlobStore.StoredBlob blob = app.getBean(BlobStore.class).store(new ByteArrayInputStream(audio), "audio/mpeg");
+        int songs = jdbc.update("update song set audio_hash = ?, audio_content_type = ?, audio_size = ? where id between ? and ?",
+                blob.hash(), blob.contentType(), blob.size(), catalog.firstSongId(), catalog.lastSongId());
+        jdbc.update("update audio_blob set ref_count = ref_count + ? where hash = ?", songs, blob.hash());
+    }
+
+    private static String login(HttpClient http, String baseUrl, ObjectMapper json) throws Exception {
+        HttpResponse<byte[]> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(LOGIN_FORM)).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) throw new IllegalStateException("Login failed: HTTP " + response.statusCode());
+        return json.readTree(response.body()).path("token").asText();
+    }
+
+    private static List<String> weighted(Map<String, Integer> mix) {
+        List<String> weighted = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) weighted.add(operation);
+        });
+        return weighted;
+    }
+}
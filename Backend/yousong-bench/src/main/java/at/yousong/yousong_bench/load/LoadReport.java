@@ -0,0 +1,142 @@
+package at.yousong.yousong_bench.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ergebnis eines Laufs: Konsolentabelle, {@code load-result.json}, je Endpoint eine {@code .hgrm}-Perzentilverteilung
+ * und alle Histogramme als {@code histograms.hlog}. Vergleicht gegen eine Baseline im selben JSON-Format.
+ */
+final class LoadReport {
+
+    record EndpointResult(long requests, double throughput, long errors, double errorRate, long conflicts,
+                          double p50Ms, double p95Ms, double p99Ms, double maxMs, Map<String, Long> statuses) {}
+
+    record Result(Map<String, Object> environment, Map<String, Object> config, double seconds,
+                  Map<String, EndpointResult> endpoints) {}
+
+    private final ObjectMapper json;
+
+    LoadReport(ObjectMapper json) {
+        this.json = json.copy().enable(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    static Result summarize(LoadConfig config, Map<String, EndpointStats> stats, double seconds) {
+        Map<String, Object> environment = new LinkedHashMap<>();
+        environment.put("cpus", Runtime.getRuntime().availableProcessors());
+        environment.put("java", Runtime.version().toString());
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("clients", config.clients());
+        settings.put("seconds", config.seconds());
+        settings.put("songs", config.songs());
+        settings.put("hotSongs", config.hotSongs());
+        settings.put("mix", config.mix());
+        settings.put("virtualThreads", config.virtualThreads());
+
+        Map<String, EndpointResult> endpoints = new LinkedHashMap<>();
+        stats.forEach((name, s) -> {
+            long requests = s.requests();
+            if (requests == 0) return;
+            Histogram h = s.latencies;
+            long errors = s.errors.sum();
+            endpoints.put(name, new EndpointResult(requests, round(requests / seconds), errors,
+                    round((double) errors / requests), s.conflicts.sum(),
+                    ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(95)),
+                    ms(h.getValueAtPercentile(99)), ms(h.getMaxValue()), s.statuses()));
+        });
+        return new Result(environment, settings, round(seconds), endpoints);
+    }
+
+    void print(Result result, PrintStream out) {
+        out.printf("%n%-8s %9s %9s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "conflicts", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        result.endpoints().forEach((name, r) -> out.printf("%-8s %,9d %9.1f %7.2f%% %9d %9.2f %9.2f %9.2f %9.2f%n",
+                name, r.requests(), r.throughput(), r.errorRate() * 100, r.conflicts(), r.p50Ms(), r.p95Ms(), r.p99Ms(), r.maxMs()));
+    }
+
+    void write(Result result, Map<String, EndpointStats> stats, Path dir) throws IOException {
+        Files.createDirectories(dir);
+        json.writeValue(dir.resolve("load-result.json").toFile(), result);
+        try (PrintStream hlog = new PrintStream(Files.newOutputStream(dir.resolve("histograms.hlog")))) {
+            HistogramLogWriter writer = new HistogramLogWriter(hlog);
+            writer.outputLogFormatVersion();
+            writer.outputLegend();
+            for (EndpointStats s : stats.values()) {
+                if (s.requests() == 0) continue;
+                Histogram copy = s.latencies.copy();
+                copy.setTag(s.name);
+                writer.outputIntervalHistogram(copy);
+                // Werte in µs, Ausgabe in ms
+                try (PrintStream hgrm = new PrintStream(Files.newOutputStream(dir.resolve(s.name + ".hgrm")))) {
+                    s.latencies.outputPercentileDistribution(hgrm, 1000.0);
+                }
+            }
+        }
+    }
+
+    void writeBaseline(Result result, Path file) throws IOException {
+        json.writeValue(file.toFile(), result);
+    }
+
+    /**
+     * Regressionen gegenüber der Baseline: Durchsatz um mehr als {@code threshold} gesunken, p99 um mehr als
+     * {@code threshold} gestiegen oder Fehlerquote um mehr als einen Prozentpunkt gestiegen. p99 und Fehlerquote
+     * nur, wenn Baseline und Lauf je mindestens {@code minRequests} Requests haben – bei wenigen Samples ist p99
+     * praktisch das Maximum und schwankt von Lauf zu Lauf.
+     */
+    List<String> compare(Result result, Path baselineFile, double threshold, long minRequests) throws IOException {
+        JsonNode baseline = json.readTree(baselineFile.toFile());
+        List<String> regressions = new ArrayList<>();
+        if (baseline.path("environment").path("cpus").asInt() != Runtime.getRuntime().availableProcessors())
+            System.out.println("warning: baseline was recorded with " + baseline.path("environment").path("cpus").asInt()
+                    + " CPUs, this machine has " + Runtime.getRuntime().availableProcessors());
+
+        if (!baseline.path("config").equals(json.valueToTree(result.config())))
+            System.out.println("warning: baseline was recorded with a different configuration: " + baseline.path("config"));
+
+        baseline.path("endpoints").properties().forEach(entry -> {
+            String name = entry.getKey();
+            JsonNode base = entry.getValue();
+            EndpointResult current = result.endpoints().get(name);
+            if (current == null) {
+                regressions.add(name + ": no requests in this run");
+                return;
+            }
+            double baseThroughput = base.path("throughput").asDouble();
+            double baseP99 = base.path("p99Ms").asDouble();
+            double baseErrorRate = base.path("errorRate").asDouble();
+            if (current.throughput() < baseThroughput * (1 - threshold))
+                regressions.add(String.format("%s: throughput %.1f req/s < baseline %.1f", name, current.throughput(), baseThroughput));
+            long samples = Math.min(base.path("requests").asLong(), current.requests());
+            if (samples < minRequests) {
+                System.out.println("note: " + name + " has only " + samples + " requests, p99 and error rate not compared");
+                return;
+            }
+            if (current.p99Ms() > baseP99 * (1 + threshold))
+                regressions.add(String.format("%s: p99 %.2f ms > baseline %.2f ms", name, current.p99Ms(), baseP99));
+            if (current.errorRate() > baseErrorRate + 0.01)
+                regressions.add(String.format("%s: error rate %.2f%% > baseline %.2f%%", name, current.errorRate() * 100, baseErrorRate * 100));
+        });
+        return regressions;
+    }
+
+    private static double ms(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
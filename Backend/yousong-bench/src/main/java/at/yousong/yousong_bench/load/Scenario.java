@@ -0,0 +1,195 @@
+package at.yousong.yousong_bench.load;
+
+import at.yousong.yousong_bench.SyntheticCatalog;
+import at.yousong.yousong_bench.load.EndpointStats.Outcome;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Die Operationen eines Clients, jeweils so wie das Frontend sie auslöst:
+ * <ul>
+ *   <li>{@code browse}: Katalog per Keyset blättern (1–3 Seiten)</li>
+ *   <li>{@code search}: Search-as-you-type – ein Request pro Tastendruck</li>
+ *   <li>{@code detail}, {@code audio}: Song öffnen bzw. abspielen (teils mit Range)</li>
+ *   <li>{@code login}: Formular-Login (BCrypt)</li>
+ *   <li>{@code write}: meist Update eines von wenigen "heißen" Songs mit gelesener Version
+ *       (parallele Writer erzeugen 409-Konflikte), sonst Neuanlage</li>
+ * </ul>
+ */
+final class Scenario {
+
+    static final List<String> OPERATIONS = List.of("browse", "search", "detail", "audio", "login", "write");
+    static final List<String> ENDPOINTS = List.of("browse", "search", "detail", "audio", "login", "create", "update");
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final ObjectMapper json;
+    private final SyntheticCatalog.Range catalog;
+    private final List<Long> hotSongs;
+    private final String token;
+    private volatile Map<String, EndpointStats> stats = newStats();
+
+    Scenario(HttpClient http, String baseUrl, ObjectMapper json, SyntheticCatalog.Range catalog, List<Long> hotSongs, String token) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+        this.json = json;
+        this.catalog = catalog;
+        this.hotSongs = hotSongs;
+        this.token = token;
+    }
+
+    /** Neue, leere Statistik (z. B. nach dem Warm-up); liefert die bisherige zurück. */
+    Map<String, EndpointStats> reset() {
+        Map<String, EndpointStats> previous = stats;
+        stats = newStats();
+        return previous;
+    }
+
+    private static Map<String, EndpointStats> newStats() {
+        Map<String, EndpointStats> result = new LinkedHashMap<>();
+        for (String endpoint : ENDPOINTS) result.put(endpoint, new EndpointStats(endpoint));
+        return result;
+    }
+
+    void run(String operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case "browse" -> browse(random);
+            case "search" -> search(random);
+            case "detail" -> get("detail", "/api/songs/" + randomSong(random));
+            case "audio" -> audio(random);
+            case "login" -> login();
+            case "write" -> { if (random.nextInt(5) == 0) create(random); else update(random); }
+            default -> throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    // 🔹 Lesen
+
+    private void browse(ThreadLocalRandom random) {
+        String cursor = "";
+        for (int pages = 1 + random.nextInt(3); pages > 0 && cursor != null; pages--) {
+            JsonNode page = get("browse", "/api/songs/catalog?size=20&after=" + cursor);
+            cursor = page == null || page.path("nextCursor").isNull() ? null : page.path("nextCursor").asText(null);
+        }
+    }
+
+    private void search(ThreadLocalRandom random) {
+        String word = SyntheticCatalog.WORDS[random.nextInt(SyntheticCatalog.WORDS.length)];
+        for (int typed = 1; typed <= word.length(); typed++) {
+            get("search", "/api/songs/catalog?size=20&after=&q=" + URLEncoder.encode(word.substring(0, typed), StandardCharsets.UTF_8));
+        }
+    }
+
+    private void audio(ThreadLocalRandom random) {
+        String range = random.nextBoolean() ? "bytes=0-65535" : null;
+        HttpRequest.Builder request = request("/api/songs/" + randomSong(random) + "/music");
+        if (range != null) request.header("Range", range);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = http.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            int status = response.statusCode();
+            stats.get("audio").record(start, status, status == 200 || status == 206 ? Outcome.OK : Outcome.ERROR);
+        } catch (Exception e) {
+            stats.get("audio").record(start, 0, Outcome.ERROR);
+        }
+    }
+
+    // 🔹 Login und Schreiben
+
+    private void login() {
+        HttpRequest request = request("/login")
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(LoadGenerator.LOGIN_FORM))
+                .build();
+        send("login", request, 200);
+    }
+
+    private void create(ThreadLocalRandom random) {
+        ObjectNode song = json.createObjectNode()
+                .put("title", "Load Song " + random.nextInt(1_000_000))
+                .put("length", 120 + random.nextInt(240));
+        song.putArray("genres").add("Pop");
+        song.putObject("artist").put("id", 1);
+        send("create", authorized("/api/songs").POST(body(song)).build(), 201);
+    }
+
+    private void update(ThreadLocalRandom random) {
+        long id = hotSongs.get(random.nextInt(hotSongs.size()));
+        JsonNode current = get(null, "/api/songs/" + id);
+        if (current == null) {
+            stats.get("update").record(System.nanoTime(), 0, Outcome.ERROR);
+            return;
+        }
+        ObjectNode song = json.createObjectNode()
+                .put("title", "Hot Song " + id + " rev " + random.nextInt(1_000_000))
+                .put("length", current.path("length").asInt())
+                .put("version", current.path("version").asLong());
+        song.set("genres", current.path("genres"));
+        song.putObject("artist").put("id", current.path("artist").path("id").asLong());
+        send("update", authorized("/api/songs/" + id).PUT(body(song)).build(), 200);
+    }
+
+    // 🔹 HTTP-Hilfen
+
+    private JsonNode get(String endpoint, String path) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = http.send(request(path).build(), HttpResponse.BodyHandlers.ofByteArray());
+            boolean ok = response.statusCode() == 200;
+            if (endpoint != null) stats.get(endpoint).record(start, response.statusCode(), ok ? Outcome.OK : Outcome.ERROR);
+            return ok ? json.readTree(response.body()) : null;
+        } catch (Exception e) {
+            if (endpoint != null) stats.get(endpoint).record(start, 0, Outcome.ERROR);
+            return null;
+        }
+    }
+
+    private void send(String endpoint, HttpRequest request, int expected) {
+        long start = System.nanoTime();
+        try {
+            int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            stats.get(endpoint).record(start, status,
+                    status == expected ? Outcome.OK : status == 409 ? Outcome.CONFLICT : Outcome.ERROR);
+        } catch (Exception e) {
+            stats.get(endpoint).record(start, 0, Outcome.ERROR);
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return request(path)
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher body(JsonNode node) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(node));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long randomSong(ThreadLocalRandom random) {
+        return random.nextLong(catalog.firstSongId(), catalog.lastSongId() + 1);
+    }
+}
@@ -0,0 +1,36 @@
+import api from "./api";
+
+const CHUNK_SIZE = 1024 * 1024;
+const MAX_RETRIES = 3;
+
+// Audio in 1-MB-Chunks hochladen (fortsetzbar), liefert die audioId für das Song-JSON
+export async function uploadAudio(file, onProgress) {
+    const contentType = file.type || "audio/mpeg";
+    const { data } = await api.post("/api/uploads/sessions", { contentType });
+    const uploadId = data.uploadId;
+
+    let offset = 0;
+    let retries = 0;
+    while (offset < file.size) {
+        const chunk = file.slice(offset, offset + CHUNK_SIZE);
+        try {
+            const res = await api.patch(`/api/uploads/sessions/${uploadId}`, chunk, {
+                headers: { "Content-Type": "application/octet-stream", "Upload-Offset": String(offset) }
+            });
+            offset = res.data.offset;
+            retries = 0;
+            onProgress?.(offset / file.size);
+        } catch (e) {
+            if (++retries > MAX_RETRIES || e?.response?.status === 413) {
+                api.delete(`/api/uploads/sessions/${uploadId}`).catch(() => {});
+                throw e;
+            }
+            // Stand vom Server holen und ab dort weitermachen
+            const res = await api.get(`/api/uploads/sessions/${uploadId}`);
+            offset = res.data.offset;
+        }
+    }
+
+    const res = await api.post(`/api/uploads/sessions/${uploadId}/finalize`);
+    return res.data.audioId;
+}